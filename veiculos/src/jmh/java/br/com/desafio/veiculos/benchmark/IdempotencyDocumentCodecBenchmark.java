@@ -0,0 +1,142 @@
+package br.com.desafio.veiculos.benchmark;
+
+import br.com.desafio.veiculos.domain.Constraints;
+import br.com.desafio.veiculos.domain.Freshness;
+import br.com.desafio.veiculos.domain.Infractions;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo.IdempotencyDocument;
+import br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo.SmileVehicleAnalysisCodec;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Documento do store de idempotência: análise mapeada campo a campo pelo Spring Data (formato anterior)
+ * x payload Smile ({@link SmileVehicleAnalysisCodec}).
+ *
+ * - mapped*: conversão do documento no formato anterior de/para BSON pelo MappingMongoConverter;
+ * - encoded*: o mesmo com o payload binário, incluindo codificação/decodificação da análise;
+ * - bsonSize: tamanho em BSON de cada formato, reportado como contadores auxiliares (mappedBytes, encodedBytes).
+ *
+ * Execução: ./gradlew jmhJar && java -jar build/libs/veiculos-*-jmh.jar IdempotencyDocumentCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IdempotencyDocumentCodecBenchmark {
+
+    // Quantidade de infrações na análise: a lista de detalhes domina o tamanho do documento
+    @Param({"0", "10", "50"})
+    public int infractions;
+
+    private MappingMongoConverter converter;
+    private SmileVehicleAnalysisCodec codec;
+    private VehicleAnalysis analysis;
+    private Document mappedBson;
+    private Document encodedBson;
+    private long mappedBytes;
+    private long encodedBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        codec = new SmileVehicleAnalysisCodec();
+        analysis = analysis(infractions);
+
+        mappedBson = mappedWrite();
+        encodedBson = encodedWrite();
+        mappedBytes = sizeOf(mappedBson);
+        encodedBytes = sizeOf(encodedBson);
+    }
+
+    @Benchmark
+    public Document mappedWrite() {
+        Document bson = new Document();
+        converter.write(new IdempotencyDocument("chave", analysis), bson);
+        return bson;
+    }
+
+    @Benchmark
+    public VehicleAnalysis mappedRead() {
+        return converter.read(IdempotencyDocument.class, mappedBson).decode(codec);
+    }
+
+    @Benchmark
+    public Document encodedWrite() {
+        Document bson = new Document();
+        converter.write(IdempotencyDocument.encoded("chave", analysis, codec), bson);
+        return bson;
+    }
+
+    @Benchmark
+    public VehicleAnalysis encodedRead() {
+        return converter.read(IdempotencyDocument.class, encodedBson).decode(codec);
+    }
+
+    /**
+     * Só publica os tamanhos medidos no setUp; o tempo por operação desta medição não tem significado.
+     */
+    @Benchmark
+    public void bsonSize(BsonSize size) {
+        size.mappedBytes = mappedBytes;
+        size.encodedBytes = encodedBytes;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class BsonSize {
+        public long mappedBytes;
+        public long encodedBytes;
+    }
+
+    private static int sizeOf(Document bson) {
+        return new RawBsonDocument(bson, new DocumentCodec()).getByteBuffer().remaining();
+    }
+
+    private static VehicleAnalysis analysis(int infractions) {
+        Map<String, SupplierStatus> statuses = new LinkedHashMap<>();
+        statuses.put("F1", new SupplierStatus(SupplierStatus.Status.SUCCESS, 120, null));
+        statuses.put("F2", new SupplierStatus(SupplierStatus.Status.SUCCESS, 310, null));
+        statuses.put("F3", new SupplierStatus(SupplierStatus.Status.SUCCESS, 95, null, true));
+        List<Infractions.InfractionDetail> details = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < infractions; i++) {
+            BigDecimal amount = new BigDecimal("130.16").add(BigDecimal.valueOf(i));
+            details.add(new Infractions.InfractionDetail(i % 2 == 0 ? "Excesso de velocidade" : "Estacionamento irregular", amount));
+            total = total.add(amount);
+        }
+        return VehicleAnalysis.builder()
+                .vin("9BWZZZ377VT004251")
+                .constraints(new Constraints(true, false))
+                .infractions(new Infractions(total, details))
+                .supplierStatus(statuses)
+                .analyzedAt(Instant.now())
+                .freshness(Freshness.fresh())
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.desafio.veiculos.benchmark;
+
+import br.com.desafio.veiculos.infrastructure.config.IdempotencyKeyGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derivação da chave de idempotência: implementação anterior (MessageDigest.getInstance a cada chamada e
+ * hexadecimal via Integer.toHexString + StringBuilder) x {@link IdempotencyKeyGenerator} com SHA-256 e Murmur3.
+ *
+ * - identifier: chave da análise de um veículo (placa);
+ * - body: chave de um corpo de requisição JSON (lote com alguns identificadores).
+ *
+ * Execução (bytes/op na coluna gc.alloc.rate.norm):
+ * ./gradlew jmhJar && java -jar build/libs/veiculos-*-jmh.jar IdempotencyKeyBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IdempotencyKeyBenchmark {
+
+    @Param({"identifier", "body"})
+    public String content;
+
+    private String input;
+    private IdempotencyKeyGenerator sha256;
+    private IdempotencyKeyGenerator murmur3;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = "identifier".equals(content)
+                ? "ABC1D23"
+                : "{\"identificadores\":[\"ABC1D23\",\"9BWZZZ377VT004251\",\"12345678901\",\"XYZ9876\",\"9BWZZZ377VT004252\"]}";
+        sha256 = new IdempotencyKeyGenerator(IdempotencyKeyGenerator.SHA_256);
+        murmur3 = new IdempotencyKeyGenerator(IdempotencyKeyGenerator.MURMUR3_128);
+    }
+
+    @Benchmark
+    public String legacySha256() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(input.toUpperCase().trim().getBytes(StandardCharsets.UTF_8));
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    @Benchmark
+    public String sha256() {
+        return sha256.forIdentifier(input);
+    }
+
+    @Benchmark
+    public String murmur3() {
+        return murmur3.forIdentifier(input);
+    }
+}
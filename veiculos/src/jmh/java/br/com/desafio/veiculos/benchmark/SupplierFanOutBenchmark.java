@@ -0,0 +1,168 @@
+package br.com.desafio.veiculos.benchmark;
+
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import br.com.desafio.veiculos.application.service.F2SpeculationPolicy;
+import br.com.desafio.veiculos.application.service.IdempotencyClaimPolicy;
+import br.com.desafio.veiculos.application.service.RestrictedVehicleFilter;
+import br.com.desafio.veiculos.application.service.PartialResponsePolicy;
+import br.com.desafio.veiculos.application.service.StaleWhileRevalidatePolicy;
+import br.com.desafio.veiculos.application.service.VehicleAnalysisService;
+import br.com.desafio.veiculos.domain.Constraints;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import br.com.desafio.veiculos.domain.f1.F1ResponseData;
+import br.com.desafio.veiculos.domain.f2.F2ResponseData;
+import br.com.desafio.veiculos.domain.f3.F3ResponseData;
+import br.com.desafio.veiculos.infrastructure.adapters.normalization.IdentifierNormalizationAdapter;
+import br.com.desafio.veiculos.infrastructure.cache.NegativeResultCacheAdapter;
+import br.com.desafio.veiculos.infrastructure.config.ExecutorConfig;
+import br.com.desafio.veiculos.infrastructure.mappers.VehicleAnalysisMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compara o executor de fornecedores em pool fixo x virtual threads.
+ *
+ * Cada fornecedor simula {@code supplierLatencyMs} de I/O bloqueante; 64 clientes concorrentes
+ * disparam análises continuamente. Métricas relevantes:
+ * - sustainedThroughput: análises por segundo sustentadas (RPS);
+ * - latency: distribuição de latência (p99 no relatório SampleTime).
+ *
+ * Com {@code speculativeF2=true} e F1 com restrição, F2 passa a correr junto com F1 depois
+ * que o preditor aprende o VIN (primeira análise), reduzindo a latência de F1 + F2 para max(F1, F2).
+ *
+ * Execução: ./gradlew jmhJar && java -jar build/libs/veiculos-*-jmh.jar SupplierFanOutBenchmark
+ */
+@State(Scope.Benchmark)
+@Threads(64)
+public class SupplierFanOutBenchmark {
+
+    private static final String VIN = "9BWZZZ377VT004251";
+
+    @Param({ExecutorConfig.MODE_FIXED, ExecutorConfig.MODE_VIRTUAL})
+    public String executorMode;
+
+    @Param({"300"})
+    public long supplierLatencyMs;
+
+    @Param({"true"})
+    public boolean f1Restricted;
+
+    @Param({"false", "true"})
+    public boolean speculativeF2;
+
+    private ExecutorService executor;
+    private VehicleAnalysisService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = new ExecutorConfig().analysisTaskExecutor(executorMode, 10);
+
+        Constraints constraints = new Constraints(f1Restricted, false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        F2SpeculationPolicy speculationPolicy = new F2SpeculationPolicy(
+                speculativeF2, 0.6, 1_000_000_000L, Duration.ofMinutes(1), 1_000, 8, 20,
+                new RestrictedVehicleFilter((since, maxRecords, deadline, sink) -> 0, false, Duration.ofDays(7),
+                        1_000, 1_000, 0.01, Duration.ofSeconds(1), meterRegistry),
+                meterRegistry);
+        IdempotencyStorePort idempotencyStore = new NoOpIdempotencyStore();
+        service = new VehicleAnalysisService(
+                new IdentifierNormalizationAdapter(),
+                List.of(
+                        slowSupplier("F1", Set.of(), vin -> new F1ResponseData(vin, constraints)),
+                        slowSupplier("F2", Set.of("F1"), vin -> new F2ResponseData(vin, null, "ATIVO")),
+                        slowSupplier("F3", Set.of(), vin -> new F3ResponseData(0, BigDecimal.ZERO, List.of()))),
+                logEntry -> { },
+                idempotencyStore,
+                new NegativeResultCacheAdapter(false, Duration.ofMinutes(5), 1_000, meterRegistry),
+                new VehicleAnalysisMapper(),
+                executor,
+                meterRegistry,
+                speculationPolicy,
+                new PartialResponsePolicy(false, Duration.ZERO, meterRegistry),
+                new StaleWhileRevalidatePolicy(false, Duration.ofHours(1), meterRegistry),
+                new IdempotencyClaimPolicy(idempotencyStore, false, Duration.ofSeconds(30), Duration.ofMillis(100), meterRegistry));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public VehicleAnalysis sustainedThroughput() {
+        return service.analyzeVehicle(VIN, "bench");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public VehicleAnalysis latency() {
+        return service.analyzeVehicle(VIN, "bench");
+    }
+
+    private SupplierPort slowSupplier(String name, Set<String> dependsOn, Function<String, Object> response) {
+        return new SupplierPort() {
+            @Override
+            public SupplierResult<Object> fetchData(String vin) {
+                try {
+                    Thread.sleep(supplierLatencyMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return SupplierResult.failure(name, supplierLatencyMs, "interrompido");
+                }
+                return SupplierResult.success(name, supplierLatencyMs, response.apply(vin));
+            }
+
+            @Override
+            public String getSupplierName() {
+                return name;
+            }
+
+            @Override
+            public Set<String> dependsOn() {
+                return dependsOn;
+            }
+
+            @Override
+            public boolean shouldActivate(Map<String, SupplierResult<?>> dependencies) {
+                return !dependencies.containsKey("F1")
+                        || dependencies.get("F1").data() instanceof F1ResponseData f1Data && f1Data.hasConstraints();
+            }
+        };
+    }
+
+    private static final class NoOpIdempotencyStore implements IdempotencyStorePort {
+        @Override
+        public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.desafio.veiculos.benchmark;
+
+import br.com.desafio.veiculos.infrastructure.mock.VehicleDatabase;
+import br.com.desafio.veiculos.infrastructure.mock.VehicleStore;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga e busca na base de veículos compacta ({@link VehicleStore}) x o HashMap com três chaves
+ * por veículo usado antes.
+ *
+ * - load: tempo para ler o arquivo em lote e montar os índices (SingleShotTime), com os bytes ocupados
+ *   pela base carregada no contador auxiliar footprintBytes;
+ * - lookupByVin/Placa/Renavam: busca de um veículo existente escolhido ao acaso;
+ * - hashMapLookup: mesma busca por VIN no layout anterior (referência);
+ * - stats: contagens da base (constante, independente do tamanho).
+ *
+ * Execução: ./gradlew jmhJar && java -jar build/libs/veiculos-*-jmh.jar VehicleStoreBenchmark
+ */
+@State(Scope.Benchmark)
+public class VehicleStoreBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int vehicles;
+
+    private Path file;
+    private String[] vins;
+    private String[] placas;
+    private String[] renavams;
+    private VehicleStore store;
+    private VehicleDatabase database;
+    private Map<String, VehicleDatabase.VehicleData> hashMap;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Chaves geradas uma vez: as buscas medem só o índice
+        vins = new String[vehicles];
+        placas = new String[vehicles];
+        renavams = new String[vehicles];
+        for (int i = 0; i < vehicles; i++) {
+            vins[i] = String.format("9BW%014d", i);
+            placas[i] = String.format("%c%c%c%04d", 'A' + i % 26, 'A' + i / 26 % 26, 'A' + i / 676 % 26, i / 17_576);
+            renavams[i] = String.format("%011d", i);
+        }
+
+        file = Files.createTempFile("veiculos-bench", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < vehicles; i++) {
+                writer.write(placas[i] + ";" + renavams[i] + ";" + vins[i] + ";Marca" + (i % 40) + ";Modelo" + (i % 900)
+                        + ";" + (1990 + i % 35) + ";" + (i % 13 == 0) + ";" + (i % 29 == 0));
+                writer.newLine();
+            }
+        }
+
+        store = VehicleStore.load(file);
+        database = new VehicleDatabase(file.toString());
+
+        hashMap = new HashMap<>();
+        for (int i = 0; i < vehicles; i++) {
+            VehicleDatabase.VehicleData data = store.find(vins[i]).orElseThrow();
+            hashMap.put(data.getPlaca(), data);
+            hashMap.put(data.getRenavam(), data);
+            hashMap.put(data.getVin(), data);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public VehicleStore load(Footprint footprint) throws IOException {
+        VehicleStore loaded = VehicleStore.load(file);
+        footprint.footprintBytes = loaded.footprintBytes();
+        return loaded;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<VehicleDatabase.VehicleData> lookupByVin() {
+        return store.find(vins[randomVehicle()]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<VehicleDatabase.VehicleData> lookupByPlaca() {
+        return store.find(placas[randomVehicle()]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<VehicleDatabase.VehicleData> lookupByRenavam() {
+        return store.find(renavams[randomVehicle()]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public VehicleDatabase.VehicleData hashMapLookup() {
+        return hashMap.get(vins[randomVehicle()]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public VehicleDatabase.DatabaseStats stats() {
+        return database.getStats();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long footprintBytes;
+    }
+
+    private int randomVehicle() {
+        return ThreadLocalRandom.current().nextInt(vehicles);
+    }
+}
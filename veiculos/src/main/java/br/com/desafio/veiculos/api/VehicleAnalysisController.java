@@ -1,7 +1,12 @@
 package br.com.desafio.veiculos.api;
 
+import br.com.desafio.veiculos.application.usecase.BulkAnalysisUseCase;
+import br.com.desafio.veiculos.application.usecase.CacheInvalidationUseCase;
 import br.com.desafio.veiculos.application.usecase.VehicleAnalysisUseCase;
+import br.com.desafio.veiculos.domain.BulkAnalysisResult;
+import br.com.desafio.veiculos.domain.Deadline;
 import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import br.com.desafio.veiculos.infrastructure.config.IdempotencyKeyGenerator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
@@ -15,11 +20,26 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/v1/veiculos")
@@ -35,9 +55,24 @@ public class VehicleAnalysisController {
     private static final Logger log = LoggerFactory.getLogger(VehicleAnalysisController.class);
 
     private final VehicleAnalysisUseCase vehicleAnalysisUseCase;
+    private final BulkAnalysisUseCase bulkAnalysisUseCase;
+    private final CacheInvalidationUseCase cacheInvalidationUseCase;
+    private final IdempotencyKeyGenerator keyGenerator;
+    private final Duration bulkTimeout;
+    private final Duration analysisDeadline;
 
-    public VehicleAnalysisController(VehicleAnalysisUseCase vehicleAnalysisUseCase) {
+    public VehicleAnalysisController(VehicleAnalysisUseCase vehicleAnalysisUseCase,
+                                     BulkAnalysisUseCase bulkAnalysisUseCase,
+                                     CacheInvalidationUseCase cacheInvalidationUseCase,
+                                     IdempotencyKeyGenerator keyGenerator,
+                                     @Value("${analysis.bulk.timeout:30m}") Duration bulkTimeout,
+                                     @Value("${analysis.deadline:4500ms}") Duration analysisDeadline) {
         this.vehicleAnalysisUseCase = vehicleAnalysisUseCase;
+        this.bulkAnalysisUseCase = bulkAnalysisUseCase;
+        this.cacheInvalidationUseCase = cacheInvalidationUseCase;
+        this.keyGenerator = keyGenerator;
+        this.bulkTimeout = bulkTimeout;
+        this.analysisDeadline = analysisDeadline;
     }
 
     @GetMapping("/{idveiculo}/analise")
@@ -49,7 +84,7 @@ public class VehicleAnalysisController {
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200",
-            description = "Análise veicular consolidada. Pode conter dados parciais em caso de falha de fornecedores.",
+            description = "Análise veicular consolidada. Pode conter dados parciais em caso de falha de fornecedores ou, com resposta parcial habilitada, fornecedores ainda em andamento (PENDING).",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = VehicleAnalysis.class))
         ),
         @ApiResponse(
@@ -63,47 +98,142 @@ public class VehicleAnalysisController {
         @ApiResponse(
             responseCode = "500",
             description = "Erro interno do servidor"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Tempo limite da análise excedido"
         )
     })
-    public ResponseEntity<VehicleAnalysis> analyzeVehicle(
+    public DeferredResult<ResponseEntity<VehicleAnalysis>> analyzeVehicle(
         @Parameter(description = "Identificador do veículo (Placa, RENAVAM ou VIN)", required = true, example = "ABC1234")
         @PathVariable String idveiculo
     ) {
         // Gera chave de idempotência automaticamente baseada no identificador
         // Usa hash SHA-256 para garantir unicidade e prevenir colisões
-        String idempotencyKey = generateIdempotencyKey(idveiculo);
+        String idempotencyKey = keyGenerator.forIdentifier(idveiculo);
 
         MDC.put("idempotencyKey", idempotencyKey);
         log.info("Iniciando análise para o identificador: {} (idempotency: {})", idveiculo, idempotencyKey);
 
-        VehicleAnalysis analysis = vehicleAnalysisUseCase.analyzeVehicle(idveiculo, idempotencyKey);
+        // Processamento assíncrono: a thread do Tomcat é liberada enquanto os fornecedores respondem.
+        // O timeout segue spring.mvc.async.request-timeout.
+        DeferredResult<ResponseEntity<VehicleAnalysis>> deferredResult = new DeferredResult<>();
+
+        // Prazo criado na entrada: fornecedores param de tentar novamente quando o cliente já não aguardaria
+        Deadline deadline = Deadline.after(analysisDeadline);
+        CompletableFuture<VehicleAnalysis> analysis = vehicleAnalysisUseCase.analyzeVehicleAllowingPartial(idveiculo, idempotencyKey, deadline);
+        analysis.whenComplete((result, error) -> {
+            if (error != null) {
+                deferredResult.setErrorResult(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error);
+                return;
+            }
+            log.info("Análise concluída para o identificador: {}", idveiculo);
+            deferredResult.setResult(ResponseEntity.ok(result));
+        });
+
+        // Cliente desistiu ou a requisição expirou: cancela as chamadas aos fornecedores em andamento
+        deferredResult.onTimeout(() -> analysis.cancel(true));
+        deferredResult.onError(error -> analysis.cancel(true));
+
+        return deferredResult;
+    }
+
+    @PostMapping(value = "/analises", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Realiza análise unificada de um lote de veículos",
+        description = "Recebe uma lista de identificadores (Placa, RENAVAM ou VIN) e devolve um JSON por linha (NDJSON) à medida que cada veículo é concluído - a ordem das linhas não segue a ordem da entrada.",
+        security = @SecurityRequirement(name = "BearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Stream NDJSON com um resultado por veículo",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = BulkAnalysisResult.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Lote vazio ou acima do limite"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autorizado (Token JWT inválido ou ausente)"
+        )
+    })
+    public ResponseEntity<ResponseBodyEmitter> analyzeVehicles(
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Identificadores dos veículos", required = true)
+        @RequestBody List<String> identificadores
+    ) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(bulkTimeout.toMillis());
+
+        CompletableFuture<Void> batch = bulkAnalysisUseCase.analyzeAll(
+                identificadores, keyGenerator::forIdentifier, result -> sendLine(emitter, result));
+
+        batch.whenComplete((ignored, error) -> {
+            if (error != null) {
+                emitter.completeWithError(error);
+            } else {
+                log.info("Análise em lote concluída: {} veículos", identificadores.size());
+                emitter.complete();
+            }
+        });
+
+        // Cliente desconectou ou o lote expirou: para de enviar veículos aos fornecedores
+        emitter.onTimeout(() -> batch.cancel(true));
+        emitter.onError(error -> batch.cancel(true));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+
+    @DeleteMapping("/{idveiculo}/cache")
+    @Operation(
+        summary = "Invalida os dados em cache de um veículo",
+        description = "Descarta a análise armazenada e os resultados de fornecedores em cache do veículo em todas as instâncias (ex: após correção de uma restrição pelo fornecedor). A próxima análise consulta os fornecedores novamente.",
+        security = @SecurityRequirement(name = "BearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Invalidação aplicada nesta instância e enviada às demais"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Identificador inválido"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autorizado (Token JWT inválido ou ausente)"
+        )
+    })
+    public ResponseEntity<Map<String, String>> invalidateCache(
+        @Parameter(description = "Identificador do veículo (Placa, RENAVAM ou VIN)", required = true, example = "ABC1234")
+        @PathVariable String idveiculo
+    ) {
+        String vin = cacheInvalidationUseCase.invalidate(idveiculo);
+        return ResponseEntity.accepted().body(Map.of("vin", vin));
+    }
 
-        log.info("Análise concluída para o identificador: {}", idveiculo);
-        return ResponseEntity.ok(analysis);
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidInput(IllegalArgumentException e) {
+        log.warn("Requisição inválida: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
     }
 
     /**
-     * Gera uma chave de idempotência baseada no identificador do veículo.
-     * Utiliza SHA-256 para criar um hash único e determinístico.
-     *
-     * @param idveiculo Identificador do veículo (Placa, RENAVAM ou VIN)
-     * @return Chave de idempotência (hash hexadecimal)
+     * Escreve um resultado como uma linha NDJSON. Os resultados chegam de várias threads,
+     * então o objeto e o separador de linha são enviados juntos.
      */
-    private String generateIdempotencyKey(String idveiculo) {
+    private void sendLine(ResponseBodyEmitter emitter, BulkAnalysisResult result) {
         try {
-            java.security.MessageDigest digest = java.security.MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(idveiculo.toUpperCase().trim().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
+            synchronized (emitter) {
+                emitter.send(result, MediaType.APPLICATION_JSON);
+                emitter.send("\n", MediaType.TEXT_PLAIN);
             }
-            return hexString.toString();
-        } catch (java.security.NoSuchAlgorithmException e) {
-            // Fallback: usa o próprio identificador normalizado como chave
-            log.warn("Erro ao gerar hash SHA-256, usando identificador como chave", e);
-            return "idem_" + idveiculo.toUpperCase().trim().replaceAll("[^A-Z0-9]", "");
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Falha ao enviar resultado do lote para o cliente: {}", e.getMessage());
         }
     }
 }
@@ -0,0 +1,21 @@
+package br.com.desafio.veiculos.application.port.out;
+
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.VehicleAnalysisLog;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Leitura do histórico de logs de análise publicados por {@link AnalysisLogPort}.
+ */
+public interface AnalysisLogReaderPort {
+
+    /**
+     * Relê os logs publicados a partir de {@code since}, entregando cada um ao {@code sink}.
+     * Com mais de {@code maxRecords} logs no período, são entregues os mais recentes.
+     *
+     * @return quantidade de logs entregues
+     */
+    long replay(Instant since, int maxRecords, Deadline deadline, Consumer<VehicleAnalysisLog> sink);
+}
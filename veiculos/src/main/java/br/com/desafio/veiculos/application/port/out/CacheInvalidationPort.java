@@ -0,0 +1,9 @@
+package br.com.desafio.veiculos.application.port.out;
+
+/**
+ * Propaga a invalidação de um VIN para as demais instâncias da aplicação.
+ */
+public interface CacheInvalidationPort {
+
+    void publish(String vin);
+}
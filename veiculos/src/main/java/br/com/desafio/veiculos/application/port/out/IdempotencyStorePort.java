@@ -1,10 +1,49 @@
 package br.com.desafio.veiculos.application.port.out;
 
 import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface IdempotencyStorePort {
     Optional<VehicleAnalysis> getResponse(String idempotencyKey);
     void storeResponse(String idempotencyKey, VehicleAnalysis response);
+
+    /**
+     * Consulta sem bloquear o chamador. Stores síncronos respondem na própria thread, com o futuro já concluído.
+     * O futuro nunca falha: erro na consulta equivale a chave ausente.
+     */
+    default CompletableFuture<Optional<VehicleAnalysis>> getResponseAsync(String idempotencyKey) {
+        return CompletableFuture.completedFuture(getResponse(idempotencyKey));
+    }
+
+    /**
+     * Reserva atômica da chave antes da consulta aos fornecedores: a chave fica IN_PROGRESS por {@code lease},
+     * e outras instâncias aguardam a resposta em vez de repetir a consulta. A reserva termina com
+     * {@link #storeResponse}, com {@link #releaseClaim} ou com o fim do lease (instância que caiu).
+     * Stores sem suporte sempre concedem a reserva: cada instância consulta os fornecedores por conta própria.
+     *
+     * Uma chave já reservada por esta instância é concedida de novo: a requisição repetida segue para a
+     * análise local em andamento do mesmo VIN em vez de aguardar a própria instância.
+     *
+     * @return {@code true} se esta instância ficou (ou já era) responsável pela chave; {@code false} se outra
+     *         a detém ou a resposta já foi gravada
+     */
+    default CompletableFuture<Boolean> claim(String idempotencyKey, Duration lease) {
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Desfaz a reserva desta instância sem gravar resposta (análise que falhou ou não deve ser gravada).
+     */
+    default void releaseClaim(String idempotencyKey) {
+    }
+
+    /**
+     * Remove as respostas gravadas para o VIN, sob qualquer chave. Stores que não indexam por VIN
+     * não removem nada e deixam a resposta expirar pelo TTL.
+     */
+    default void removeByVin(String vin) {
+    }
 }
 
@@ -0,0 +1,20 @@
+package br.com.desafio.veiculos.application.port.out;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+
+import java.util.Optional;
+
+/**
+ * Cache de resultados negativos: identificadores rejeitados na validação e VINs que nenhum
+ * fornecedor conhece. Evita repetir validação e consultas pagas para entradas sabidamente inúteis.
+ */
+public interface NegativeResultCachePort {
+
+    boolean isRejectedIdentifier(String identifier);
+
+    void rememberRejectedIdentifier(String identifier);
+
+    Optional<VehicleAnalysis> getUnknownVehicle(String vin);
+
+    void rememberUnknownVehicle(String vin, VehicleAnalysis analysis);
+}
@@ -1,9 +1,38 @@
 package br.com.desafio.veiculos.application.port.out;
 
+import br.com.desafio.veiculos.domain.Deadline;
 import br.com.desafio.veiculos.domain.SupplierResult;
 
+import java.util.Map;
+import java.util.Set;
+
 public interface SupplierPort {
     SupplierResult<Object> fetchData(String vin);
+
+    /**
+     * Consulta respeitando o prazo da análise: novas tentativas e esperas por rate limiter
+     * ou bulkhead só acontecem se couberem no tempo restante.
+     * Adaptadores sem suporte a prazo usam a consulta padrão.
+     */
+    default SupplierResult<Object> fetchData(String vin, Deadline deadline) {
+        return fetchData(vin);
+    }
+
     String getSupplierName();
-}
 
+    /**
+     * Fornecedores (por {@link #getSupplierName()}) cujos resultados esta consulta precisa.
+     * Sem dependências, a consulta começa assim que a análise inicia.
+     */
+    default Set<String> dependsOn() {
+        return Set.of();
+    }
+
+    /**
+     * Decide, com os resultados das dependências, se a consulta deve ser feita.
+     * Quando não ativada, o fornecedor aparece como NOT_CALLED.
+     */
+    default boolean shouldActivate(Map<String, SupplierResult<?>> dependencies) {
+        return true;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.desafio.veiculos.application.port.out;
+
+import java.util.Collection;
+
+/**
+ * Cache local com entradas que dependem dos dados de um VIN. Quando um fornecedor corrige o dado
+ * de um veículo (ex: restrição RENAJUD baixada), as entradas desses VINs são descartadas.
+ */
+public interface VinCacheEvictable {
+
+    void evictVins(Collection<String> vins);
+}
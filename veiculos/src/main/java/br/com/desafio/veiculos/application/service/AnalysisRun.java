@@ -0,0 +1,13 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Análise em andamento: o resultado final e uma visão parcial, consolidada a partir dos
+ * fornecedores que já responderam (os demais aparecem como PENDING).
+ */
+record AnalysisRun(CompletableFuture<VehicleAnalysis> result, Supplier<VehicleAnalysis> partialView) {
+}
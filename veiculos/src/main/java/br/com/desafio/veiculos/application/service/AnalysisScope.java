@@ -0,0 +1,85 @@
+package br.com.desafio.veiculos.application.service;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Escopo estruturado das chamadas a fornecedores de uma única análise.
+ *
+ * Segue a semântica do StructuredTaskScope.ShutdownOnFailure do Java 21 (API ainda em preview):
+ * - toda chamada da requisição é disparada por {@link #fork(Supplier)};
+ * - se uma chamada falhar, as chamadas irmãs ainda em execução são canceladas com interrupção;
+ * - ao fechar o escopo, nenhuma chamada sobrevive à requisição que a originou.
+ *
+ * O cancelamento individual de um fork (ex: resultado descartado) interrompe apenas a sua tarefa.
+ */
+class AnalysisScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final List<Forked<?>> forks = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+
+    AnalysisScope(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    <T> CompletableFuture<T> fork(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (shutdown.get()) {
+            result.cancel(false);
+            return result;
+        }
+
+        Future<?> running = executor.submit(() -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        Forked<T> forked = new Forked<>(running, result);
+        forks.add(forked);
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                running.cancel(true);
+            } else if (error != null && !(error instanceof CancellationException)) {
+                shutdown();
+            }
+        });
+
+        // Fechamento concorrente: garante que o fork tardio não fique órfão
+        if (shutdown.get()) {
+            forked.cancel();
+        }
+        return result;
+    }
+
+    void shutdown() {
+        if (shutdown.compareAndSet(false, true)) {
+            forks.forEach(Forked::cancel);
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+    private record Forked<T>(Future<?> task, CompletableFuture<T> result) {
+        void cancel() {
+            // Só interrompe tarefas sem resultado: a thread de uma tarefa concluída
+            // pode estar executando os estágios dependentes da análise
+            if (!result.isDone()) {
+                task.cancel(true);
+                result.cancel(false);
+            }
+        }
+    }
+}
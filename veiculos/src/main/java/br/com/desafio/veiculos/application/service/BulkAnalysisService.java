@@ -0,0 +1,115 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.usecase.BulkAnalysisUseCase;
+import br.com.desafio.veiculos.application.usecase.VehicleAnalysisUseCase;
+import br.com.desafio.veiculos.domain.BulkAnalysisResult;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Análise em lote com concorrência limitada.
+ *
+ * O lote é processado por {@code maxInFlight} "pistas": cada pista analisa um veículo por vez e,
+ * ao concluí-lo, entrega o resultado e puxa o próximo identificador. Como cada veículo faz no máximo
+ * uma chamada a F1, F2 e F3, o número de pistas limita as chamadas simultâneas a cada fornecedor -
+ * o padrão (10) acompanha o menor bulkhead (F1). Nenhuma thread fica bloqueada aguardando vaga
+ * e os resultados não são acumulados em memória.
+ */
+@Service
+public class BulkAnalysisService implements BulkAnalysisUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkAnalysisService.class);
+
+    private final VehicleAnalysisUseCase vehicleAnalysisUseCase;
+    private final ExecutorService analysisExecutor;
+    private final int maxInFlight;
+    private final int maxItems;
+
+    public BulkAnalysisService(
+            VehicleAnalysisUseCase vehicleAnalysisUseCase,
+            @Qualifier("analysisTaskExecutor") ExecutorService analysisExecutor,
+            @Value("${analysis.bulk.max-in-flight:10}") int maxInFlight,
+            @Value("${analysis.bulk.max-items:10000}") int maxItems) {
+        this.vehicleAnalysisUseCase = vehicleAnalysisUseCase;
+        this.analysisExecutor = analysisExecutor;
+        this.maxInFlight = maxInFlight;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    public CompletableFuture<Void> analyzeAll(List<String> identifiers,
+                                              Function<String, String> idempotencyKeys,
+                                              Consumer<BulkAnalysisResult> sink) {
+        if (identifiers == null || identifiers.isEmpty()) {
+            throw new IllegalArgumentException("Lote vazio");
+        }
+        if (identifiers.size() > maxItems) {
+            throw new IllegalArgumentException("Lote excede o limite de " + maxItems + " veículos");
+        }
+
+        log.info("Iniciando análise em lote: {} veículos, {} em paralelo", identifiers.size(), maxInFlight);
+
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        AtomicInteger next = new AtomicInteger();
+        int lanes = Math.min(maxInFlight, identifiers.size());
+
+        CompletableFuture<?>[] running = new CompletableFuture<?>[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            running[lane] = runLane(identifiers, next, idempotencyKeys, sink, completion);
+        }
+
+        CompletableFuture.allOf(running).whenComplete((ignored, error) -> {
+            if (error != null) {
+                completion.completeExceptionally(error);
+            } else {
+                completion.complete(null);
+            }
+        });
+        return completion;
+    }
+
+    private CompletableFuture<Void> runLane(List<String> identifiers,
+                                            AtomicInteger next,
+                                            Function<String, String> idempotencyKeys,
+                                            Consumer<BulkAnalysisResult> sink,
+                                            CompletableFuture<Void> completion) {
+        int index = next.getAndIncrement();
+        if (index >= identifiers.size() || completion.isDone()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String identifier = identifiers.get(index);
+        CompletableFuture<VehicleAnalysis> analysis;
+        try {
+            analysis = vehicleAnalysisUseCase.analyzeVehicleAsync(identifier, idempotencyKeys.apply(identifier));
+        } catch (RuntimeException e) {
+            analysis = CompletableFuture.failedFuture(e);
+        }
+
+        return analysis
+                .handle((result, error) -> error == null
+                        ? BulkAnalysisResult.success(identifier, result)
+                        : BulkAnalysisResult.failure(identifier, rootMessage(error)))
+                .thenAccept(sink)
+                // Async: respostas já em cache concluem na hora e empilhariam a recursão
+                .thenComposeAsync(ignored -> runLane(identifiers, next, idempotencyKeys, sink, completion),
+                        analysisExecutor);
+    }
+
+    private String rootMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
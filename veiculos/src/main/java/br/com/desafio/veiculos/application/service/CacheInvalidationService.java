@@ -0,0 +1,95 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.port.out.CacheInvalidationPort;
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.application.port.out.IdentifierNormalizationPort;
+import br.com.desafio.veiculos.application.port.out.VinCacheEvictable;
+import br.com.desafio.veiculos.application.usecase.CacheInvalidationUseCase;
+import br.com.desafio.veiculos.domain.IdentifierType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Invalidação dos dados em cache de um veículo em todas as instâncias.
+ *
+ * Na instância que recebe o pedido: remove as respostas do store de idempotência (compartilhado),
+ * descarta as entradas dos caches locais e só então publica o VIN, para que as demais instâncias
+ * não recarreguem do MongoDB a resposta que está sendo invalidada.
+ *
+ * Os caches locais ({@link VinCacheEvictable}) são resolvidos a cada invalidação: os caches por
+ * fornecedor são decoradores aplicados aos beans {@code SupplierPort} e só têm o tipo final
+ * depois de criados.
+ */
+@Service
+public class CacheInvalidationService implements CacheInvalidationUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    private final IdentifierNormalizationPort identifierNormalizationPort;
+    private final IdempotencyStorePort idempotencyStore;
+    private final CacheInvalidationPort invalidationPort;
+    private final Supplier<List<VinCacheEvictable>> localCaches;
+    private final Counter localEvictions;
+
+    public CacheInvalidationService(IdentifierNormalizationPort identifierNormalizationPort,
+                                    IdempotencyStorePort idempotencyStore,
+                                    CacheInvalidationPort invalidationPort,
+                                    ObjectProvider<VinCacheEvictable> localCaches,
+                                    MeterRegistry meterRegistry) {
+        this(identifierNormalizationPort, idempotencyStore, invalidationPort,
+                () -> localCaches.orderedStream().toList(), meterRegistry);
+    }
+
+    CacheInvalidationService(IdentifierNormalizationPort identifierNormalizationPort,
+                             IdempotencyStorePort idempotencyStore,
+                             CacheInvalidationPort invalidationPort,
+                             Supplier<List<VinCacheEvictable>> localCaches,
+                             MeterRegistry meterRegistry) {
+        this.identifierNormalizationPort = identifierNormalizationPort;
+        this.idempotencyStore = idempotencyStore;
+        this.invalidationPort = invalidationPort;
+        this.localCaches = localCaches;
+        this.localEvictions = Counter.builder("cache.invalidation.evicted")
+                .description("VINs descartados dos caches locais")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String invalidate(String inputIdentifier) {
+        IdentifierType inputType = identifierNormalizationPort.identifyType(inputIdentifier);
+        if (inputType == IdentifierType.INVALIDO) {
+            throw new IllegalArgumentException("Identificador inválido: " + inputIdentifier);
+        }
+        String vin = identifierNormalizationPort.normalizeToVin(inputIdentifier, inputType);
+
+        idempotencyStore.removeByVin(vin);
+        evictLocal(List.of(vin));
+        invalidationPort.publish(vin);
+
+        log.info("Cache do VIN {} invalidado e propagado para as demais instâncias", vin);
+        return vin;
+    }
+
+    @Override
+    public void evictLocal(Collection<String> vins) {
+        if (vins == null || vins.isEmpty()) {
+            return;
+        }
+        for (VinCacheEvictable cache : localCaches.get()) {
+            try {
+                cache.evictVins(vins);
+            } catch (RuntimeException e) {
+                log.error("Falha ao invalidar cache local {}: {}", cache.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+        localEvictions.increment(vins.size());
+    }
+}
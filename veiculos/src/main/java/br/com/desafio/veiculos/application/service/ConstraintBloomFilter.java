@@ -0,0 +1,107 @@
+package br.com.desafio.veiculos.application.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de VINs com restrição (RENAJUD/recall).
+ *
+ * Responde "talvez tenha restrição" ou "com certeza não está no filtro" ocupando alguns bits por VIN,
+ * em vez de guardar os VINs. Tamanho e número de funções de hash são calculados a partir da
+ * capacidade esperada e da taxa de falso positivo desejada; as posições vêm de dois hashes de 64 bits
+ * combinados (double hashing). Inserções concorrentes são seguras; não há remoção.
+ */
+final class ConstraintBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    private ConstraintBloomFilter(long bitSize, int hashFunctions) {
+        this.words = new AtomicLongArray(Math.toIntExact(bitSize >>> 6));
+        this.bitSize = bitSize;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * @param expectedInsertions   VINs que o filtro deve comportar mantendo a taxa de falso positivo
+     * @param falsePositiveRate    taxa de falso positivo desejada com {@code expectedInsertions} VINs
+     */
+    static ConstraintBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Taxa de falso positivo deve estar entre 0 e 1: " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2));
+        bits = Math.max(64, (bits + 63) & ~63L);
+        int k = Math.max(1, (int) Math.round((double) bits / n * LN2));
+        return new ConstraintBloomFilter(bits, k);
+    }
+
+    void put(String vin) {
+        long hash1 = hash(vin, 0xcbf29ce484222325L);
+        long hash2 = hash(vin, 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitSize;
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                word = words.get(index);
+            }
+        }
+    }
+
+    boolean mightContain(String vin) {
+        long hash1 = hash(vin, 0xcbf29ce484222325L);
+        long hash2 = hash(vin, 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitSize;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Taxa de falso positivo estimada pela fração de bits ligados: (bits ligados / bits)^k.
+     * Cresce conforme VINs são inseridos além da capacidade esperada.
+     */
+    double estimatedFalsePositiveRate() {
+        return Math.pow((double) bitCount() / bitSize, hashFunctions);
+    }
+
+    long bitCount() {
+        long count = 0;
+        for (int i = 0; i < words.length(); i++) {
+            count += Long.bitCount(words.get(i));
+        }
+        return count;
+    }
+
+    long sizeInBytes() {
+        return bitSize >>> 3;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * FNV-1a de 64 bits seguido da finalização do Murmur3 (fmix64) para espalhar os bits.
+     */
+    private static long hash(String vin, long seed) {
+        long h = seed;
+        for (int i = 0; i < vin.length(); i++) {
+            h = (h ^ vin.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
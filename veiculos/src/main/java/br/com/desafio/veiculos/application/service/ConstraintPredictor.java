@@ -0,0 +1,77 @@
+package br.com.desafio.veiculos.application.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estima a probabilidade de um VIN ter restrições (RENAJUD/recall) a partir do histórico
+ * de análises - o mesmo sinal registrado em {@code VehicleAnalysisLog.hasConstraints}.
+ *
+ * Usa primeiro o histórico do próprio VIN; sem histórico, recorre ao prefixo do VIN
+ * (fabricante/modelo) desde que haja amostras suficientes. As estimativas usam suavização
+ * de Laplace para que uma única observação não leve a probabilidade a 0 ou 1.
+ * Ambos os históricos são LRU com tamanho limitado.
+ */
+final class ConstraintPredictor {
+
+    private final int prefixLength;
+    private final int minPrefixSamples;
+    private final Map<String, Stats> byVin;
+    private final Map<String, Stats> byPrefix;
+
+    ConstraintPredictor(int maxEntries, int prefixLength, int minPrefixSamples) {
+        this.prefixLength = prefixLength;
+        this.minPrefixSamples = minPrefixSamples;
+        this.byVin = lru(maxEntries);
+        this.byPrefix = lru(maxEntries);
+    }
+
+    /**
+     * @return probabilidade estimada de restrição, ou -1 quando não há histórico suficiente
+     */
+    synchronized double probability(String vin) {
+        Stats vinStats = byVin.get(vin);
+        if (vinStats != null) {
+            return vinStats.probability();
+        }
+        Stats prefixStats = byPrefix.get(prefix(vin));
+        if (prefixStats != null && prefixStats.seen >= minPrefixSamples) {
+            return prefixStats.probability();
+        }
+        return -1;
+    }
+
+    synchronized void record(String vin, boolean hasConstraints) {
+        byVin.computeIfAbsent(vin, key -> new Stats()).add(hasConstraints);
+        byPrefix.computeIfAbsent(prefix(vin), key -> new Stats()).add(hasConstraints);
+    }
+
+    private String prefix(String vin) {
+        return vin.length() <= prefixLength ? vin : vin.substring(0, prefixLength);
+    }
+
+    private static Map<String, Stats> lru(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Stats> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private static final class Stats {
+        private long seen;
+        private long withConstraints;
+
+        void add(boolean hasConstraints) {
+            seen++;
+            if (hasConstraints) {
+                withConstraints++;
+            }
+        }
+
+        double probability() {
+            return (withConstraints + 1.0) / (seen + 2.0);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.SupplierResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Política de disparo especulativo de F2.
+ *
+ * Sem especulação, F2 só começa depois de F1 e a latência de um veículo com restrições é F1 + F2.
+ * Quando o VIN consta no {@link RestrictedVehicleFilter} (VINs com restrição no histórico) ou o
+ * {@link ConstraintPredictor} estima probabilidade de restrição acima do limiar, F2 é disparado junto
+ * com F1; se F1 voltar sem restrições, a chamada é cancelada e o custo conta como desperdício.
+ *
+ * O gasto extra é limitado por janela: cada especulação reserva o custo de F2 do orçamento,
+ * e a reserva é devolvida quando a especulação acerta (o custo seria pago de qualquer forma).
+ *
+ * Atua como {@link SpeculationHook} do grafo de fornecedores apenas para F2; os demais nós
+ * seguem o fluxo normal.
+ */
+@Component
+public class F2SpeculationPolicy implements SpeculationHook {
+
+    private static final String SPECULATIVE_SUPPLIER = "F2";
+
+    private final boolean enabled;
+    private final double threshold;
+    private final long budgetCentsPerWindow;
+    private final long windowNanos;
+    private final ConstraintPredictor predictor;
+    private final RestrictedVehicleFilter restrictedVehicles;
+
+    private long windowStart = System.nanoTime();
+    private long reservedCents;
+
+    private final Counter hits;
+    private final Counter wasted;
+    private final Counter skippedByBudget;
+    private final Counter extraCostCents;
+    private final Timer savedLatency;
+
+    public F2SpeculationPolicy(
+            @Value("${analysis.speculation.enabled:false}") boolean enabled,
+            @Value("${analysis.speculation.threshold:0.6}") double threshold,
+            @Value("${analysis.speculation.budget-cents-per-window:500}") long budgetCentsPerWindow,
+            @Value("${analysis.speculation.window:1m}") Duration window,
+            @Value("${analysis.speculation.history-size:100000}") int historySize,
+            @Value("${analysis.speculation.vin-prefix-length:8}") int vinPrefixLength,
+            @Value("${analysis.speculation.min-prefix-samples:20}") int minPrefixSamples,
+            RestrictedVehicleFilter restrictedVehicles,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.budgetCentsPerWindow = budgetCentsPerWindow;
+        this.windowNanos = window.toNanos();
+        this.predictor = new ConstraintPredictor(historySize, vinPrefixLength, minPrefixSamples);
+        this.restrictedVehicles = restrictedVehicles;
+
+        this.hits = Counter.builder("analysis.speculation")
+                .description("F2 especulativo aproveitado (F1 confirmou restrição)")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+        this.wasted = Counter.builder("analysis.speculation")
+                .description("F2 especulativo descartado (F1 sem restrição)")
+                .tag("outcome", "wasted")
+                .register(meterRegistry);
+        this.skippedByBudget = Counter.builder("analysis.speculation")
+                .description("Especulação não disparada por falta de orçamento na janela")
+                .tag("outcome", "skipped_budget")
+                .register(meterRegistry);
+        this.extraCostCents = Counter.builder("analysis.speculation.extra.cost.cents")
+                .description("Custo de chamadas F2 especulativas descartadas")
+                .register(meterRegistry);
+        this.savedLatency = Timer.builder("analysis.speculation.saved.latency")
+                .description("Latência economizada por F2 especulativo aproveitado")
+                .register(meterRegistry);
+        Gauge.builder("analysis.speculation.budget.remaining.cents", this, F2SpeculationPolicy::remainingBudgetCents)
+                .description("Orçamento de especulação restante na janela atual")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean shouldStartEarly(String supplierName, String vin) {
+        return SPECULATIVE_SUPPLIER.equals(supplierName) && shouldSpeculate(vin);
+    }
+
+    @Override
+    public void onActivationResolved(String supplierName, String vin, boolean activated) {
+        if (SPECULATIVE_SUPPLIER.equals(supplierName)) {
+            recordOutcome(vin, activated);
+        }
+    }
+
+    /**
+     * F1 confirmou a restrição: a especulação economizou o trecho de F2 que correu em paralelo com F1.
+     */
+    @Override
+    public void onEarlyStartUsed(String supplierName, long dependenciesLatencyMs, SupplierResult<?> result) {
+        recordHit(dependenciesLatencyMs, result.status().latencyMs());
+    }
+
+    @Override
+    public void onEarlyStartDiscarded(String supplierName) {
+        onWasted();
+    }
+
+    /**
+     * Decide se F2 deve ser disparado junto com F1. Uma decisão positiva reserva o custo de F2 do orçamento.
+     */
+    boolean shouldSpeculate(String vin) {
+        if (!enabled || !(restrictedVehicles.mightBeRestricted(vin) || predictor.probability(vin) >= threshold)) {
+            return false;
+        }
+        if (!tryReserve(VehicleAnalysisService.F2_COST_CENTS)) {
+            skippedByBudget.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Alimenta o preditor com o resultado real de F1.
+     */
+    void recordOutcome(String vin, boolean hasConstraints) {
+        predictor.record(vin, hasConstraints);
+        restrictedVehicles.recordOutcome(vin, hasConstraints);
+    }
+
+    void onWasted() {
+        wasted.increment();
+        extraCostCents.increment(VehicleAnalysisService.F2_COST_CENTS);
+    }
+
+    private void recordHit(long f1LatencyMs, long f2LatencyMs) {
+        hits.increment();
+        release(VehicleAnalysisService.F2_COST_CENTS);
+        savedLatency.record(Math.min(f1LatencyMs, f2LatencyMs), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized boolean tryReserve(long costCents) {
+        rollWindow();
+        if (reservedCents + costCents > budgetCentsPerWindow) {
+            return false;
+        }
+        reservedCents += costCents;
+        return true;
+    }
+
+    private synchronized void release(long costCents) {
+        reservedCents = Math.max(0, reservedCents - costCents);
+    }
+
+    private synchronized double remainingBudgetCents() {
+        rollWindow();
+        return budgetCentsPerWindow - reservedCents;
+    }
+
+    private void rollWindow() {
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos) {
+            windowStart = now;
+            reservedCents = 0;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserva da chave de idempotência entre instâncias (claim-then-complete).
+ *
+ * Sem reserva, duas instâncias que recebem a mesma chave ao mesmo tempo consultam (e pagam) os
+ * fornecedores duas vezes. Com a política habilitada, a instância reserva a chave no store antes da
+ * consulta ({@link IdempotencyStorePort#claim}); as demais aguardam a resposta, consultando o store a cada
+ * {@code poll-interval} sem ocupar thread entre uma consulta e outra. A espera termina quando:
+ * <ul>
+ *   <li>a resposta é gravada: entregue ao chamador;</li>
+ *   <li>a reserva é desfeita ou o lease expira (a instância vencedora falhou ou caiu): esta instância assume a chave;</li>
+ *   <li>o prazo da requisição acaba: a análise segue localmente, já sem prazo para os fornecedores.</li>
+ * </ul>
+ *
+ * Métricas: idempotency.claim{result=acquired|takeover|waited|expired}.
+ */
+@Component
+public class IdempotencyClaimPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyClaimPolicy.class);
+
+    private final IdempotencyStorePort idempotencyStore;
+    private final boolean enabled;
+    private final Duration lease;
+    private final Duration pollInterval;
+
+    private final Counter acquired;
+    private final Counter takeovers;
+    private final Counter waited;
+    private final Counter expired;
+
+    public IdempotencyClaimPolicy(
+            IdempotencyStorePort idempotencyStore,
+            @Value("${idempotency.claim.enabled:false}") boolean enabled,
+            @Value("${idempotency.claim.lease:30s}") Duration lease,
+            @Value("${idempotency.claim.poll-interval:100ms}") Duration pollInterval,
+            MeterRegistry meterRegistry) {
+        this.idempotencyStore = idempotencyStore;
+        this.enabled = enabled;
+        this.lease = lease;
+        this.pollInterval = pollInterval;
+
+        this.acquired = claims(meterRegistry, "acquired");
+        this.takeovers = claims(meterRegistry, "takeover");
+        this.waited = claims(meterRegistry, "waited");
+        this.expired = claims(meterRegistry, "expired");
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param executor executor onde as consultas ao store são feitas durante a espera
+     * @return future nunca falha: vazio se esta instância deve consultar os fornecedores, ou com a resposta
+     *         gravada pela instância que detinha a chave
+     */
+    CompletableFuture<Optional<VehicleAnalysis>> acquire(String idempotencyKey, Deadline deadline, Executor executor) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        CompletableFuture<Optional<VehicleAnalysis>> outcome = new CompletableFuture<>();
+        attempt(idempotencyKey, deadline, executor, outcome, false);
+        return outcome;
+    }
+
+    /**
+     * Desfaz a reserva de uma análise que não será gravada, para quem aguarda não esperar o fim do lease.
+     */
+    void release(String idempotencyKey) {
+        if (enabled) {
+            idempotencyStore.releaseClaim(idempotencyKey);
+        }
+    }
+
+    private void attempt(String idempotencyKey, Deadline deadline, Executor executor,
+                         CompletableFuture<Optional<VehicleAnalysis>> outcome, boolean afterWaiting) {
+        claim(idempotencyKey).whenComplete((granted, error) -> {
+            // Store indisponível: sem coordenação, a instância consulta os fornecedores por conta própria
+            if (error != null || Boolean.TRUE.equals(granted)) {
+                (afterWaiting ? takeovers : acquired).increment();
+                if (afterWaiting) {
+                    log.info("Chave de idempotência {} assumida: reserva anterior desfeita ou expirada", idempotencyKey);
+                }
+                outcome.complete(Optional.empty());
+                return;
+            }
+            poll(idempotencyKey, deadline, executor, outcome);
+        });
+    }
+
+    private void poll(String idempotencyKey, Deadline deadline, Executor executor,
+                      CompletableFuture<Optional<VehicleAnalysis>> outcome) {
+        if (outcome.isDone()) {
+            return; // chamador desistiu
+        }
+        if (deadline.isExpired()) {
+            expired.increment();
+            outcome.complete(Optional.empty());
+            return;
+        }
+        long delayNanos = Math.min(pollInterval.toNanos(), deadline.isBounded() ? deadline.remainingNanos() : Long.MAX_VALUE);
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor).execute(() ->
+                lookup(idempotencyKey).whenComplete((response, error) -> {
+                    if (error == null && response.isPresent()) {
+                        waited.increment();
+                        outcome.complete(response);
+                    } else {
+                        attempt(idempotencyKey, deadline, executor, outcome, true);
+                    }
+                }));
+    }
+
+    private CompletableFuture<Optional<VehicleAnalysis>> lookup(String idempotencyKey) {
+        try {
+            return idempotencyStore.getResponseAsync(idempotencyKey);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<Boolean> claim(String idempotencyKey) {
+        try {
+            return idempotencyStore.claim(idempotencyKey, lease);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Counter claims(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("idempotency.claim")
+                .description("Reservas de chave de idempotência por resultado")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
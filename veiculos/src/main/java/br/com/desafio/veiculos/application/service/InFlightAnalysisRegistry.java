@@ -0,0 +1,141 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Registro das análises em andamento por VIN canônico (single-flight).
+ *
+ * A primeira requisição para um VIN dispara a consulta aos fornecedores; requisições concorrentes
+ * para o mesmo VIN se anexam à análise em curso em vez de repetir F1, F2 e F3. Cada chamador recebe
+ * a sua própria cópia do future: cancelar a cópia não afeta os demais, e a análise só é cancelada
+ * quando todos os chamadores desistirem.
+ *
+ * Enquanto a análise não termina, {@link #partial(String)} expõe a visão parcial consolidada
+ * com os fornecedores que já responderam.
+ */
+final class InFlightAnalysisRegistry {
+
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter coalesced;
+
+    InFlightAnalysisRegistry(MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("analysis.singleflight")
+                .description("Análises que dispararam consulta aos fornecedores")
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("analysis.singleflight")
+                .description("Requisições anexadas a uma análise já em andamento")
+                .tag("role", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("analysis.singleflight.inflight", inFlight, Map::size)
+                .description("Análises em andamento")
+                .register(meterRegistry);
+    }
+
+    CompletableFuture<VehicleAnalysis> join(String vin, Supplier<AnalysisRun> analysis) {
+        Flight flight = new Flight();
+        Flight current;
+        while ((current = inFlight.putIfAbsent(vin, flight)) != null) {
+            CompletableFuture<VehicleAnalysis> subscription = current.attach();
+            if (subscription != null) {
+                coalesced.increment();
+                return subscription;
+            }
+            // Todos os chamadores desistiram e a análise foi cancelada; ela só ainda não saiu do registro
+            if (inFlight.replace(vin, current, flight)) {
+                break;
+            }
+        }
+
+        leaders.increment();
+        CompletableFuture<VehicleAnalysis> subscription = flight.track();
+
+        AnalysisRun run;
+        try {
+            run = analysis.get();
+        } catch (RuntimeException e) {
+            run = new AnalysisRun(CompletableFuture.failedFuture(e), () -> null);
+        }
+        flight.start(run, () -> inFlight.remove(vin, flight));
+        return subscription;
+    }
+
+    /**
+     * Visão parcial da análise em andamento para o VIN, se houver.
+     */
+    Optional<VehicleAnalysis> partial(String vin) {
+        Flight flight = inFlight.get(vin);
+        AnalysisRun run = flight != null ? flight.run : null;
+        return run != null ? Optional.ofNullable(run.partialView().get()) : Optional.empty();
+    }
+
+    private static final class Flight {
+
+        private final CompletableFuture<VehicleAnalysis> result = new CompletableFuture<>();
+        // Começa em 1: o líder já conta como chamador antes de se inscrever
+        private final AtomicInteger waiters = new AtomicInteger(1);
+        private volatile AnalysisRun run;
+
+        /**
+         * Anexa um novo chamador, ou {@code null} se todos já desistiram e a análise foi cancelada.
+         */
+        CompletableFuture<VehicleAnalysis> attach() {
+            int current;
+            do {
+                current = waiters.get();
+                if (current == 0) {
+                    return null;
+                }
+            } while (!waiters.compareAndSet(current, current + 1));
+            return track();
+        }
+
+        /**
+         * Cópia do resultado para um chamador já contado em {@code waiters}.
+         */
+        CompletableFuture<VehicleAnalysis> track() {
+            CompletableFuture<VehicleAnalysis> subscription = result.copy();
+            subscription.whenComplete((analysis, error) -> {
+                if (subscription.isCancelled() && waiters.decrementAndGet() == 0) {
+                    cancelSource();
+                }
+            });
+            return subscription;
+        }
+
+        void start(AnalysisRun run, Runnable onDone) {
+            this.run = run;
+            run.result().whenComplete((analysis, error) -> {
+                // Sai do registro antes de notificar: novas requisições não se anexam a um resultado já entregue
+                onDone.run();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(analysis);
+                }
+            });
+            if (waiters.get() == 0) {
+                cancelSource();
+            }
+        }
+
+        private void cancelSource() {
+            AnalysisRun current = run;
+            if (current != null) {
+                current.result().cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Resposta parcial por orçamento de latência.
+ *
+ * Um fornecedor lento segura a análise inteira. Com a política habilitada, a resposta é entregue
+ * ao fim de {@code latencyBudget} com o que já chegou - fornecedores em andamento aparecem como
+ * PENDING - enquanto a análise segue em segundo plano. O resultado completo é gravado no
+ * idempotency store quando chega, e uma nova requisição com a mesma chave recebe a análise completa.
+ */
+@Component
+public class PartialResponsePolicy {
+
+    private final boolean enabled;
+    private final Duration latencyBudget;
+
+    private final Counter complete;
+    private final Counter partial;
+    private final Counter lateResults;
+
+    public PartialResponsePolicy(
+            @Value("${analysis.partial.enabled:false}") boolean enabled,
+            @Value("${analysis.partial.latency-budget:800ms}") Duration latencyBudget,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.latencyBudget = latencyBudget;
+
+        this.complete = Counter.builder("analysis.partial")
+                .description("Respostas completas dentro do orçamento de latência")
+                .tag("outcome", "complete")
+                .register(meterRegistry);
+        this.partial = Counter.builder("analysis.partial")
+                .description("Respostas parciais entregues ao fim do orçamento de latência")
+                .tag("outcome", "partial")
+                .register(meterRegistry);
+        this.lateResults = Counter.builder("analysis.partial.late.results")
+                .description("Análises concluídas depois de uma resposta parcial")
+                .register(meterRegistry);
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param analysis    análise completa (segue em execução após a resposta parcial)
+     * @param partialView visão parcial da análise no momento em que o orçamento expira
+     * @param executor    executor onde a visão parcial é montada
+     * @return future concluído com a análise completa ou, se ela não chegar a tempo, com a parcial
+     */
+    CompletableFuture<VehicleAnalysis> withinBudget(CompletableFuture<VehicleAnalysis> analysis,
+                                                    Supplier<Optional<VehicleAnalysis>> partialView,
+                                                    Executor executor) {
+        if (!enabled || analysis.isDone()) {
+            return analysis;
+        }
+
+        CompletableFuture<VehicleAnalysis> response = new CompletableFuture<>();
+        analysis.whenComplete((result, error) -> {
+            boolean delivered = error != null ? response.completeExceptionally(error) : response.complete(result);
+            if (delivered) {
+                complete.increment();
+            } else if (error == null) {
+                lateResults.increment();
+            }
+        });
+
+        Executor afterBudget = CompletableFuture.delayedExecutor(latencyBudget.toMillis(), TimeUnit.MILLISECONDS, executor);
+        afterBudget.execute(() -> {
+            if (!response.isDone()) {
+                partialView.get().ifPresent(view -> {
+                    if (response.complete(view)) {
+                        partial.increment();
+                    }
+                });
+            }
+        });
+
+        // Cliente desistiu antes de qualquer resposta: libera a análise
+        response.whenComplete((result, error) -> {
+            if (response.isCancelled()) {
+                analysis.cancel(true);
+            }
+        });
+        return response;
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.port.out.AnalysisLogReaderPort;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import br.com.desafio.veiculos.domain.VehicleAnalysisLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Snapshot dos VINs com restrição conhecida, em um {@link ConstraintBloomFilter}.
+ *
+ * Reconstruído periodicamente a partir do histórico {@code hasConstraints} dos logs de análise
+ * ({@link AnalysisLogReaderPort}): vale o último log de cada VIN, e logs em que F1 não respondeu com
+ * sucesso são ignorados (sem F1 não se sabe se há restrição). Entre reconstruções, VINs em que F1
+ * encontra restrição são inseridos no snapshot atual; restrições baixadas só saem na próxima reconstrução.
+ *
+ * Permite decidir sobre F2 antes da volta de F1: um VIN fora do filtro certamente não tinha restrição
+ * no histórico lido; um VIN no filtro provavelmente tem (falso positivo possível).
+ *
+ * Métricas: analysis.constraint-filter.bytes, analysis.constraint-filter.false.positive.rate (estimada
+ * pela ocupação do filtro), analysis.constraint-filter.checks{result=positive|negative} e
+ * analysis.constraint-filter.false.positive (filtro positivo com F1 sem restrição).
+ */
+@Component
+public class RestrictedVehicleFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RestrictedVehicleFilter.class);
+    private static final String CONSTRAINTS_SUPPLIER = "F1";
+
+    private final AnalysisLogReaderPort logReader;
+    private final boolean enabled;
+    private final Duration lookback;
+    private final int maxRecords;
+    private final long minCapacity;
+    private final double falsePositiveRate;
+    private final Duration rebuildBudget;
+    private final Clock clock;
+
+    // null até a primeira reconstrução
+    private volatile ConstraintBloomFilter current;
+
+    private final Counter positives;
+    private final Counter negatives;
+    private final Counter observedFalsePositives;
+    private final Counter rebuildFailures;
+
+    public RestrictedVehicleFilter(
+            AnalysisLogReaderPort logReader,
+            @Value("${analysis.constraint-filter.enabled:false}") boolean enabled,
+            @Value("${analysis.constraint-filter.lookback:7d}") Duration lookback,
+            @Value("${analysis.constraint-filter.max-records:2000000}") int maxRecords,
+            @Value("${analysis.constraint-filter.min-capacity:100000}") long minCapacity,
+            @Value("${analysis.constraint-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${analysis.constraint-filter.rebuild-budget:2m}") Duration rebuildBudget,
+            MeterRegistry meterRegistry) {
+        this(logReader, enabled, lookback, maxRecords, minCapacity, falsePositiveRate, rebuildBudget,
+                meterRegistry, Clock.systemUTC());
+    }
+
+    RestrictedVehicleFilter(AnalysisLogReaderPort logReader, boolean enabled, Duration lookback, int maxRecords,
+                            long minCapacity, double falsePositiveRate, Duration rebuildBudget,
+                            MeterRegistry meterRegistry, Clock clock) {
+        this.logReader = logReader;
+        this.enabled = enabled;
+        this.lookback = lookback;
+        this.maxRecords = maxRecords;
+        this.minCapacity = minCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildBudget = rebuildBudget;
+        this.clock = clock;
+
+        this.positives = checks(meterRegistry, "positive");
+        this.negatives = checks(meterRegistry, "negative");
+        this.observedFalsePositives = Counter.builder("analysis.constraint-filter.false.positive")
+                .description("VINs no filtro de restrição para os quais F1 não encontrou restrição")
+                .register(meterRegistry);
+        this.rebuildFailures = Counter.builder("analysis.constraint-filter.rebuild.failures")
+                .description("Reconstruções do filtro de restrição que falharam")
+                .register(meterRegistry);
+        Gauge.builder("analysis.constraint-filter.bytes", this, filter -> filter.snapshot(ConstraintBloomFilter::sizeInBytes))
+                .description("Memória ocupada pelo filtro de VINs com restrição")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("analysis.constraint-filter.false.positive.rate", this,
+                        filter -> filter.snapshot(ConstraintBloomFilter::estimatedFalsePositiveRate))
+                .description("Taxa de falso positivo estimada pela ocupação do filtro de restrição")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reconstrói o filtro a partir do histórico. Roda logo após a subida e a cada {@code analysis.constraint-filter.refresh-interval}.
+     */
+    @Scheduled(initialDelayString = "${analysis.constraint-filter.initial-delay:PT10S}",
+            fixedDelayString = "${analysis.constraint-filter.refresh-interval:PT15M}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Set<String> restricted = new HashSet<>();
+        try {
+            long read = logReader.replay(clock.instant().minus(lookback), maxRecords, Deadline.after(rebuildBudget),
+                    analysisLog -> apply(restricted, analysisLog));
+
+            // Folga para os VINs inseridos até a próxima reconstrução
+            ConstraintBloomFilter filter = ConstraintBloomFilter.create(Math.max(minCapacity, 2L * restricted.size()),
+                    falsePositiveRate);
+            restricted.forEach(filter::put);
+            current = filter;
+
+            log.info("Filtro de restrição reconstruído em {}ms: {} logs, {} VINs com restrição, {} KB",
+                    (System.nanoTime() - start) / 1_000_000, read, restricted.size(), filter.sizeInBytes() / 1024);
+        } catch (RuntimeException e) {
+            rebuildFailures.increment();
+            log.warn("Falha ao reconstruir o filtro de restrição, mantendo o snapshot anterior: {}", e.getMessage());
+        }
+    }
+
+    boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * @return {@code true} se o VIN provavelmente tem restrição; {@code false} se certamente não consta
+     *         no histórico com restrição ou se o filtro ainda não foi carregado ({@link #isReady()})
+     */
+    public boolean mightBeRestricted(String vin) {
+        ConstraintBloomFilter filter = current;
+        if (filter == null) {
+            return false;
+        }
+        boolean positive = filter.mightContain(vin);
+        (positive ? positives : negatives).increment();
+        return positive;
+    }
+
+    /**
+     * Resultado real de F1 para o VIN: restrição nova entra no snapshot; positivo sem restrição conta
+     * como falso positivo (ou restrição baixada desde a reconstrução).
+     */
+    void recordOutcome(String vin, boolean hasConstraints) {
+        ConstraintBloomFilter filter = current;
+        if (filter == null) {
+            return;
+        }
+        if (hasConstraints) {
+            filter.put(vin);
+        } else if (filter.mightContain(vin)) {
+            observedFalsePositives.increment();
+        }
+    }
+
+    private static void apply(Set<String> restricted, VehicleAnalysisLog analysisLog) {
+        String vin = analysisLog.vinCanonical();
+        if (vin == null || !constraintsKnown(analysisLog)) {
+            return;
+        }
+        // Os logs são publicados com o VIN como chave: a ordem por VIN é a ordem das análises
+        if (analysisLog.hasConstraints()) {
+            restricted.add(vin);
+        } else {
+            restricted.remove(vin);
+        }
+    }
+
+    private static boolean constraintsKnown(VehicleAnalysisLog analysisLog) {
+        SupplierStatus f1 = analysisLog.supplierCalls() != null ? analysisLog.supplierCalls().get(CONSTRAINTS_SUPPLIER) : null;
+        return f1 != null && f1.status() == SupplierStatus.Status.SUCCESS;
+    }
+
+    private double snapshot(ToDoubleFunction<ConstraintBloomFilter> metric) {
+        ConstraintBloomFilter filter = current;
+        return filter != null ? metric.applyAsDouble(filter) : 0;
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("analysis.constraint-filter.checks")
+                .description("Consultas ao filtro de VINs com restrição")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
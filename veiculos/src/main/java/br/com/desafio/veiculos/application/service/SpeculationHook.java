@@ -0,0 +1,42 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.SupplierResult;
+
+/**
+ * Ponto de extensão do {@link SupplierGraph} para disparar um fornecedor antes das suas dependências.
+ */
+interface SpeculationHook {
+
+    SpeculationHook NONE = new SpeculationHook() {
+        @Override
+        public boolean shouldStartEarly(String supplierName, String vin) {
+            return false;
+        }
+
+        @Override
+        public void onActivationResolved(String supplierName, String vin, boolean activated) {
+        }
+
+        @Override
+        public void onEarlyStartUsed(String supplierName, long dependenciesLatencyMs, SupplierResult<?> result) {
+        }
+
+        @Override
+        public void onEarlyStartDiscarded(String supplierName) {
+        }
+    };
+
+    /**
+     * Dispara o fornecedor junto com as dependências, antes de saber se ele será ativado.
+     */
+    boolean shouldStartEarly(String supplierName, String vin);
+
+    /**
+     * Ativação decidida com todas as dependências bem-sucedidas (sinal para aprendizado).
+     */
+    void onActivationResolved(String supplierName, String vin, boolean activated);
+
+    void onEarlyStartUsed(String supplierName, long dependenciesLatencyMs, SupplierResult<?> result);
+
+    void onEarlyStartDiscarded(String supplierName);
+}
@@ -0,0 +1,144 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.Freshness;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate para análises já gravadas no idempotency store.
+ *
+ * Toda resposta em cache sai com a sua idade ({@link Freshness}). Passado o {@code softTtl}, a análise
+ * é STALE: com a política habilitada ela continua sendo entregue na hora, e uma única atualização por
+ * chave roda em segundo plano e substitui a entrada. Atualizações com fornecedor em falha ou timeout
+ * não substituem a análise anterior.
+ *
+ * Métricas: analysis.swr.served{freshness=fresh|stale} e
+ * analysis.swr.refresh{outcome=success|degraded|failure|coalesced}.
+ */
+@Component
+public class StaleWhileRevalidatePolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleWhileRevalidatePolicy.class);
+
+    private final boolean enabled;
+    private final Duration softTtl;
+    private final Clock clock;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final Counter servedFresh;
+    private final Counter servedStale;
+    private final Counter refreshSuccess;
+    private final Counter refreshDegraded;
+    private final Counter refreshFailure;
+    private final Counter refreshCoalesced;
+
+    public StaleWhileRevalidatePolicy(
+            @Value("${analysis.swr.enabled:false}") boolean enabled,
+            @Value("${analysis.swr.soft-ttl:1h}") Duration softTtl,
+            MeterRegistry meterRegistry) {
+        this(enabled, softTtl, meterRegistry, Clock.systemUTC());
+    }
+
+    StaleWhileRevalidatePolicy(boolean enabled, Duration softTtl, MeterRegistry meterRegistry, Clock clock) {
+        this.enabled = enabled;
+        this.softTtl = softTtl;
+        this.clock = clock;
+
+        this.servedFresh = served(meterRegistry, "fresh");
+        this.servedStale = served(meterRegistry, "stale");
+        this.refreshSuccess = refresh(meterRegistry, "success");
+        this.refreshDegraded = refresh(meterRegistry, "degraded");
+        this.refreshFailure = refresh(meterRegistry, "failure");
+        this.refreshCoalesced = refresh(meterRegistry, "coalesced");
+    }
+
+    /**
+     * Calcula a atualidade da análise em cache e contabiliza a entrega.
+     */
+    VehicleAnalysis annotate(VehicleAnalysis cached) {
+        Freshness freshness = Freshness.of(cached.analyzedAt(), clock.instant(), softTtl);
+        (freshness.isStale() ? servedStale : servedFresh).increment();
+        return cached.withFreshness(freshness);
+    }
+
+    /**
+     * Dispara a atualização em segundo plano se a análise estiver STALE e não houver outra em andamento para a chave.
+     *
+     * @param refresh nova consulta aos fornecedores
+     * @param store   grava a análise atualizada
+     */
+    void revalidateIfStale(String idempotencyKey, VehicleAnalysis served,
+                           Supplier<CompletableFuture<VehicleAnalysis>> refresh,
+                           Consumer<VehicleAnalysis> store) {
+        if (!enabled || served.freshness() == null || !served.freshness().isStale()) {
+            return;
+        }
+        if (!refreshing.add(idempotencyKey)) {
+            refreshCoalesced.increment();
+            return;
+        }
+
+        log.info("Análise em cache com {}s (TTL de atualidade {}). Atualizando em segundo plano.",
+                served.freshness().ageSeconds(), softTtl);
+
+        CompletableFuture<VehicleAnalysis> refreshed;
+        try {
+            refreshed = refresh.get();
+        } catch (RuntimeException e) {
+            refreshed = CompletableFuture.failedFuture(e);
+        }
+
+        refreshed.whenComplete((analysis, error) -> {
+            try {
+                if (error != null) {
+                    log.warn("Falha na atualização em segundo plano da análise: {}", error.getMessage());
+                    refreshFailure.increment();
+                } else if (isDegraded(analysis)) {
+                    log.warn("Atualização em segundo plano com fornecedor indisponível. Mantendo a análise anterior.");
+                    refreshDegraded.increment();
+                } else {
+                    store.accept(analysis);
+                    refreshSuccess.increment();
+                }
+            } finally {
+                refreshing.remove(idempotencyKey);
+            }
+        });
+    }
+
+    private boolean isDegraded(VehicleAnalysis analysis) {
+        return analysis.supplierStatus().values().stream()
+                .map(SupplierStatus::status)
+                .anyMatch(status -> status == SupplierStatus.Status.FAILURE
+                        || status == SupplierStatus.Status.TIMEOUT
+                        || status == SupplierStatus.Status.PENDING);
+    }
+
+    private static Counter served(MeterRegistry meterRegistry, String freshness) {
+        return Counter.builder("analysis.swr.served")
+                .description("Análises entregues a partir do cache, por atualidade")
+                .tag("freshness", freshness)
+                .register(meterRegistry);
+    }
+
+    private static Counter refresh(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("analysis.swr.refresh")
+                .description("Atualizações em segundo plano de análises STALE, por resultado")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
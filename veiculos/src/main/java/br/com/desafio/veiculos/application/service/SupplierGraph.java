@@ -0,0 +1,237 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Grafo de dependências entre fornecedores, montado a partir de {@link SupplierPort#dependsOn()}.
+ *
+ * Os nós são ordenados topologicamente (empate resolvido pelo nome) e cada um ocupa o slot
+ * correspondente no {@link SupplierResultAccumulator}: dependências sempre vêm antes dos
+ * dependentes na consolidação. Na execução, todo nó cujas dependências concluíram é disparado
+ * imediatamente no escopo da análise; nós não ativados por {@link SupplierPort#shouldActivate}
+ * são registrados como NOT_CALLED.
+ *
+ * Ao final, o caminho crítico (a cadeia de dependências que terminou por último) é registrado
+ * no timer {@code analysis.critical.path}, com o caminho como tag (ex: F1>F2).
+ */
+final class SupplierGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(SupplierGraph.class);
+
+    private final SupplierPort[] nodes;
+    private final int[][] dependencies;
+    private final String[] supplierNames;
+    private final MeterRegistry meterRegistry;
+
+    SupplierGraph(List<SupplierPort> suppliers, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.nodes = topologicalOrder(suppliers);
+        this.supplierNames = new String[nodes.length];
+
+        Map<String, Integer> slots = new HashMap<>();
+        for (int slot = 0; slot < nodes.length; slot++) {
+            supplierNames[slot] = nodes[slot].getSupplierName();
+            slots.put(supplierNames[slot], slot);
+        }
+
+        this.dependencies = new int[nodes.length][];
+        for (int slot = 0; slot < nodes.length; slot++) {
+            dependencies[slot] = nodes[slot].dependsOn().stream()
+                    .mapToInt(slots::get)
+                    .sorted()
+                    .toArray();
+        }
+    }
+
+    /**
+     * Nomes dos fornecedores na ordem dos slots.
+     */
+    String[] supplierNames() {
+        return supplierNames.clone();
+    }
+
+    /**
+     * Dispara os fornecedores no escopo da análise, registrando cada resultado no acumulador assim que chega.
+     *
+     * @return future concluído quando todos os nós tiverem resultado (ou NOT_CALLED)
+     */
+    CompletableFuture<Void> execute(String vin, Deadline deadline, AnalysisScope scope,
+                                    SupplierResultAccumulator results, SpeculationHook speculation) {
+        long startNanos = System.nanoTime();
+        AtomicLongArray finishNanos = new AtomicLongArray(nodes.length);
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<SupplierResult<Object>>[] futures = new CompletableFuture[nodes.length];
+
+        for (int slot = 0; slot < nodes.length; slot++) {
+            int current = slot;
+            CompletableFuture<SupplierResult<Object>> call = dependencies[slot].length == 0
+                    ? scope.fork(() -> nodes[current].fetchData(vin, deadline))
+                    : afterDependencies(current, vin, deadline, scope, futures, speculation);
+
+            futures[slot] = call.thenApply(result -> {
+                results.record(current, result);
+                finishNanos.set(current, System.nanoTime());
+                return result;
+            });
+        }
+
+        return CompletableFuture.allOf(futures)
+                .thenRun(() -> recordCriticalPath(startNanos, finishNanos));
+    }
+
+    private CompletableFuture<SupplierResult<Object>> afterDependencies(int slot, String vin, Deadline deadline,
+                                                                         AnalysisScope scope,
+                                                                         CompletableFuture<SupplierResult<Object>>[] futures,
+                                                                         SpeculationHook speculation) {
+        SupplierPort node = nodes[slot];
+        String name = supplierNames[slot];
+
+        // Dispara antes das dependências quando o gancho de especulação indicar ativação provável
+        CompletableFuture<SupplierResult<Object>> early = speculation.shouldStartEarly(name, vin)
+                ? scope.fork(() -> node.fetchData(vin, deadline))
+                : null;
+
+        CompletableFuture<?>[] upstream = new CompletableFuture<?>[dependencies[slot].length];
+        for (int i = 0; i < upstream.length; i++) {
+            upstream[i] = futures[dependencies[slot][i]];
+        }
+
+        return CompletableFuture.allOf(upstream).thenCompose(ignored -> {
+            Map<String, SupplierResult<?>> dependencyResults = new LinkedHashMap<>();
+            boolean allSucceeded = true;
+            long dependenciesLatencyMs = 0;
+            for (int dependency : dependencies[slot]) {
+                SupplierResult<Object> result = futures[dependency].join();
+                dependencyResults.put(supplierNames[dependency], result);
+                allSucceeded &= result.status().status() == SupplierStatus.Status.SUCCESS;
+                dependenciesLatencyMs = Math.max(dependenciesLatencyMs, result.status().latencyMs());
+            }
+
+            boolean activated = node.shouldActivate(dependencyResults);
+            if (allSucceeded) {
+                speculation.onActivationResolved(name, vin, activated);
+            }
+
+            if (activated) {
+                if (early != null) {
+                    log.info("Dependências de {} confirmaram a ativação. Aproveitando chamada especulativa.", name);
+                    long savedFrom = dependenciesLatencyMs;
+                    return early.thenApply(result -> {
+                        speculation.onEarlyStartUsed(name, savedFrom, result);
+                        return result;
+                    });
+                }
+                log.info("Dependências de {} concluídas. Acionando {}.", name, name);
+                return scope.fork(() -> node.fetchData(vin, deadline));
+            }
+
+            if (early != null) {
+                log.info("{} não ativado pelas dependências. Descartando chamada especulativa.", name);
+                early.cancel(true);
+                speculation.onEarlyStartDiscarded(name);
+            }
+            return CompletableFuture.completedFuture(SupplierResult.notCalled(name));
+        });
+    }
+
+    private void recordCriticalPath(long startNanos, AtomicLongArray finishNanos) {
+        int last = 0;
+        for (int slot = 1; slot < nodes.length; slot++) {
+            if (finishNanos.get(slot) > finishNanos.get(last)) {
+                last = slot;
+            }
+        }
+
+        Deque<String> path = new ArrayDeque<>();
+        for (int slot = last; slot >= 0; ) {
+            path.addFirst(supplierNames[slot]);
+            int latestDependency = -1;
+            for (int dependency : dependencies[slot]) {
+                if (latestDependency < 0 || finishNanos.get(dependency) > finishNanos.get(latestDependency)) {
+                    latestDependency = dependency;
+                }
+            }
+            slot = latestDependency;
+        }
+
+        Timer.builder("analysis.critical.path")
+                .description("Latência do caminho crítico entre fornecedores por análise")
+                .tag("path", String.join(">", path))
+                .register(meterRegistry)
+                .record(finishNanos.get(last) - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Ordenação topológica (Kahn). Falha na inicialização se houver dependência desconhecida,
+     * nome duplicado ou ciclo.
+     */
+    private static SupplierPort[] topologicalOrder(List<SupplierPort> suppliers) {
+        Map<String, SupplierPort> byName = new HashMap<>();
+        for (SupplierPort supplier : suppliers) {
+            if (byName.put(supplier.getSupplierName(), supplier) != null) {
+                throw new IllegalStateException("Fornecedor duplicado: " + supplier.getSupplierName());
+            }
+        }
+
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (SupplierPort supplier : suppliers) {
+            String name = supplier.getSupplierName();
+            for (String dependency : supplier.dependsOn()) {
+                if (!byName.containsKey(dependency)) {
+                    throw new IllegalStateException("Fornecedor " + name + " depende de " + dependency + ", que não está registrado");
+                }
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(name);
+            }
+            pending.put(name, supplier.dependsOn().size());
+        }
+
+        PriorityQueue<String> ready = new PriorityQueue<>(Comparator.naturalOrder());
+        pending.forEach((name, count) -> {
+            if (count == 0) {
+                ready.add(name);
+            }
+        });
+
+        List<SupplierPort> ordered = new ArrayList<>(suppliers.size());
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            ordered.add(byName.get(name));
+            for (String dependent : dependents.getOrDefault(name, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (ordered.size() != suppliers.size()) {
+            throw new IllegalStateException("Dependência circular entre fornecedores: " + pending.entrySet().stream()
+                    .filter(entry -> entry.getValue() > 0)
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .toList());
+        }
+        return ordered.toArray(new SupplierPort[0]);
+    }
+}
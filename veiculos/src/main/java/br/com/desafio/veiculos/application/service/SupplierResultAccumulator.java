@@ -0,0 +1,42 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.SupplierResult;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Acumulador dos resultados de fornecedores de uma análise.
+ *
+ * Cada fornecedor ocupa um slot fixo, definido na criação e escrito uma única vez pela
+ * thread que concluiu a chamada. A publicação entre threads é segura (AtomicReferenceArray)
+ * e a consolidação percorre os slots sempre na mesma ordem (F1 antes de F2), independente
+ * da ordem de chegada das respostas.
+ */
+final class SupplierResultAccumulator {
+
+    private final String[] supplierNames;
+    private final AtomicReferenceArray<SupplierResult<?>> results;
+
+    SupplierResultAccumulator(String... supplierNames) {
+        this.supplierNames = supplierNames;
+        this.results = new AtomicReferenceArray<>(supplierNames.length);
+    }
+
+    void record(int slot, SupplierResult<?> result) {
+        if (!results.compareAndSet(slot, null, result)) {
+            throw new IllegalStateException("Resultado do fornecedor " + supplierNames[slot] + " já registrado");
+        }
+    }
+
+    SupplierResult<?> get(int slot) {
+        return results.get(slot);
+    }
+
+    String supplierName(int slot) {
+        return supplierNames[slot];
+    }
+
+    int size() {
+        return supplierNames.length;
+    }
+}
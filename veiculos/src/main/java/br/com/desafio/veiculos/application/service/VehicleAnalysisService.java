@@ -3,13 +3,15 @@ package br.com.desafio.veiculos.application.service;
 import br.com.desafio.veiculos.application.port.out.AnalysisLogPort;
 import br.com.desafio.veiculos.application.port.out.IdentifierNormalizationPort;
 import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.application.port.out.NegativeResultCachePort;
 import br.com.desafio.veiculos.application.port.out.SupplierPort;
 import br.com.desafio.veiculos.application.usecase.VehicleAnalysisUseCase;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.Freshness;
 import br.com.desafio.veiculos.domain.IdentifierType;
 import br.com.desafio.veiculos.domain.SupplierResult;
 import br.com.desafio.veiculos.domain.VehicleAnalysis;
 import br.com.desafio.veiculos.domain.VehicleAnalysisLog;
-import br.com.desafio.veiculos.domain.f1.F1ResponseData;
 import br.com.desafio.veiculos.infrastructure.mappers.VehicleAnalysisMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -20,64 +22,125 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 
 @Service
 public class VehicleAnalysisService implements VehicleAnalysisUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(VehicleAnalysisService.class);
 
+    // Custo estimado por chamada bem-sucedida, em centavos
+    static final long F1_COST_CENTS = 10;
+    static final long F2_COST_CENTS = 25;
+    static final long F3_COST_CENTS = 15;
+
     private final IdentifierNormalizationPort identifierNormalizationPort;
-    private final SupplierPort supplierF1Port;
-    private final SupplierPort supplierF2Port;
-    private final SupplierPort supplierF3Port;
+    private final SupplierGraph supplierGraph;
     private final AnalysisLogPort analysisLogPort;
     private final IdempotencyStorePort idempotencyStore;
+    private final NegativeResultCachePort negativeCache;
     private final VehicleAnalysisMapper mapper;
     private final ExecutorService analysisExecutor;
     private final MeterRegistry meterRegistry;
+    private final F2SpeculationPolicy speculationPolicy;
+    private final PartialResponsePolicy partialResponsePolicy;
+    private final StaleWhileRevalidatePolicy staleWhileRevalidate;
+    private final InFlightAnalysisRegistry inFlightAnalyses;
+    private final IdempotencyClaimPolicy claimPolicy;
 
     public VehicleAnalysisService(
             IdentifierNormalizationPort identifierNormalizationPort,
-            @Qualifier("supplierF1Adapter") SupplierPort supplierF1Port,
-            @Qualifier("supplierF2Adapter") SupplierPort supplierF2Port,
-            @Qualifier("supplierF3Adapter") SupplierPort supplierF3Port,
+            List<SupplierPort> suppliers,
             AnalysisLogPort analysisLogPort,
             IdempotencyStorePort idempotencyStore,
+            NegativeResultCachePort negativeCache,
             VehicleAnalysisMapper mapper,
             @Qualifier("analysisTaskExecutor") ExecutorService analysisExecutor,
-            MeterRegistry meterRegistry) {
+            MeterRegistry meterRegistry,
+            F2SpeculationPolicy speculationPolicy,
+            PartialResponsePolicy partialResponsePolicy,
+            StaleWhileRevalidatePolicy staleWhileRevalidate,
+            IdempotencyClaimPolicy claimPolicy) {
         this.identifierNormalizationPort = identifierNormalizationPort;
-        this.supplierF1Port = supplierF1Port;
-        this.supplierF2Port = supplierF2Port;
-        this.supplierF3Port = supplierF3Port;
         this.analysisLogPort = analysisLogPort;
         this.idempotencyStore = idempotencyStore;
+        this.negativeCache = negativeCache;
         this.mapper = mapper;
         this.analysisExecutor = analysisExecutor;
         this.meterRegistry = meterRegistry;
+        this.speculationPolicy = speculationPolicy;
+        this.partialResponsePolicy = partialResponsePolicy;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.claimPolicy = claimPolicy;
+        // Fornecedores e suas dependências (ex: F2 depende de F1) formam o grafo de execução
+        this.supplierGraph = new SupplierGraph(suppliers, meterRegistry);
+        this.inFlightAnalyses = new InFlightAnalysisRegistry(meterRegistry);
     }
 
     @Override
     public VehicleAnalysis analyzeVehicle(String inputIdentifier, String idempotencyKey) {
+        try {
+            return analyzeVehicleAsync(inputIdentifier, idempotencyKey).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<VehicleAnalysis> analyzeVehicleAsync(String inputIdentifier, String idempotencyKey, Deadline deadline) {
+        return analyze(inputIdentifier, idempotencyKey, deadline, false);
+    }
+
+    @Override
+    public CompletableFuture<VehicleAnalysis> analyzeVehicleAllowingPartial(String inputIdentifier, String idempotencyKey, Deadline deadline) {
+        return analyze(inputIdentifier, idempotencyKey, deadline, partialResponsePolicy.isEnabled());
+    }
+
+    private CompletableFuture<VehicleAnalysis> analyze(String inputIdentifier, String idempotencyKey, Deadline deadline,
+                                                       boolean allowPartial) {
         Instant startTime = Instant.now();
 
-        Optional<VehicleAnalysis> cachedResponse = idempotencyStore.getResponse(idempotencyKey);
+        // Identificador já rejeitado recentemente: nem validação nem consulta ao store de idempotência
+        if (negativeCache.isRejectedIdentifier(inputIdentifier)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Identificador inválido: " + inputIdentifier));
+        }
+
+        // Capturado na thread da requisição: a consulta ao store pode concluir em outra thread
+        String traceId = MDC.get("traceId");
+        CompletableFuture<Optional<VehicleAnalysis>> lookup = idempotencyStore.getResponseAsync(idempotencyKey)
+                .exceptionally(error -> Optional.empty());
+        return continueWith(lookup, traceId, cachedResponse ->
+                afterLookup(cachedResponse, startTime, inputIdentifier, idempotencyKey, deadline, allowPartial, traceId));
+    }
+
+    private CompletableFuture<VehicleAnalysis> afterLookup(Optional<VehicleAnalysis> cachedResponse, Instant startTime,
+                                                           String inputIdentifier, String idempotencyKey, Deadline deadline,
+                                                           boolean allowPartial, String traceId) {
         if (cachedResponse.isPresent()) {
             log.warn("Requisição idempotente repetida detectada: {}", idempotencyKey);
-            return cachedResponse.get();
+            VehicleAnalysis cached = staleWhileRevalidate.annotate(cachedResponse.get());
+            // Análise antiga: entregue na hora, com uma única atualização em segundo plano por chave
+            staleWhileRevalidate.revalidateIfStale(idempotencyKey, cached,
+                    () -> refresh(inputIdentifier),
+                    refreshed -> idempotencyStore.storeResponse(idempotencyKey, refreshed));
+            return CompletableFuture.completedFuture(cached);
         }
 
         IdentifierType inputType = identifierNormalizationPort.identifyType(inputIdentifier);
         if (inputType == IdentifierType.INVALIDO) {
-            throw new IllegalArgumentException("Identificador inválido: " + inputIdentifier);
+            negativeCache.rememberRejectedIdentifier(inputIdentifier);
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Identificador inválido: " + inputIdentifier));
         }
         
         String vin = identifierNormalizationPort.normalizeToVin(inputIdentifier, inputType);
@@ -85,67 +148,180 @@ public class VehicleAnalysisService implements VehicleAnalysisUseCase {
 
         log.info("VIN Canônico normalizado: {}", vin);
 
-        Map<String, SupplierResult<?>> supplierResults = new HashMap<>();
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        Optional<VehicleAnalysis> unknownVehicle = negativeCache.getUnknownVehicle(vin);
+        if (unknownVehicle.isPresent()) {
+            log.info("VIN {} desconhecido pelos fornecedores em consulta recente. Sem nova consulta.", vin);
+            return CompletableFuture.completedFuture(unknownVehicle.get());
+        }
+
+        // Outra instância pode já estar consultando os fornecedores para a mesma chave: aguarda a resposta dela
+        CompletableFuture<Optional<VehicleAnalysis>> claim = claimPolicy.acquire(idempotencyKey, deadline, analysisExecutor);
+        return continueWith(claim, traceId, claimedResponse -> claimedResponse.isPresent()
+                ? CompletableFuture.completedFuture(staleWhileRevalidate.annotate(claimedResponse.get()))
+                : startAnalysis(startTime, inputType, inputIdentifier, vin, idempotencyKey, deadline, allowPartial, traceId));
+    }
+
+    private CompletableFuture<VehicleAnalysis> startAnalysis(Instant startTime, IdentifierType inputType, String inputIdentifier,
+                                                             String vin, String idempotencyKey, Deadline deadline,
+                                                             boolean allowPartial, String traceId) {
+        // Requisições concorrentes para o mesmo VIN compartilham uma única consulta aos fornecedores
+        // (o prazo que vale para os fornecedores é o da requisição que iniciou a análise)
+        CompletableFuture<VehicleAnalysis> analysis = inFlightAnalyses.join(vin,
+                () -> runAnalysis(startTime, inputType, inputIdentifier, vin, traceId, deadline));
+
+        // Cada chamador registra a resposta sob a sua própria chave de idempotência.
+        // Só a análise completa é gravada: após uma resposta parcial, ela chega depois e vale para as próximas requisições.
+        // Veículo desconhecido fica só no cache negativo (TTL curto): pode passar a existir nos fornecedores.
+        // Sem resposta gravada, a reserva da chave é desfeita para as outras instâncias não aguardarem o lease
+        analysis.whenComplete((result, error) -> {
+            if (error == null && !isUnknownVehicle(result)) {
+                idempotencyStore.storeResponse(idempotencyKey, result);
+            } else {
+                claimPolicy.release(idempotencyKey);
+            }
+        });
 
-        CompletableFuture<SupplierResult<Object>> f1Future = CompletableFuture.supplyAsync(
-                () -> supplierF1Port.fetchData(vin), analysisExecutor
-        );
+        if (allowPartial) {
+            return partialResponsePolicy.withinBudget(analysis, () -> inFlightAnalyses.partial(vin), analysisExecutor);
+        }
+        return analysis;
+    }
 
-        CompletableFuture<SupplierResult<Object>> f3Future = CompletableFuture.supplyAsync(
-                () -> supplierF3Port.fetchData(vin), analysisExecutor
-        );
+    /**
+     * Continua a análise quando {@code stage} concluir: na própria thread, se já estiver concluída (stores síncronos);
+     * senão no executor de análise, com o traceId da requisição no MDC, sem thread parada à espera do store.
+     * O cancelamento pelo chamador chega à etapa seguinte (e, dela, à análise compartilhada).
+     */
+    private <T> CompletableFuture<VehicleAnalysis> continueWith(CompletableFuture<T> stage, String traceId,
+                                                                Function<T, CompletableFuture<VehicleAnalysis>> next) {
+        if (stage.isDone() && !stage.isCompletedExceptionally()) {
+            return next.apply(stage.join());
+        }
 
-        CompletableFuture<SupplierResult<Object>> f2Future = f1Future.thenComposeAsync(f1Result -> {
-            supplierResults.put("F1", f1Result);
-            if (shouldCallF2(f1Result)) {
-                log.info("Restrições F1 detectadas. Acionando F2.");
-                return CompletableFuture.supplyAsync(() -> supplierF2Port.fetchData(vin), analysisExecutor);
+        CompletableFuture<VehicleAnalysis> result = new CompletableFuture<>();
+        stage.whenCompleteAsync((value, error) -> {
+            if (result.isDone()) {
+                return; // chamador desistiu durante a espera
+            }
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            if (traceId != null) {
+                MDC.put("traceId", traceId);
+            }
+            try {
+                CompletableFuture<VehicleAnalysis> following = next.apply(value);
+                result.whenComplete((ignored, cancellation) -> {
+                    if (result.isCancelled()) {
+                        following.cancel(true);
+                    }
+                });
+                following.whenComplete((analyzed, failure) -> {
+                    if (failure != null) {
+                        result.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                                ? failure.getCause() : failure);
+                    } else {
+                        result.complete(analyzed);
+                    }
+                });
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                MDC.remove("traceId");
+                MDC.remove("vin");
             }
-            return CompletableFuture.completedFuture(SupplierResult.notCalled("F2"));
         }, analysisExecutor);
+        return result;
+    }
 
-        futures.add(f2Future.thenAccept(f2Result -> supplierResults.put("F2", f2Result)));
-        futures.add(f3Future.thenAccept(f3Result -> supplierResults.put("F3", f3Result)));
+    /**
+     * Nova consulta aos fornecedores para atualizar uma análise em cache (compartilha análise em andamento do mesmo VIN).
+     */
+    private CompletableFuture<VehicleAnalysis> refresh(String inputIdentifier) {
+        Instant startTime = Instant.now();
+        IdentifierType inputType = identifierNormalizationPort.identifyType(inputIdentifier);
+        String vin = identifierNormalizationPort.normalizeToVin(inputIdentifier, inputType);
+        String traceId = MDC.get("traceId");
+        return inFlightAnalyses.join(vin,
+                () -> runAnalysis(startTime, inputType, inputIdentifier, vin, traceId, Deadline.none()));
+    }
 
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    private AnalysisRun runAnalysis(Instant startTime, IdentifierType inputType,
+                                    String inputIdentifier, String vin, String traceId, Deadline deadline) {
+        SupplierResultAccumulator supplierResults = new SupplierResultAccumulator(supplierGraph.supplierNames());
 
-        VehicleAnalysis consolidatedAnalysis = consolidateAnalysis(vin, supplierResults);
+        // Escopo por requisição: falha em uma chamada cancela as irmãs, e nada sobrevive ao término da análise
+        AnalysisScope scope = new AnalysisScope(analysisExecutor);
 
-        logAnalysis(startTime, inputType, inputIdentifier, vin, consolidatedAnalysis);
+        CompletableFuture<VehicleAnalysis> analysis = supplierGraph.execute(vin, deadline, scope, supplierResults, speculationPolicy)
+                .thenApply(ignored -> {
+                    VehicleAnalysis consolidatedAnalysis = consolidateAnalysis(vin, supplierResults);
 
-        idempotencyStore.storeResponse(idempotencyKey, consolidatedAnalysis);
-        
-        Timer.builder("analysis.slo")
-             .tag("f2_called", String.valueOf(supplierResults.get("F2").status().status() != br.com.desafio.veiculos.domain.SupplierStatus.Status.NOT_CALLED))
-             .register(meterRegistry)
-             .record(Instant.now().toEpochMilli() - startTime.toEpochMilli(), java.util.concurrent.TimeUnit.MILLISECONDS);
+                    logAnalysis(startTime, inputType, inputIdentifier, vin, traceId, consolidatedAnalysis);
 
-        return consolidatedAnalysis;
-    }
+                    if (isUnknownVehicle(consolidatedAnalysis)) {
+                        negativeCache.rememberUnknownVehicle(vin, consolidatedAnalysis);
+                    }
 
-    private boolean shouldCallF2(SupplierResult<?> f1Result) {
-        if (f1Result.data() instanceof F1ResponseData f1Data) {
-            return f1Data.restricoes() != null && (f1Data.restricoes().renajud() || f1Data.restricoes().recall());
-        }
-        return false;
+                    br.com.desafio.veiculos.domain.SupplierStatus f2Status = consolidatedAnalysis.supplierStatus().get("F2");
+                    Timer.builder("analysis.slo")
+                         .tag("f2_called", String.valueOf(f2Status != null && f2Status.status() != br.com.desafio.veiculos.domain.SupplierStatus.Status.NOT_CALLED))
+                         .register(meterRegistry)
+                         .record(Instant.now().toEpochMilli() - startTime.toEpochMilli(), java.util.concurrent.TimeUnit.MILLISECONDS);
+
+                    return consolidatedAnalysis;
+                });
+
+        // Conclusão, falha ou cancelamento (todos os chamadores desistiram) encerram o escopo
+        analysis.whenComplete((result, error) -> scope.close());
+        return new AnalysisRun(analysis, () -> consolidateAnalysis(vin, supplierResults));
     }
 
-    private VehicleAnalysis consolidateAnalysis(String vin, Map<String, SupplierResult<?>> supplierResults) {
+    /**
+     * Consolida os resultados registrados. Fornecedores sem resultado (análise ainda em andamento) aparecem como PENDING.
+     */
+    private VehicleAnalysis consolidateAnalysis(String vin, SupplierResultAccumulator supplierResults) {
         VehicleAnalysis.Builder builder = VehicleAnalysis.builder().vin(vin);
-        Map<String, br.com.desafio.veiculos.domain.SupplierStatus> statuses = new HashMap<>();
+        Map<String, br.com.desafio.veiculos.domain.SupplierStatus> statuses = new LinkedHashMap<>();
 
-        supplierResults.forEach((supplierName, result) -> {
+        for (int slot = 0; slot < supplierResults.size(); slot++) {
+            String supplierName = supplierResults.supplierName(slot);
+            SupplierResult<?> result = supplierResults.get(slot);
+            if (result == null) {
+                statuses.put(supplierName, SupplierResult.pending(supplierName).status());
+                continue;
+            }
             statuses.put(supplierName, result.status());
             if (result.status().status() == br.com.desafio.veiculos.domain.SupplierStatus.Status.SUCCESS && result.data() != null) {
                 mapper.mergeAnalysisData(builder, result.data());
             }
-        });
+        }
 
-        return builder.supplierStatus(statuses).build();
+        return builder.supplierStatus(statuses)
+                .analyzedAt(Instant.now())
+                .freshness(Freshness.fresh())
+                .build();
     }
 
-    private void logAnalysis(Instant startTime, IdentifierType inputType, String inputIdentifier, String vin, VehicleAnalysis analysis) {
+    /**
+     * Nenhum fornecedor conhece o VIN: todos os consultados responderam NOT_FOUND (os demais não foram acionados).
+     */
+    private boolean isUnknownVehicle(VehicleAnalysis analysis) {
+        boolean anyNotFound = false;
+        for (br.com.desafio.veiculos.domain.SupplierStatus status : analysis.supplierStatus().values()) {
+            switch (status.status()) {
+                case NOT_FOUND -> anyNotFound = true;
+                case NOT_CALLED -> { }
+                default -> {
+                    return false;
+                }
+            }
+        }
+        return anyNotFound;
+    }
+
+    private void logAnalysis(Instant startTime, IdentifierType inputType, String inputIdentifier, String vin, String traceId, VehicleAnalysis analysis) {
         try {
             long costCents = calculateCost(analysis.supplierStatus());
 
@@ -158,7 +334,7 @@ public class VehicleAnalysisService implements VehicleAnalysisUseCase {
                     .supplierCalls(analysis.supplierStatus())
                     .hasConstraints(Optional.ofNullable(analysis.constraints()).map(c -> c.renajud() || c.recall()).orElse(false))
                     .estimatedCostCents(costCents)
-                    .traceId(MDC.get("traceId"))
+                    .traceId(traceId)
                     .build();
 
             analysisLogPort.logAnalysis(logEntry);
@@ -172,10 +348,15 @@ public class VehicleAnalysisService implements VehicleAnalysisUseCase {
     
     private long calculateCost(Map<String, br.com.desafio.veiculos.domain.SupplierStatus> statuses) {
         long cost = 0;
-        if(statuses.getOrDefault("F1", SupplierResult.notCalled("F1").status()).status() == br.com.desafio.veiculos.domain.SupplierStatus.Status.SUCCESS) cost += 10;
-        if(statuses.getOrDefault("F2", SupplierResult.notCalled("F2").status()).status() == br.com.desafio.veiculos.domain.SupplierStatus.Status.SUCCESS) cost += 25;
-        if(statuses.getOrDefault("F3", SupplierResult.notCalled("F3").status()).status() == br.com.desafio.veiculos.domain.SupplierStatus.Status.SUCCESS) cost += 15;
+        if(isBillable(statuses.get("F1"))) cost += F1_COST_CENTS;
+        if(isBillable(statuses.get("F2"))) cost += F2_COST_CENTS;
+        if(isBillable(statuses.get("F3"))) cost += F3_COST_CENTS;
         return cost;
     }
+
+    // Respostas servidas do cache local não geram nova chamada paga ao fornecedor
+    private boolean isBillable(br.com.desafio.veiculos.domain.SupplierStatus status) {
+        return status != null && status.status() == br.com.desafio.veiculos.domain.SupplierStatus.Status.SUCCESS && !status.servedFromCache();
+    }
 }
 
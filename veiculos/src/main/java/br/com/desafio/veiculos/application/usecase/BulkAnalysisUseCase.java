@@ -0,0 +1,20 @@
+package br.com.desafio.veiculos.application.usecase;
+
+import br.com.desafio.veiculos.domain.BulkAnalysisResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public interface BulkAnalysisUseCase {
+
+    /**
+     * Analisa uma lista de identificadores, entregando cada resultado ao {@code sink} assim que o
+     * veículo é concluído (fora de ordem). O future é concluído após o último item.
+     * Cancelar o future interrompe o envio de novos itens aos fornecedores.
+     */
+    CompletableFuture<Void> analyzeAll(List<String> identifiers,
+                                       Function<String, String> idempotencyKeys,
+                                       Consumer<BulkAnalysisResult> sink);
+}
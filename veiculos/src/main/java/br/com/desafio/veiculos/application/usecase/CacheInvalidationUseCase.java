@@ -0,0 +1,19 @@
+package br.com.desafio.veiculos.application.usecase;
+
+import java.util.Collection;
+
+public interface CacheInvalidationUseCase {
+
+    /**
+     * Descarta os dados em cache do veículo nesta instância e no store de idempotência e
+     * propaga a invalidação para as demais instâncias.
+     *
+     * @return VIN canônico invalidado
+     */
+    String invalidate(String inputIdentifier);
+
+    /**
+     * Descarta dos caches locais as entradas dos VINs (invalidação recebida de outra instância).
+     */
+    void evictLocal(Collection<String> vins);
+}
@@ -1,8 +1,33 @@
 package br.com.desafio.veiculos.application.usecase;
 
+import br.com.desafio.veiculos.domain.Deadline;
 import br.com.desafio.veiculos.domain.VehicleAnalysis;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface VehicleAnalysisUseCase {
     VehicleAnalysis analyzeVehicle(String inputIdentifier, String idempotencyKey);
-}
 
+    /**
+     * Variante não bloqueante: o future é concluído quando todos os fornecedores responderem.
+     * Cancelar o future cancela as chamadas a fornecedores ainda em andamento.
+     */
+    default CompletableFuture<VehicleAnalysis> analyzeVehicleAsync(String inputIdentifier, String idempotencyKey) {
+        return analyzeVehicleAsync(inputIdentifier, idempotencyKey, Deadline.none());
+    }
+
+    /**
+     * Variante com prazo: as chamadas aos fornecedores deixam de tentar novamente ou de aguardar
+     * vaga quando o tempo restante não comporta outra tentativa.
+     */
+    CompletableFuture<VehicleAnalysis> analyzeVehicleAsync(String inputIdentifier, String idempotencyKey, Deadline deadline);
+
+    /**
+     * Variante que admite resposta parcial: se habilitada, conclui ao fim do orçamento de latência com os
+     * fornecedores ainda em andamento marcados como PENDING. A análise completa segue em segundo plano e
+     * substitui a resposta armazenada para a chave de idempotência.
+     */
+    default CompletableFuture<VehicleAnalysis> analyzeVehicleAllowingPartial(String inputIdentifier, String idempotencyKey, Deadline deadline) {
+        return analyzeVehicleAsync(inputIdentifier, idempotencyKey, deadline);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.desafio.veiculos.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resultado de um veículo na análise em lote (uma linha NDJSON)")
+public record BulkAnalysisResult(
+    @Schema(description = "Identificador informado (Placa, RENAVAM ou VIN)", example = "ABC1234")
+    String identifier,
+
+    @Schema(description = "Resultado do processamento do item (OK, ERROR)", example = "OK")
+    Status status,
+
+    @Schema(description = "Análise consolidada, quando status = OK")
+    VehicleAnalysis analysis,
+
+    @Schema(description = "Motivo da falha, quando status = ERROR", example = "Identificador inválido: XYZ")
+    String error
+) {
+    public enum Status {
+        OK,
+        ERROR
+    }
+
+    public static BulkAnalysisResult success(String identifier, VehicleAnalysis analysis) {
+        return new BulkAnalysisResult(identifier, Status.OK, analysis, null);
+    }
+
+    public static BulkAnalysisResult failure(String identifier, String error) {
+        return new BulkAnalysisResult(identifier, Status.ERROR, null, error);
+    }
+}
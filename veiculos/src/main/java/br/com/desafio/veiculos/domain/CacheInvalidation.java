@@ -0,0 +1,18 @@
+package br.com.desafio.veiculos.domain;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Lote de VINs cujos dados em cache devem ser descartados em todas as instâncias.
+ *
+ * @param vins     VINs canônicos, sem repetição
+ * @param origin   instância que publicou o lote (já aplicou a invalidação localmente)
+ * @param issuedAt momento da publicação
+ */
+public record CacheInvalidation(
+    List<String> vins,
+    String origin,
+    Instant issuedAt
+) {
+}
@@ -0,0 +1,61 @@
+package br.com.desafio.veiculos.domain;
+
+import java.time.Duration;
+
+/**
+ * Prazo absoluto de uma análise, criado na entrada da requisição e repassado até os fornecedores.
+ *
+ * Baseado em {@link System#nanoTime()}: imune a ajustes do relógio do sistema e válido apenas
+ * dentro da mesma JVM.
+ */
+public final class Deadline {
+
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiresAtNanos, boolean bounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos(), true);
+    }
+
+    /**
+     * Sem prazo: as chamadas seguem apenas os timeouts e tentativas configurados.
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    public long remainingNanos() {
+        return bounded ? Math.max(0, expiresAtNanos - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(remainingNanos());
+    }
+
+    public boolean isExpired() {
+        return bounded && expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Indica se ainda cabe uma etapa de duração {@code duration} antes do prazo.
+     */
+    public boolean hasTimeFor(Duration duration) {
+        return !bounded || expiresAtNanos - System.nanoTime() >= duration.toNanos();
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? "Deadline[remaining=" + remaining().toMillis() + "ms]" : "Deadline[none]";
+    }
+}
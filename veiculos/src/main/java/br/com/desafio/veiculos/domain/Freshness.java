@@ -0,0 +1,40 @@
+package br.com.desafio.veiculos.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Idade da análise no momento da resposta")
+public record Freshness(
+    @Schema(description = "FRESH: dentro do TTL de atualidade; STALE: mais antiga (uma atualização pode estar em andamento)", example = "FRESH")
+    State state,
+    @Schema(description = "Segundos desde a consulta aos fornecedores (ausente se desconhecido)", example = "42")
+    Long ageSeconds
+) {
+    public enum State {
+        FRESH,
+        STALE
+    }
+
+    public static Freshness fresh() {
+        return new Freshness(State.FRESH, 0L);
+    }
+
+    /**
+     * Atualidade de uma análise feita em {@code analyzedAt}. Sem data conhecida a análise é considerada STALE.
+     */
+    public static Freshness of(Instant analyzedAt, Instant now, Duration softTtl) {
+        if (analyzedAt == null) {
+            return new Freshness(State.STALE, null);
+        }
+        Duration age = Duration.between(analyzedAt, now);
+        return new Freshness(age.compareTo(softTtl) > 0 ? State.STALE : State.FRESH, Math.max(0, age.toSeconds()));
+    }
+
+    public boolean isStale() {
+        return state == State.STALE;
+    }
+}
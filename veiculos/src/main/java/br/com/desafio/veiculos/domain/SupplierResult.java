@@ -18,8 +18,24 @@ public record SupplierResult<T>(
         return new SupplierResult<>(new SupplierStatus(Status.TIMEOUT, latencyMs, "Supplier timed out"), null);
     }
 
+    public static <T> SupplierResult<T> notFound(String supplierName, long latencyMs) {
+        return new SupplierResult<>(new SupplierStatus(Status.NOT_FOUND, latencyMs, null), null);
+    }
+
     public static <T> SupplierResult<T> notCalled(String supplierName) {
         return new SupplierResult<>(new SupplierStatus(Status.NOT_CALLED, 0, null), null);
     }
+
+    /**
+     * Cópia de um resultado já obtido, marcada como servida do cache (latência zero).
+     */
+    public static <T> SupplierResult<T> cached(SupplierResult<T> result) {
+        SupplierStatus status = result.status();
+        return new SupplierResult<>(new SupplierStatus(status.status(), 0, status.error(), true), result.data());
+    }
+
+    public static <T> SupplierResult<T> pending(String supplierName) {
+        return new SupplierResult<>(new SupplierStatus(Status.PENDING, 0, null), null);
+    }
 }
 
@@ -6,18 +6,35 @@ import io.swagger.v3.oas.annotations.media.Schema;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Status da consulta a um fornecedor específico")
 public record SupplierStatus(
-    @Schema(description = "Resultado da consulta (SUCCESS, FAILURE, TIMEOUT, NOT_CALLED)", example = "SUCCESS")
+    @Schema(description = "Resultado da consulta (SUCCESS, FAILURE, TIMEOUT, NOT_CALLED, NOT_FOUND, PENDING)", example = "SUCCESS")
     Status status,
     @Schema(description = "Latência da chamada em milissegundos", example = "120")
     long latencyMs,
     @Schema(description = "Mensagem de erro, se houver falha", example = "Connection refused")
-    String error
+    String error,
+    @Schema(description = "Resultado servido do cache local, sem nova chamada ao fornecedor", example = "true")
+    Boolean cached
 ) {
+    public SupplierStatus(Status status, long latencyMs, String error) {
+        this(status, latencyMs, error, null);
+    }
+
+    /**
+     * Resultado obtido do cache: não houve chamada (nem custo) no fornecedor.
+     */
+    public boolean servedFromCache() {
+        return Boolean.TRUE.equals(cached);
+    }
+
     public enum Status {
         SUCCESS,
         FAILURE,
         TIMEOUT,
-        NOT_CALLED
+        NOT_CALLED,
+        /** O fornecedor respondeu, mas não conhece o veículo */
+        NOT_FOUND,
+        /** Resposta parcial: a consulta ainda está em andamento */
+        PENDING
     }
 }
 
@@ -2,6 +2,7 @@ package br.com.desafio.veiculos.domain;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
 import java.util.Map;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -17,8 +18,25 @@ public record VehicleAnalysis(
     Infractions infractions,
 
     @Schema(description = "Status detalhado da consulta a cada fornecedor (F1, F2, F3)")
-    Map<String, SupplierStatus> supplierStatus
+    Map<String, SupplierStatus> supplierStatus,
+
+    @Schema(description = "Momento da consulta aos fornecedores")
+    Instant analyzedAt,
+
+    @Schema(description = "Idade e atualidade da análise no momento da resposta")
+    Freshness freshness
 ) {
+    public VehicleAnalysis(String vin, Constraints constraints, Infractions infractions, Map<String, SupplierStatus> supplierStatus) {
+        this(vin, constraints, infractions, supplierStatus, null, null);
+    }
+
+    /**
+     * Cópia da análise com a atualidade calculada no momento da resposta.
+     */
+    public VehicleAnalysis withFreshness(Freshness freshness) {
+        return new VehicleAnalysis(vin, constraints, infractions, supplierStatus, analyzedAt, freshness);
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -28,6 +46,8 @@ public record VehicleAnalysis(
         private Constraints constraints;
         private Infractions infractions;
         private Map<String, SupplierStatus> supplierStatus;
+        private Instant analyzedAt;
+        private Freshness freshness;
 
         public Builder vin(String vin) {
             this.vin = vin;
@@ -49,8 +69,18 @@ public record VehicleAnalysis(
             return this;
         }
 
+        public Builder analyzedAt(Instant analyzedAt) {
+            this.analyzedAt = analyzedAt;
+            return this;
+        }
+
+        public Builder freshness(Freshness freshness) {
+            this.freshness = freshness;
+            return this;
+        }
+
         public VehicleAnalysis build() {
-            return new VehicleAnalysis(vin, constraints, infractions, supplierStatus);
+            return new VehicleAnalysis(vin, constraints, infractions, supplierStatus, analyzedAt, freshness);
         }
     }
 }
@@ -6,5 +6,11 @@ import br.com.desafio.veiculos.domain.Constraints;
 public record F1ResponseData(
     String vin,
     Constraints restricoes
-) {}
-
+) {
+    /**
+     * Restrição RENAJUD ou recall informada por F1 (condição para consultar F2).
+     */
+    public boolean hasConstraints() {
+        return restricoes != null && (restricoes.renajud() || restricoes.recall());
+    }
+}
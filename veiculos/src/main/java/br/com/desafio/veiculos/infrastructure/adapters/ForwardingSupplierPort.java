@@ -0,0 +1,46 @@
+package br.com.desafio.veiculos.infrastructure.adapters;
+
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.SupplierResult;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base para decoradores de {@link SupplierPort}: repassa todas as operações ao fornecedor decorado,
+ * inclusive nome, dependências e condição de ativação, para que o decorador seja transparente ao grafo.
+ */
+public abstract class ForwardingSupplierPort implements SupplierPort {
+
+    protected final SupplierPort delegate;
+
+    protected ForwardingSupplierPort(SupplierPort delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public SupplierResult<Object> fetchData(String vin) {
+        return delegate.fetchData(vin);
+    }
+
+    @Override
+    public SupplierResult<Object> fetchData(String vin, Deadline deadline) {
+        return delegate.fetchData(vin, deadline);
+    }
+
+    @Override
+    public String getSupplierName() {
+        return delegate.getSupplierName();
+    }
+
+    @Override
+    public Set<String> dependsOn() {
+        return delegate.dependsOn();
+    }
+
+    @Override
+    public boolean shouldActivate(Map<String, SupplierResult<?>> dependencies) {
+        return delegate.shouldActivate(dependencies);
+    }
+}
@@ -11,7 +11,7 @@ import org.springframework.stereotype.Component;
 public class AnalysisLogProducer implements AnalysisLogPort {
 
     private static final Logger log = LoggerFactory.getLogger(AnalysisLogProducer.class);
-    private static final String TOPIC = "vehicle_analysis_log";
+    static final String TOPIC = "vehicle_analysis_log";
 
     private final KafkaTemplate<String, VehicleAnalysisLog> kafkaTemplate;
 
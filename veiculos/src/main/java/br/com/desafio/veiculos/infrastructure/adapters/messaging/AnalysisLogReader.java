@@ -0,0 +1,109 @@
+package br.com.desafio.veiculos.infrastructure.adapters.messaging;
+
+import br.com.desafio.veiculos.application.port.out.AnalysisLogReaderPort;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.VehicleAnalysisLog;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Relê o tópico {@code vehicle_analysis_log} sem grupo de consumo: as partições são atribuídas
+ * manualmente e nenhum offset é confirmado, então a leitura não interfere em outros consumidores.
+ *
+ * Cada partição começa no primeiro registro a partir de {@code since} (offsetsForTimes), limitado
+ * aos últimos {@code maxRecords / partições} registros, e é lida até o fim observado na abertura.
+ * Registros que não puderem ser desserializados são ignorados.
+ */
+@Component
+public class AnalysisLogReader implements AnalysisLogReaderPort {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisLogReader.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+
+    private final Map<String, Object> consumerProperties;
+    private final Duration requestTimeout;
+
+    public AnalysisLogReader(KafkaProperties kafkaProperties,
+                             @Value("${analysis.log.reader.request-timeout:5s}") Duration requestTimeout) {
+        Map<String, Object> properties = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+        properties.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        properties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        properties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        properties.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        // O produtor grava o tipo no header (spring.json.type.mapping); aqui o tipo é sempre o mesmo
+        properties.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        properties.put(JsonDeserializer.VALUE_DEFAULT_TYPE, VehicleAnalysisLog.class.getName());
+        properties.put(JsonDeserializer.TRUSTED_PACKAGES, VehicleAnalysisLog.class.getPackageName());
+        this.consumerProperties = properties;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public long replay(Instant since, int maxRecords, Deadline deadline, Consumer<VehicleAnalysisLog> sink) {
+        try (KafkaConsumer<String, VehicleAnalysisLog> consumer = new KafkaConsumer<>(consumerProperties)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(AnalysisLogProducer.TOPIC, requestTimeout).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            if (partitions.isEmpty() || maxRecords <= 0) {
+                return 0;
+            }
+            consumer.assign(partitions);
+
+            Map<TopicPartition, Long> timestamps = new HashMap<>();
+            partitions.forEach(partition -> timestamps.put(partition, since.toEpochMilli()));
+            Map<TopicPartition, OffsetAndTimestamp> fromTime = consumer.offsetsForTimes(timestamps, requestTimeout);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions, requestTimeout);
+
+            long perPartition = Math.max(1, (maxRecords + partitions.size() - 1) / partitions.size());
+            Map<TopicPartition, Long> pending = new HashMap<>();
+            for (TopicPartition partition : partitions) {
+                long end = endOffsets.getOrDefault(partition, 0L);
+                OffsetAndTimestamp first = fromTime.get(partition);
+                // Sem registros desde 'since': nada a ler nessa partição
+                long start = first != null ? Math.max(first.offset(), end - perPartition) : end;
+                consumer.seek(partition, start);
+                if (start < end) {
+                    pending.put(partition, end);
+                }
+            }
+
+            long delivered = 0;
+            while (!pending.isEmpty() && delivered < maxRecords && !deadline.isExpired()) {
+                for (ConsumerRecord<String, VehicleAnalysisLog> record : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    Long end = pending.get(partition);
+                    if (end == null || record.offset() >= end || record.value() == null) {
+                        continue;
+                    }
+                    sink.accept(record.value());
+                    if (++delivered >= maxRecords) {
+                        break;
+                    }
+                }
+                pending.entrySet().removeIf(entry -> consumer.position(entry.getKey(), requestTimeout) >= entry.getValue());
+            }
+
+            log.debug("Releitura de {}: {} logs desde {}", AnalysisLogProducer.TOPIC, delivered, since);
+            return delivered;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.desafio.veiculos.infrastructure.adapters.messaging;
+
+import br.com.desafio.veiculos.application.usecase.CacheInvalidationUseCase;
+import br.com.desafio.veiculos.domain.CacheInvalidation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aplica nos caches locais as invalidações publicadas pelas demais instâncias.
+ *
+ * Consome sem grupo de consumo, como o {@link AnalysisLogReader}: todas as partições do tópico são
+ * atribuídas manualmente e nenhum offset é confirmado, então cada instância recebe todos os lotes e
+ * reinícios não deixam grupos órfãos no broker. Começa do fim do tópico, já que invalidações anteriores
+ * à subida não afetam um cache que acabou de nascer vazio. Partições novas são percebidas a cada
+ * {@code PARTITION_REFRESH}.
+ */
+@Component
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationListener.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration PARTITION_REFRESH = Duration.ofMinutes(1);
+
+    private final CacheInvalidationUseCase cacheInvalidationUseCase;
+    private final String nodeId;
+    private final Map<String, Object> consumerProperties;
+    private final boolean enabled;
+    private final Counter received;
+
+    private volatile boolean running;
+    private volatile KafkaConsumer<String, CacheInvalidation> consumer;
+    private Thread worker;
+
+    public CacheInvalidationListener(CacheInvalidationUseCase cacheInvalidationUseCase,
+                                     CacheInvalidationPublisher publisher,
+                                     KafkaProperties kafkaProperties,
+                                     @Value("${cache.invalidation.enabled:true}") boolean enabled,
+                                     MeterRegistry meterRegistry) {
+        this.cacheInvalidationUseCase = cacheInvalidationUseCase;
+        this.nodeId = publisher.nodeId();
+        this.enabled = enabled;
+
+        Map<String, Object> properties = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+        properties.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        properties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        properties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        properties.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        properties.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        properties.put(JsonDeserializer.VALUE_DEFAULT_TYPE, CacheInvalidation.class.getName());
+        properties.put(JsonDeserializer.TRUSTED_PACKAGES, CacheInvalidation.class.getPackageName());
+        this.consumerProperties = properties;
+
+        this.received = Counter.builder("cache.invalidation.received")
+                .description("VINs recebidos de outras instâncias para invalidação")
+                .register(meterRegistry);
+    }
+
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation == null || invalidation.vins() == null || nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        log.debug("Invalidação recebida de {}: {} VINs", invalidation.origin(), invalidation.vins().size());
+        received.increment(invalidation.vins().size());
+        cacheInvalidationUseCase.evictLocal(invalidation.vins());
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::consume, "cache-invalidation-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        KafkaConsumer<String, CacheInvalidation> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (worker != null) {
+            try {
+                worker.join(POLL_TIMEOUT.multipliedBy(4).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void consume() {
+        try (KafkaConsumer<String, CacheInvalidation> kafkaConsumer = new KafkaConsumer<>(consumerProperties)) {
+            consumer = kafkaConsumer;
+            long nextRefresh = System.nanoTime();
+            while (running) {
+                try {
+                    if (System.nanoTime() - nextRefresh >= 0) {
+                        assign(kafkaConsumer);
+                        nextRefresh = System.nanoTime() + PARTITION_REFRESH.toNanos();
+                    }
+                    if (kafkaConsumer.assignment().isEmpty()) {
+                        // Tópico ainda não existe ou broker fora do ar: tenta de novo no próximo ciclo
+                        nextRefresh = System.nanoTime() + POLL_TIMEOUT.toNanos();
+                        Thread.sleep(POLL_TIMEOUT.toMillis());
+                        continue;
+                    }
+                    for (ConsumerRecord<String, CacheInvalidation> record : kafkaConsumer.poll(POLL_TIMEOUT)) {
+                        onInvalidation(record.value());
+                    }
+                } catch (WakeupException e) {
+                    // stop(): o laço termina com running = false
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    log.warn("Erro ao consumir invalidações de {}: {}", CacheInvalidationPublisher.TOPIC, e.getMessage());
+                }
+            }
+        } finally {
+            consumer = null;
+        }
+    }
+
+    /**
+     * Atribui todas as partições do tópico; as já atribuídas mantêm a posição e as novas começam do fim.
+     */
+    private void assign(KafkaConsumer<String, CacheInvalidation> kafkaConsumer) {
+        List<TopicPartition> partitions = kafkaConsumer.partitionsFor(CacheInvalidationPublisher.TOPIC, POLL_TIMEOUT).stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+        if (!partitions.isEmpty() && !kafkaConsumer.assignment().containsAll(partitions)) {
+            kafkaConsumer.assign(partitions);
+            log.info("Invalidações de cache: {} partições de {} atribuídas", partitions.size(), CacheInvalidationPublisher.TOPIC);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.desafio.veiculos.infrastructure.adapters.messaging;
+
+import br.com.desafio.veiculos.application.port.out.CacheInvalidationPort;
+import br.com.desafio.veiculos.domain.CacheInvalidation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica invalidações no tópico {@code vehicle_cache_invalidation} em lotes.
+ *
+ * Os VINs ficam pendentes por até {@code cache.invalidation.flush-interval} (ou até o lote encher) e
+ * repetições nesse intervalo são compactadas. Cada lote leva o identificador desta instância, que já
+ * aplicou a invalidação localmente e ignora o próprio lote ao recebê-lo.
+ */
+@Component
+public class CacheInvalidationPublisher implements CacheInvalidationPort {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationPublisher.class);
+    static final String TOPIC = "vehicle_cache_invalidation";
+
+    private final KafkaTemplate<String, CacheInvalidation> kafkaTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationBatcher batcher;
+    private final ScheduledExecutorService flusher;
+
+    private final Counter published;
+    private final Counter coalesced;
+    private final Counter batches;
+
+    public CacheInvalidationPublisher(KafkaTemplate<String, CacheInvalidation> kafkaTemplate,
+                                      @Value("${cache.invalidation.flush-interval:200ms}") Duration flushInterval,
+                                      @Value("${cache.invalidation.max-batch-size:500}") int maxBatchSize,
+                                      MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.batcher = new InvalidationBatcher(maxBatchSize, this::send);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.published = Counter.builder("cache.invalidation.published")
+                .description("VINs publicados para invalidação nas demais instâncias")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("cache.invalidation.coalesced")
+                .description("Invalidações repetidas compactadas no lote pendente")
+                .register(meterRegistry);
+        this.batches = Counter.builder("cache.invalidation.batches")
+                .description("Lotes de invalidação enviados ao Kafka")
+                .register(meterRegistry);
+        Gauge.builder("cache.invalidation.pending", batcher, InvalidationBatcher::pendingCount)
+                .description("VINs aguardando o próximo lote de invalidação")
+                .register(meterRegistry);
+
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(String vin) {
+        if (!batcher.add(vin)) {
+            coalesced.increment();
+            return;
+        }
+        if (batcher.isFull()) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Identificador desta instância nos lotes publicados.
+     */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    private void send(List<String> vins) {
+        kafkaTemplate.send(TOPIC, nodeId, new CacheInvalidation(vins, nodeId, Instant.now()));
+        published.increment(vins.size());
+        batches.increment();
+    }
+
+    private void flushQuietly() {
+        try {
+            batcher.flush();
+        } catch (Exception e) {
+            log.error("Erro ao publicar lote de invalidação no Kafka", e);
+        }
+    }
+
+    /**
+     * Envia o que estiver pendente antes de encerrar.
+     */
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.desafio.veiculos.infrastructure.adapters.messaging;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Agrupa VINs a invalidar em lotes, descartando repetições enquanto o lote não é enviado.
+ *
+ * Um expurgo em massa com o mesmo VIN repetido, ou milhares de VINs de uma vez, vira poucos
+ * lotes de no máximo {@code maxBatchSize} VINs distintos em vez de uma mensagem por pedido.
+ */
+final class InvalidationBatcher {
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final int maxBatchSize;
+    private final Consumer<List<String>> sink;
+
+    InvalidationBatcher(int maxBatchSize, Consumer<List<String>> sink) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Tamanho máximo do lote deve ser positivo: " + maxBatchSize);
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.sink = sink;
+    }
+
+    /**
+     * @return {@code false} se o VIN já aguardava envio (compactado no lote pendente)
+     */
+    boolean add(String vin) {
+        return pending.add(vin);
+    }
+
+    boolean isFull() {
+        return pending.size() >= maxBatchSize;
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Envia tudo o que estiver pendente, em lotes de até {@code maxBatchSize} VINs.
+     * VINs adicionados durante o envio seguem no próximo.
+     *
+     * @return quantidade de lotes enviados
+     */
+    synchronized int flush() {
+        int batches = 0;
+        List<String> batch = new ArrayList<>(Math.min(maxBatchSize, pending.size()));
+        for (Iterator<String> iterator = pending.iterator(); iterator.hasNext(); ) {
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() == maxBatchSize) {
+                sink.accept(List.copyOf(batch));
+                batch.clear();
+                batches++;
+            }
+        }
+        if (!batch.isEmpty()) {
+            sink.accept(List.copyOf(batch));
+            batches++;
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,462 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.embedded;
+
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo.VehicleAnalysisCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Store de idempotência embarcado, para instalações de uma instância só (edge), sem MongoDB: perfil {@code embedded}.
+ *
+ * As respostas são acrescentadas a segmentos mapeados em memória ({@link MappedSegment}) no diretório
+ * {@code idempotency.embedded.directory}, e um índice em endereçamento aberto ({@link OpenAddressingIndex})
+ * aponta a chave para o registro mais recente. Leitura e gravação não saem do processo; o payload é o mesmo
+ * do MongoDB ({@link VehicleAnalysisCodec}).
+ *
+ * Validade: cada resposta vale {@code idempotency.embedded.ttl} a partir da gravação (24h, como o TTL do MongoDB).
+ * O segmento ativo é trocado a cada {@code segment-duration} ou quando enche; um segmento cujo registro mais
+ * novo já expirou é apagado inteiro. Segmentos com menos de {@code compaction-threshold} de bytes vivos
+ * (respostas sobrescritas ou removidas) têm os registros vivos copiados para o segmento ativo e são apagados.
+ * Remoção por VIN grava um registro de remoção, para que a resposta não volte na recuperação após um restart.
+ *
+ * A reserva de chaves ({@link #claim}) fica no comportamento padrão do port: só há uma instância.
+ *
+ * Métricas: idempotency.store.lookups{tier=embedded}, idempotency.embedded.entries, idempotency.embedded.segments,
+ * idempotency.embedded.disk.bytes, idempotency.embedded.index.bytes, idempotency.embedded.compactions e
+ * idempotency.embedded.segments.expired.
+ */
+@Component
+@Primary
+@Profile("embedded")
+public class MappedIdempotencyStore implements IdempotencyStorePort {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedIdempotencyStore.class);
+
+    static final String SEGMENT_SUFFIX = ".seg";
+    private static final byte[] NO_PAYLOAD = new byte[0];
+
+    private final VehicleAnalysisCodec codec;
+    private final Path directory;
+    private final long ttlMillis;
+    private final long segmentDurationMillis;
+    private final int segmentBytes;
+    private final double compactionThreshold;
+    private final Clock clock;
+
+    // Índice e segmentos: leituras concorrentes, alterações (gravação, remoção, manutenção) exclusivas
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final OpenAddressingIndex index;
+    private final TreeMap<Integer, MappedSegment> segments = new TreeMap<>();
+    private MappedSegment active;
+    private int nextSegmentId = 1;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter compactions;
+    private final Counter expiredSegments;
+
+    @Autowired
+    public MappedIdempotencyStore(
+            VehicleAnalysisCodec codec,
+            @Value("${idempotency.embedded.directory:data/idempotency}") String directory,
+            @Value("${idempotency.embedded.ttl:24h}") Duration ttl,
+            @Value("${idempotency.embedded.segment-duration:1h}") Duration segmentDuration,
+            @Value("${idempotency.embedded.segment-size:64MB}") DataSize segmentSize,
+            @Value("${idempotency.embedded.expected-entries:100000}") int expectedEntries,
+            @Value("${idempotency.embedded.compaction-threshold:0.5}") double compactionThreshold,
+            MeterRegistry meterRegistry) {
+        this(codec, Path.of(directory), ttl, segmentDuration, segmentSize, expectedEntries, compactionThreshold,
+                meterRegistry, Clock.systemUTC());
+    }
+
+    MappedIdempotencyStore(VehicleAnalysisCodec codec, Path directory, Duration ttl, Duration segmentDuration,
+                           DataSize segmentSize, int expectedEntries, double compactionThreshold,
+                           MeterRegistry meterRegistry, Clock clock) {
+        this.codec = codec;
+        this.directory = directory;
+        this.ttlMillis = ttl.toMillis();
+        this.segmentDurationMillis = segmentDuration.toMillis();
+        this.segmentBytes = Math.toIntExact(segmentSize.toBytes());
+        this.compactionThreshold = compactionThreshold;
+        this.clock = clock;
+        this.index = new OpenAddressingIndex(expectedEntries);
+
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+        this.compactions = Counter.builder("idempotency.embedded.compactions")
+                .description("Segmentos do store embarcado compactados")
+                .register(meterRegistry);
+        this.expiredSegments = Counter.builder("idempotency.embedded.segments.expired")
+                .description("Segmentos do store embarcado apagados por expiração")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.embedded.entries", this, store -> store.snapshot(s -> s.index.size()))
+                .description("Chaves no índice do store de idempotência embarcado")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.embedded.segments", this, store -> store.snapshot(s -> s.segments.size()))
+                .description("Segmentos do store de idempotência embarcado")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.embedded.disk.bytes", this,
+                        store -> store.snapshot(s -> s.segments.values().stream().mapToLong(MappedSegment::usedBytes).sum()))
+                .description("Bytes de registros nos segmentos do store embarcado")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.embedded.index.bytes", this, store -> store.snapshot(s -> s.index.sizeInBytes()))
+                .description("Bytes no heap do índice do store embarcado")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        recover();
+    }
+
+    @Override
+    public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
+        byte[] key = utf8(idempotencyKey);
+        byte[] payload;
+        lock.readLock().lock();
+        try {
+            long location = index.get(hash(key), candidate -> segment(candidate).keyEquals(offset(candidate), key));
+            if (location == 0 || isExpired(segment(location).createdAt(offset(location)), clock.millis())) {
+                misses.increment();
+                return Optional.empty();
+            }
+            payload = segment(location).payload(offset(location));
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            VehicleAnalysis analysis = codec.decode(payload);
+            hits.increment();
+            return Optional.of(analysis);
+        } catch (RuntimeException e) {
+            misses.increment();
+            log.warn("Resposta de idempotência ilegível no store embarcado, tratada como ausente: {}", idempotencyKey, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
+        try {
+            byte[] key = utf8(idempotencyKey);
+            byte[] vin = utf8(response.vin());
+            byte[] payload = codec.encode(response);
+            lock.writeLock().lock();
+            try {
+                long location = append(MappedSegment.PUT, clock.millis(), key, vin, payload);
+                long previous = index.put(hash(key), hash(vin), location,
+                        candidate -> segment(candidate).keyEquals(offset(candidate), key));
+                release(previous);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            log.error("Erro ao salvar resposta de idempotência no store embarcado: {}", idempotencyKey, e);
+        }
+    }
+
+    /**
+     * O índice não é organizado por VIN: as entradas são localizadas pelo hash do VIN numa varredura do índice
+     * em memória, sem ler os segmentos além das candidatas.
+     */
+    @Override
+    public void removeByVin(String vin) {
+        byte[] vinBytes = utf8(vin);
+        long vinHash = hash(vinBytes);
+        lock.writeLock().lock();
+        try {
+            List<long[]> matches = new ArrayList<>();
+            index.forEach((keyHash, entryVinHash, location) -> {
+                if (entryVinHash == vinHash && segment(location).vinEquals(offset(location), vinBytes)) {
+                    matches.add(new long[]{keyHash, location});
+                }
+            });
+            long now = clock.millis();
+            for (long[] match : matches) {
+                byte[] key = segment(match[1]).key(offset(match[1]));
+                index.remove(match[0], match[1]);
+                release(match[1]);
+                append(MappedSegment.REMOVE, now, key, vinBytes, NO_PAYLOAD);
+            }
+            log.info("Respostas de idempotência removidas para o VIN {}: {}", vin, matches.size());
+        } catch (RuntimeException e) {
+            log.error("Erro ao remover respostas de idempotência do VIN {} no store embarcado", vin, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Troca o segmento ativo pela idade, apaga segmentos expirados e compacta os com poucos bytes vivos.
+     */
+    @Scheduled(initialDelayString = "${idempotency.embedded.maintenance-interval:PT1M}",
+            fixedDelayString = "${idempotency.embedded.maintenance-interval:PT1M}")
+    public void maintain() {
+        lock.writeLock().lock();
+        try {
+            long now = clock.millis();
+            if (active.usedBytes() > 0 && now - active.openedAt() >= segmentDurationMillis) {
+                roll();
+            }
+            for (MappedSegment segment : List.copyOf(segments.values())) {
+                if (segment == active) {
+                    continue;
+                }
+                if (isExpired(segment.newestCreatedAt(), now)) {
+                    drop(segment);
+                    expiredSegments.increment();
+                } else if (segment.liveBytes() < segment.usedBytes() * compactionThreshold) {
+                    compact(segment, now);
+                    compactions.increment();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Erro na manutenção do store de idempotência embarcado", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        lock.writeLock().lock();
+        try {
+            active.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reabre os segmentos existentes, do mais antigo para o mais novo, reconstruindo o índice. Os segmentos
+     * reabertos ficam só para leitura e as gravações seguem num segmento novo.
+     */
+    private void recover() {
+        long start = System.nanoTime();
+        long now = clock.millis();
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+            }
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    int id = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                    nextSegmentId = Math.max(nextSegmentId, id + 1);
+                    MappedSegment segment = MappedSegment.open(file, id);
+                    segments.put(id, segment);
+                    segment.forEachRecord((offset, type, createdAt) -> replay(segment, offset, type, createdAt, now));
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Segmento de idempotência ignorado na recuperação: {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o store de idempotência embarcado em " + directory, e);
+        }
+        log.info("Store de idempotência embarcado em {}: {} chaves recuperadas de {} segmentos em {}ms",
+                directory.toAbsolutePath(), index.size(), segments.size(), (System.nanoTime() - start) / 1_000_000);
+        active = newSegment();
+    }
+
+    /**
+     * Reaplica um registro. Registros copiados pela compactação podem aparecer depois de registros mais novos
+     * da mesma chave: vale sempre o {@code createdAt} maior.
+     */
+    private void replay(MappedSegment segment, int offset, byte type, long createdAt, long now) {
+        byte[] key = segment.key(offset);
+        long keyHash = hash(key);
+        long current = index.get(keyHash, candidate -> segment(candidate).keyEquals(offset(candidate), key));
+        if (current != 0 && segment(current).createdAt(offset(current)) > createdAt) {
+            return;
+        }
+        if (type == MappedSegment.REMOVE) {
+            if (current != 0) {
+                index.remove(keyHash, current);
+                release(current);
+            }
+            segment.addLive(segment.recordLength(offset));
+        } else if (!isExpired(createdAt, now)) {
+            long previous = index.put(keyHash, hash(segment.vin(offset)), location(segment.id(), offset),
+                    candidate -> candidate == current);
+            release(previous);
+            segment.addLive(segment.recordLength(offset));
+        }
+    }
+
+    /**
+     * Copia para o segmento ativo as respostas ainda indexadas e as remoções não expiradas, e apaga o segmento.
+     */
+    private void compact(MappedSegment segment, long now) {
+        long used = segment.usedBytes();
+        long live = segment.liveBytes();
+        segment.forEachRecord((offset, type, createdAt) -> {
+            if (isExpired(createdAt, now)) {
+                return;
+            }
+            long location = location(segment.id(), offset);
+            if (type == MappedSegment.REMOVE) {
+                copy(segment, offset);
+                return;
+            }
+            long keyHash = hash(segment.key(offset));
+            if (index.get(keyHash, candidate -> candidate == location) == location) {
+                index.put(keyHash, hash(segment.vin(offset)), copy(segment, offset), candidate -> candidate == location);
+            }
+        });
+        drop(segment);
+        log.debug("Segmento de idempotência {} compactado: {} de {} bytes ainda vivos", segment.id(), live, used);
+    }
+
+    private long copy(MappedSegment source, int offset) {
+        if (!active.hasRoom(source.recordLength(offset))) {
+            roll();
+        }
+        return location(active.id(), active.appendCopy(source, offset));
+    }
+
+    private long append(byte type, long createdAt, byte[] key, byte[] vin, byte[] payload) {
+        int length = MappedSegment.recordLength(key, vin, payload);
+        if (length > segmentBytes - MappedSegment.HEADER_BYTES) {
+            throw new IllegalArgumentException("Registro de " + length + " bytes não cabe num segmento de " + segmentBytes);
+        }
+        if (!active.hasRoom(length)) {
+            roll();
+        }
+        return location(active.id(), active.append(type, createdAt, key, vin, payload));
+    }
+
+    private void roll() {
+        active.force();
+        active = newSegment();
+    }
+
+    private MappedSegment newSegment() {
+        int id = nextSegmentId++;
+        Path file = directory.resolve(String.format("%010d%s", id, SEGMENT_SUFFIX));
+        try {
+            MappedSegment segment = MappedSegment.create(file, id, segmentBytes, clock.millis());
+            segments.put(id, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar segmento de idempotência " + file, e);
+        }
+    }
+
+    /**
+     * Remove o segmento e as entradas do índice que ainda apontam para ele (respostas expiradas).
+     */
+    private void drop(MappedSegment segment) {
+        List<long[]> stale = new ArrayList<>();
+        index.forEach((keyHash, vinHash, location) -> {
+            if (segmentId(location) == segment.id()) {
+                stale.add(new long[]{keyHash, location});
+            }
+        });
+        stale.forEach(entry -> index.remove(entry[0], entry[1]));
+        segments.remove(segment.id());
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            log.warn("Falha ao apagar segmento de idempotência {}: {}", segment.id(), e.getMessage());
+        }
+    }
+
+    /**
+     * O registro anterior da chave deixa de contar como vivo no seu segmento.
+     */
+    private void release(long location) {
+        if (location != 0) {
+            MappedSegment segment = segment(location);
+            segment.addLive(-segment.recordLength(offset(location)));
+        }
+    }
+
+    private boolean isExpired(long createdAt, long now) {
+        return createdAt + ttlMillis <= now;
+    }
+
+    private MappedSegment segment(long location) {
+        return segments.get(segmentId(location));
+    }
+
+    /**
+     * Posição de um registro: id do segmento nos 32 bits altos e deslocamento no arquivo nos baixos.
+     * Nunca é 0, pois o deslocamento começa depois do cabeçalho.
+     */
+    static long location(int segmentId, int offset) {
+        return ((long) segmentId << 32) | offset;
+    }
+
+    private static int segmentId(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offset(long location) {
+        return (int) location;
+    }
+
+    /**
+     * FNV-1a de 64 bits seguido da finalização do Murmur3 (fmix64), que espalha os bits usados como slot.
+     */
+    static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? NO_PAYLOAD : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private double snapshot(ToDoubleFunction<MappedIdempotencyStore> metric) {
+        lock.readLock().lock();
+        try {
+            return metric.applyAsDouble(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("idempotency.store.lookups")
+                .description("Consultas ao store de idempotência por nível")
+                .tag("tier", "embedded")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,271 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.embedded;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmento do store de idempotência embarcado: arquivo só de acréscimos, mapeado em memória.
+ *
+ * Layout: cabeçalho (magic, versão do formato) seguido dos registros
+ * {@code [tamanho int][crc32c int][tipo byte][createdAt long][chave u16 + bytes][vin u16 + bytes][payload int + bytes]}.
+ * O arquivo é criado com o tamanho do segmento (esparso, zerado) e o tamanho do registro é gravado por
+ * último: tamanho 0 marca o fim, e um registro interrompido por queda fica invisível na recuperação.
+ * Escritas são feitas só pelo segmento ativo e serializadas pelo store; leituras usam acesso absoluto ao buffer.
+ */
+final class MappedSegment {
+
+    static final int MAGIC = 0x56494458; // "VIDX"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 8;
+
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+
+    private static final int CRC = 4;
+    private static final int TYPE = 8;
+    private static final int CREATED_AT = 9;
+    private static final int KEY = 17;
+    // tamanho, crc, tipo, createdAt e os tamanhos da chave, do VIN e do payload
+    private static final int RECORD_OVERHEAD = KEY + 2 + 2 + 4;
+
+    private final int id;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long openedAt;
+    private int writePosition;
+    private long newestCreatedAt;
+    private long liveBytes;
+
+    private MappedSegment(int id, Path path, MappedByteBuffer buffer, long openedAt) {
+        this.id = id;
+        this.path = path;
+        this.buffer = buffer;
+        this.openedAt = openedAt;
+    }
+
+    /**
+     * Cria o arquivo do segmento com {@code sizeBytes} e o mapeia para escrita.
+     */
+    static MappedSegment create(Path path, int id, int sizeBytes, long now) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        MappedSegment segment = new MappedSegment(id, path, buffer, now);
+        segment.writePosition = HEADER_BYTES;
+        return segment;
+    }
+
+    /**
+     * Abre um segmento existente só para leitura, parando no primeiro registro incompleto ou corrompido.
+     */
+    static MappedSegment open(Path path, int id) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Arquivo não é um segmento de idempotência: " + path);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Versão de segmento desconhecida " + buffer.getInt(4) + ": " + path);
+        }
+        MappedSegment segment = new MappedSegment(id, path, buffer, 0);
+        segment.writePosition = segment.recover();
+        return segment;
+    }
+
+    static int recordLength(byte[] key, byte[] vin, byte[] payload) {
+        if (key.length > 0xffff || vin.length > 0xffff) {
+            throw new IllegalArgumentException("Chave ou VIN acima de 65535 bytes");
+        }
+        return RECORD_OVERHEAD + key.length + vin.length + payload.length;
+    }
+
+    boolean hasRoom(int length) {
+        return buffer.limit() - writePosition >= length;
+    }
+
+    /**
+     * @return posição do registro no segmento; o chamador garante espaço com {@link #hasRoom}
+     */
+    int append(byte type, long createdAt, byte[] key, byte[] vin, byte[] payload) {
+        int offset = writePosition;
+        int length = recordLength(key, vin, payload);
+        buffer.put(offset + TYPE, type);
+        buffer.putLong(offset + CREATED_AT, createdAt);
+        int position = offset + KEY;
+        buffer.putShort(position, (short) key.length);
+        buffer.put(position + 2, key);
+        position += 2 + key.length;
+        buffer.putShort(position, (short) vin.length);
+        buffer.put(position + 2, vin);
+        position += 2 + vin.length;
+        buffer.putInt(position, payload.length);
+        buffer.put(position + 4, payload);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + TYPE, length - TYPE));
+        buffer.putInt(offset + CRC, (int) crc.getValue());
+        return commit(offset, length, createdAt);
+    }
+
+    /**
+     * Copia o registro de outro segmento sem decodificá-lo (compactação).
+     */
+    int appendCopy(MappedSegment source, int sourceOffset) {
+        int offset = writePosition;
+        int length = source.recordLength(sourceOffset);
+        buffer.put(offset + CRC, source.buffer, sourceOffset + CRC, length - CRC);
+        return commit(offset, length, source.createdAt(sourceOffset));
+    }
+
+    void forEachRecord(RecordVisitor visitor) {
+        for (int offset = HEADER_BYTES; offset < writePosition; offset += recordLength(offset)) {
+            visitor.visit(offset, type(offset), createdAt(offset));
+        }
+    }
+
+    int recordLength(int offset) {
+        return buffer.getInt(offset);
+    }
+
+    byte type(int offset) {
+        return buffer.get(offset + TYPE);
+    }
+
+    long createdAt(int offset) {
+        return buffer.getLong(offset + CREATED_AT);
+    }
+
+    byte[] key(int offset) {
+        return bytes(offset + KEY);
+    }
+
+    byte[] vin(int offset) {
+        return bytes(vinPosition(offset));
+    }
+
+    byte[] payload(int offset) {
+        int position = vinPosition(offset);
+        position += 2 + (buffer.getShort(position) & 0xffff);
+        byte[] payload = new byte[buffer.getInt(position)];
+        buffer.get(position + 4, payload);
+        return payload;
+    }
+
+    boolean keyEquals(int offset, byte[] key) {
+        return bytesEqual(offset + KEY, key);
+    }
+
+    boolean vinEquals(int offset, byte[] vin) {
+        return bytesEqual(vinPosition(offset), vin);
+    }
+
+    int id() {
+        return id;
+    }
+
+    long openedAt() {
+        return openedAt;
+    }
+
+    long newestCreatedAt() {
+        return newestCreatedAt;
+    }
+
+    /**
+     * Bytes de registros, sem o cabeçalho.
+     */
+    long usedBytes() {
+        return writePosition - HEADER_BYTES;
+    }
+
+    long liveBytes() {
+        return liveBytes;
+    }
+
+    void addLive(long bytes) {
+        liveBytes += bytes;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Apaga o arquivo. Enquanto o mapeamento existir o arquivo não some do disco (ele só é liberado pelo GC),
+     * então antes é truncado: os blocos voltam ao sistema de arquivos na hora. Quem chama garante que nenhuma
+     * leitura do buffer acontece depois daqui (o store apaga segmentos sob o lock de escrita).
+     */
+    void delete() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        Files.deleteIfExists(path);
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(int offset, byte type, long createdAt);
+    }
+
+    private int commit(int offset, int length, long createdAt) {
+        buffer.putInt(offset, length);
+        writePosition += length;
+        liveBytes += length;
+        newestCreatedAt = Math.max(newestCreatedAt, createdAt);
+        return offset;
+    }
+
+    private int recover() {
+        int offset = HEADER_BYTES;
+        while (buffer.limit() - offset >= RECORD_OVERHEAD) {
+            int length = buffer.getInt(offset);
+            if (length < RECORD_OVERHEAD || length > buffer.limit() - offset) {
+                break;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(offset + TYPE, length - TYPE));
+            if ((int) crc.getValue() != buffer.getInt(offset + CRC)) {
+                break;
+            }
+            newestCreatedAt = Math.max(newestCreatedAt, createdAt(offset));
+            offset += length;
+        }
+        return offset;
+    }
+
+    private int vinPosition(int offset) {
+        return offset + KEY + 2 + (buffer.getShort(offset + KEY) & 0xffff);
+    }
+
+    private byte[] bytes(int position) {
+        byte[] bytes = new byte[buffer.getShort(position) & 0xffff];
+        buffer.get(position + 2, bytes);
+        return bytes;
+    }
+
+    private boolean bytesEqual(int position, byte[] expected) {
+        if ((buffer.getShort(position) & 0xffff) != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(position + 2 + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
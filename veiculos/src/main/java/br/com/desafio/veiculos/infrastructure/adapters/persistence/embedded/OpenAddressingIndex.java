@@ -0,0 +1,134 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.embedded;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Índice chave → posição do registro nos segmentos, em endereçamento aberto (sondagem linear).
+ *
+ * Três arrays paralelos de {@code long}, sem objeto por entrada: hash da chave, hash do VIN e posição
+ * ({@link MappedIdempotencyStore#location}). Posição 0 marca slot vazio. Como hashes podem colidir, a
+ * igualdade da chave é confirmada no registro pelo chamador ({@code sameKey}). Remoção por deslocamento
+ * para trás, sem marcadores de removido. Não é thread-safe: o store serializa as alterações.
+ */
+final class OpenAddressingIndex {
+
+    private static final double MAX_LOAD = 0.7;
+
+    private long[] keyHashes;
+    private long[] vinHashes;
+    private long[] locations;
+    private int mask;
+    private int size;
+
+    OpenAddressingIndex(int expectedEntries) {
+        long wanted = Math.max(16, (long) Math.ceil(expectedEntries / MAX_LOAD));
+        allocate((int) Math.min(1 << 30, Long.highestOneBit(wanted - 1) << 1));
+    }
+
+    /**
+     * @return posição do registro da chave, ou 0 se ausente
+     */
+    long get(long keyHash, LongPredicate sameKey) {
+        for (int slot = (int) keyHash & mask; locations[slot] != 0; slot = (slot + 1) & mask) {
+            if (keyHashes[slot] == keyHash && sameKey.test(locations[slot])) {
+                return locations[slot];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return posição anterior da chave, ou 0 se a chave é nova
+     */
+    long put(long keyHash, long vinHash, long location, LongPredicate sameKey) {
+        int slot = (int) keyHash & mask;
+        for (; locations[slot] != 0; slot = (slot + 1) & mask) {
+            if (keyHashes[slot] == keyHash && sameKey.test(locations[slot])) {
+                long previous = locations[slot];
+                vinHashes[slot] = vinHash;
+                locations[slot] = location;
+                return previous;
+            }
+        }
+        keyHashes[slot] = keyHash;
+        vinHashes[slot] = vinHash;
+        locations[slot] = location;
+        if (++size > mask * MAX_LOAD) {
+            allocate(locations.length << 1);
+        }
+        return 0;
+    }
+
+    /**
+     * Remove a entrada que aponta exatamente para {@code location}.
+     */
+    boolean remove(long keyHash, long location) {
+        for (int slot = (int) keyHash & mask; locations[slot] != 0; slot = (slot + 1) & mask) {
+            if (locations[slot] == location) {
+                delete(slot);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void forEach(EntryVisitor visitor) {
+        for (int slot = 0; slot < locations.length; slot++) {
+            if (locations[slot] != 0) {
+                visitor.visit(keyHashes[slot], vinHashes[slot], locations[slot]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long sizeInBytes() {
+        return 3L * Long.BYTES * locations.length;
+    }
+
+    interface EntryVisitor {
+        void visit(long keyHash, long vinHash, long location);
+    }
+
+    private void delete(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; locations[next] != 0; next = (next + 1) & mask) {
+            int home = (int) keyHashes[next] & mask;
+            // A entrada pode ocupar o buraco se ele está entre a posição de origem dela e a atual
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keyHashes[hole] = keyHashes[next];
+                vinHashes[hole] = vinHashes[next];
+                locations[hole] = locations[next];
+                hole = next;
+            }
+        }
+        locations[hole] = 0;
+        size--;
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = keyHashes;
+        long[] oldVins = vinHashes;
+        long[] oldLocations = locations;
+        keyHashes = new long[capacity];
+        vinHashes = new long[capacity];
+        locations = new long[capacity];
+        mask = capacity - 1;
+        if (oldLocations == null) {
+            return;
+        }
+        for (int i = 0; i < oldLocations.length; i++) {
+            if (oldLocations[i] != 0) {
+                int slot = (int) oldKeys[i] & mask;
+                while (locations[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keyHashes[slot] = oldKeys[i];
+                vinHashes[slot] = oldVins[i];
+                locations[slot] = oldLocations[i];
+            }
+        }
+    }
+}
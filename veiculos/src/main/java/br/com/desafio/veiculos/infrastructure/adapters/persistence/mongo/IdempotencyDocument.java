@@ -2,38 +2,131 @@ package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
 
 import br.com.desafio.veiculos.domain.VehicleAnalysis;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
+import java.time.Duration;
 import java.time.Instant;
 
+/**
+ * Resposta gravada sob a chave de idempotência.
+ *
+ * A análise é gravada como payload binário ({@link VehicleAnalysisCodec}), com o VIN ao lado para a
+ * invalidação. Documentos gravados antes, com a análise mapeada campo a campo em {@code response},
+ * continuam legíveis até expirarem pelo TTL.
+ *
+ * Enquanto uma instância consulta os fornecedores, a chave fica reservada: documento sem análise, com
+ * {@code status} IN_PROGRESS, a instância dona e o fim do lease. Gravar a resposta substitui a reserva.
+ */
 @Document(collection = "idempotency_store")
+@CompoundIndex(name = "response_vin", def = "{'response.vin': 1}") // invalidação por VIN (formato anterior)
 public class IdempotencyDocument {
 
+    static final String IN_PROGRESS = "IN_PROGRESS";
+
     @Id
     private String id; // Idempotency-Key
 
+    @Indexed // invalidação por VIN
+    private String vin;
+
+    private byte[] payload;
+
     private VehicleAnalysis response;
 
+    private String status;
+
+    private String owner;
+
+    private Instant leaseUntil;
+
     @Indexed(expireAfterSeconds = 86400) // 24 horas
     private Instant createdAt;
 
+    /**
+     * Documento no formato anterior, com a análise mapeada campo a campo pelo Spring Data.
+     */
     public IdempotencyDocument(String id, VehicleAnalysis response) {
+        this(id, response.vin(), null, response, Instant.now());
+    }
+
+    @PersistenceCreator
+    IdempotencyDocument(String id, String vin, byte[] payload, VehicleAnalysis response, Instant createdAt) {
         this.id = id;
+        this.vin = vin;
+        this.payload = payload;
         this.response = response;
-        this.createdAt = Instant.now();
+        this.createdAt = createdAt;
+    }
+
+    public static IdempotencyDocument encoded(String id, VehicleAnalysis response, VehicleAnalysisCodec codec) {
+        return new IdempotencyDocument(id, response.vin(), codec.encode(response), null, Instant.now());
+    }
+
+    /**
+     * A análise gravada, seja qual for o formato do documento; {@code null} enquanto a chave estiver reservada.
+     */
+    public VehicleAnalysis decode(VehicleAnalysisCodec codec) {
+        return payload != null ? codec.decode(payload) : response;
+    }
+
+    /**
+     * Chave livre, com lease vencido ou já reservada por {@code owner}: outra requisição da mesma instância
+     * reentra na reserva e se junta à análise local em andamento em vez de aguardar a si mesma. Chave com
+     * resposta gravada ou reserva válida de outra instância não casa e, no upsert, provoca erro de chave
+     * duplicada no {@code _id}.
+     */
+    static Query claimable(String id, String owner, Instant now) {
+        return Query.query(Criteria.where("_id").is(id).and("status").is(IN_PROGRESS)
+                .orOperator(Criteria.where("leaseUntil").lt(now), Criteria.where("owner").is(owner)));
+    }
+
+    static Update claim(String owner, Instant now, Duration lease) {
+        return new Update()
+                .set("status", IN_PROGRESS)
+                .set("owner", owner)
+                .set("leaseUntil", now.plus(lease))
+                .set("createdAt", now); // reserva abandonada também expira pelo TTL
+    }
+
+    static Query claimedBy(String id, String owner) {
+        return Query.query(Criteria.where("_id").is(id).and("status").is(IN_PROGRESS).and("owner").is(owner));
     }
 
     public String getId() {
         return id;
     }
 
+    public String getVin() {
+        return vin;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
     public VehicleAnalysis getResponse() {
         return response;
     }
 
+    public String getStatus() {
+        return status;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
 }
-
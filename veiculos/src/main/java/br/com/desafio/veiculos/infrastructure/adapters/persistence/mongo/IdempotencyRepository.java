@@ -5,5 +5,8 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface IdempotencyRepository extends MongoRepository<IdempotencyDocument, String> {
+
+    // Documentos no formato anterior só têm o VIN dentro de response
+    long deleteByVinOrResponseVin(String vin, String responseVin);
 }
 
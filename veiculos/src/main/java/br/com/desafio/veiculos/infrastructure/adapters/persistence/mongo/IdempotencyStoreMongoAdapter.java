@@ -2,28 +2,125 @@ package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
 
 import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
 import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Store de idempotência no MongoDB.
+ *
+ * Com {@code idempotency.mongo.write-buffer.enabled}, as respostas não são gravadas uma a uma: ficam num
+ * buffer ({@link IdempotencyWriteBuffer}) e seguem em upserts em lote não ordenados, a cada
+ * {@code flush-interval} ou quando o lote enche. Pendentes continuam visíveis nas leituras desta instância.
+ * Buffer cheio segura o chamador por até {@code enqueue-timeout}; depois disso o próprio chamador grava
+ * o documento, sem perda. No desligamento o buffer é esvaziado e as gravações seguintes são feitas na hora.
+ *
+ * Métricas do buffer: idempotency.store.write.buffered, idempotency.store.write.batch.size,
+ * idempotency.store.write.batch.latency, idempotency.store.write.overflow e idempotency.store.write.failures.
+ */
 @Component
+@Profile("!embedded")
 public class IdempotencyStoreMongoAdapter implements IdempotencyStorePort {
 
     private static final Logger log = LoggerFactory.getLogger(IdempotencyStoreMongoAdapter.class);
     
     private final IdempotencyRepository repository;
+    private final VehicleAnalysisCodec codec;
+    private final MongoTemplate mongoTemplate;
+    // Dona das reservas feitas por esta instância
+    private final String nodeId = UUID.randomUUID().toString();
 
-    public IdempotencyStoreMongoAdapter(IdempotencyRepository repository) {
+    // null com o buffer desabilitado: cada resposta é gravada na hora
+    private final IdempotencyWriteBuffer writeBuffer;
+    private final ScheduledExecutorService flusher;
+    private final Duration enqueueTimeout;
+
+    private final DistributionSummary batchSize;
+    private final Timer batchLatency;
+    private final Counter overflows;
+    private final Counter failures;
+
+    public IdempotencyStoreMongoAdapter(
+            IdempotencyRepository repository,
+            VehicleAnalysisCodec codec,
+            MongoTemplate mongoTemplate,
+            @Value("${idempotency.mongo.write-buffer.enabled:false}") boolean bufferWrites,
+            @Value("${idempotency.mongo.write-buffer.capacity:10000}") int capacity,
+            @Value("${idempotency.mongo.write-buffer.max-batch-size:500}") int maxBatchSize,
+            @Value("${idempotency.mongo.write-buffer.flush-interval:50ms}") Duration flushInterval,
+            @Value("${idempotency.mongo.write-buffer.enqueue-timeout:100ms}") Duration enqueueTimeout,
+            MeterRegistry meterRegistry) {
         this.repository = repository;
+        this.codec = codec;
+        this.mongoTemplate = mongoTemplate;
+        this.enqueueTimeout = enqueueTimeout;
+
+        this.batchSize = DistributionSummary.builder("idempotency.store.write.batch.size")
+                .description("Documentos de idempotência por gravação em lote")
+                .register(meterRegistry);
+        this.batchLatency = Timer.builder("idempotency.store.write.batch.latency")
+                .description("Latência das gravações em lote de idempotência")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.overflows = Counter.builder("idempotency.store.write.overflow")
+                .description("Gravações feitas pelo chamador com o buffer de idempotência cheio")
+                .register(meterRegistry);
+        this.failures = Counter.builder("idempotency.store.write.failures")
+                .description("Documentos de idempotência que falharam na gravação em lote")
+                .register(meterRegistry);
+
+        if (!bufferWrites) {
+            this.writeBuffer = null;
+            this.flusher = null;
+            return;
+        }
+        this.writeBuffer = new IdempotencyWriteBuffer(capacity, maxBatchSize, this::writeBatch);
+        Gauge.builder("idempotency.store.write.buffered", writeBuffer, IdempotencyWriteBuffer::pendingCount)
+                .description("Documentos de idempotência aguardando a próxima gravação em lote")
+                .register(meterRegistry);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-write-buffer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Buffer de gravações de idempotência: capacidade={}, lote={}, intervalo={}",
+                capacity, maxBatchSize, flushInterval);
     }
 
     @Override
     public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
         try {
-            return repository.findById(idempotencyKey)
-                             .map(IdempotencyDocument::getResponse);
+            Optional<IdempotencyDocument> pending = writeBuffer != null ? writeBuffer.pending(idempotencyKey) : Optional.empty();
+            return pending.or(() -> repository.findById(idempotencyKey))
+                          .map(document -> document.decode(codec));
         } catch (Exception e) {
             log.error("Erro ao buscar chave de idempotência no MongoDB: {}", idempotencyKey, e);
             return Optional.empty();
@@ -33,11 +130,127 @@ public class IdempotencyStoreMongoAdapter implements IdempotencyStorePort {
     @Override
     public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
         try {
-            IdempotencyDocument document = new IdempotencyDocument(idempotencyKey, response);
-            repository.save(document);
+            IdempotencyDocument document = IdempotencyDocument.encoded(idempotencyKey, response, codec);
+            if (writeBuffer == null) {
+                repository.save(document);
+            } else {
+                buffer(document);
+            }
         } catch (Exception e) {
             log.error("Erro ao salvar resposta de idempotência no MongoDB: {}", idempotencyKey, e);
         }
     }
+
+    private void buffer(IdempotencyDocument document) {
+        if (!writeBuffer.add(document, enqueueTimeout)) {
+            if (!writeBuffer.isClosed()) {
+                overflows.increment();
+            }
+            return;
+        }
+        if (writeBuffer.hasFullBatch()) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // Encerrando: o drain já esvaziou o buffer
+            }
+        }
+    }
+
+    /**
+     * Upserts não ordenados: uma falha não impede a gravação dos demais documentos do lote.
+     */
+    private void writeBatch(List<IdempotencyDocument> documents) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, IdempotencyDocument.class);
+        for (IdempotencyDocument document : documents) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(document.getId())), document,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        long start = System.nanoTime();
+        try {
+            bulk.execute();
+            batchSize.record(documents.size());
+        } catch (BulkOperationException e) {
+            failures.increment(e.getErrors().size());
+            log.error("{} de {} gravações de idempotência falharam no lote: {}",
+                    e.getErrors().size(), documents.size(), e.getMessage());
+        } catch (Exception e) {
+            failures.increment(documents.size());
+            log.error("Erro ao gravar lote de {} respostas de idempotência no MongoDB", documents.size(), e);
+        } finally {
+            batchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            writeBuffer.flush();
+        } catch (Exception e) {
+            log.error("Erro ao esvaziar o buffer de gravações de idempotência", e);
+        }
+    }
+
+    /**
+     * Grava o que estiver no buffer antes de encerrar; gravações que chegarem depois são feitas pelo chamador.
+     */
+    @PreDestroy
+    void drain() {
+        if (writeBuffer == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writeBuffer.close();
+        } catch (Exception e) {
+            log.error("Erro ao esvaziar o buffer de gravações de idempotência", e);
+        }
+        if (writeBuffer.pendingCount() > 0) {
+            log.warn("Encerrando com {} gravações de idempotência não persistidas", writeBuffer.pendingCount());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> claim(String idempotencyKey, Duration lease) {
+        Instant now = Instant.now();
+        try {
+            mongoTemplate.upsert(IdempotencyDocument.claimable(idempotencyKey, nodeId, now),
+                    IdempotencyDocument.claim(nodeId, now, lease), IdempotencyDocument.class);
+            return CompletableFuture.completedFuture(true);
+        } catch (DuplicateKeyException e) {
+            return CompletableFuture.completedFuture(false);
+        } catch (Exception e) {
+            log.error("Erro ao reservar chave de idempotência no MongoDB: {}", idempotencyKey, e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void releaseClaim(String idempotencyKey) {
+        try {
+            mongoTemplate.remove(IdempotencyDocument.claimedBy(idempotencyKey, nodeId), IdempotencyDocument.class);
+        } catch (Exception e) {
+            log.error("Erro ao liberar reserva de idempotência no MongoDB: {}", idempotencyKey, e);
+        }
+    }
+
+    @Override
+    public void removeByVin(String vin) {
+        try {
+            if (writeBuffer != null) {
+                writeBuffer.discardVin(vin);
+            }
+            long removed = repository.deleteByVinOrResponseVin(vin, vin);
+            log.info("Respostas de idempotência removidas para o VIN {}: {}", vin, removed);
+        } catch (Exception e) {
+            log.error("Erro ao remover respostas de idempotência do VIN {} no MongoDB", vin, e);
+        }
+    }
 }
 
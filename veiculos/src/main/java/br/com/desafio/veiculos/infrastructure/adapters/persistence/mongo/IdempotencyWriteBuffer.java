@@ -0,0 +1,146 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Buffer de gravações de idempotência, enviadas ao MongoDB em lotes.
+ *
+ * Os documentos aguardam numa fila limitada; cada envio leva até {@code maxBatchSize} documentos.
+ * Enquanto não são enviados, continuam visíveis para leitura ({@link #pending}). Um documento substituído
+ * por outro mais novo da mesma chave, ou descartado por invalidação do VIN, não é enviado.
+ */
+final class IdempotencyWriteBuffer {
+
+    private final BlockingQueue<IdempotencyDocument> queue;
+    // Versão mais recente de cada chave ainda não enviada
+    private final Map<String, IdempotencyDocument> unflushed = new ConcurrentHashMap<>();
+    private final int maxBatchSize;
+    private final Consumer<List<IdempotencyDocument>> sink;
+    private volatile boolean closed;
+
+    IdempotencyWriteBuffer(int capacity, int maxBatchSize, Consumer<List<IdempotencyDocument>> sink) {
+        if (capacity < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Capacidade e tamanho do lote devem ser positivos: " + capacity + ", " + maxBatchSize);
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.sink = sink;
+    }
+
+    /**
+     * Enfileira o documento, aguardando vaga por até {@code maxWait} com o buffer cheio. Se o buffer continuar
+     * cheio, ou já estiver encerrado ({@link #close}), o próprio chamador grava o documento sob o mesmo monitor
+     * dos lotes: uma invalidação do VIN anterior à gravação a cancela, e uma posterior aguarda o fim dela.
+     *
+     * @return {@code true} se o documento foi enfileirado; {@code false} se foi gravado (ou descartado) na hora
+     */
+    boolean add(IdempotencyDocument document, Duration maxWait) {
+        unflushed.put(document.getId(), document);
+        if (!closed) {
+            try {
+                if (queue.offer(document, maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                    if (closed) {
+                        flush(); // encerrado durante a espera: ninguém mais esvazia a fila
+                    }
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writeNow(document);
+        return false;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    boolean hasFullBatch() {
+        return queue.size() >= maxBatchSize;
+    }
+
+    int pendingCount() {
+        return queue.size();
+    }
+
+    Optional<IdempotencyDocument> pending(String id) {
+        return Optional.ofNullable(unflushed.get(id));
+    }
+
+    /**
+     * Descarta as gravações pendentes do VIN. Aguarda um envio em andamento, para que nada do VIN
+     * chegue ao MongoDB depois da invalidação.
+     *
+     * @return quantidade de documentos descartados
+     */
+    synchronized int discardVin(String vin) {
+        int discarded = 0;
+        for (Iterator<IdempotencyDocument> iterator = unflushed.values().iterator(); iterator.hasNext(); ) {
+            if (vin.equals(iterator.next().getVin())) {
+                iterator.remove();
+                discarded++;
+            }
+        }
+        return discarded;
+    }
+
+    /**
+     * Envia o que estiver pendente e encerra o buffer: daqui em diante cada documento é gravado pelo chamador.
+     *
+     * @return quantidade de lotes enviados
+     */
+    synchronized int close() {
+        closed = true;
+        return flush();
+    }
+
+    /**
+     * Envia tudo o que estiver pendente, em lotes de até {@code maxBatchSize} documentos.
+     * Documentos enfileirados durante o envio seguem no próximo.
+     *
+     * @return quantidade de lotes enviados
+     */
+    synchronized int flush() {
+        int batches = 0;
+        List<IdempotencyDocument> drained = new ArrayList<>(maxBatchSize);
+        while (queue.drainTo(drained, maxBatchSize) > 0) {
+            List<IdempotencyDocument> batch = drained.stream()
+                    .filter(document -> unflushed.get(document.getId()) == document)
+                    .toList();
+            drained.clear();
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                sink.accept(batch);
+                batches++;
+            } finally {
+                batch.forEach(document -> unflushed.remove(document.getId(), document));
+            }
+        }
+        return batches;
+    }
+
+    private synchronized void writeNow(IdempotencyDocument document) {
+        // Substituído por uma versão mais nova da chave ou descartado por invalidação durante a espera
+        if (unflushed.get(document.getId()) != document) {
+            return;
+        }
+        try {
+            sink.accept(List.of(document));
+        } finally {
+            unflushed.remove(document.getId(), document);
+        }
+    }
+}
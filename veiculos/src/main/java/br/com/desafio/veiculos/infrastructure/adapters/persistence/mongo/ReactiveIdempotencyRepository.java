@@ -0,0 +1,11 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveIdempotencyRepository extends ReactiveMongoRepository<IdempotencyDocument, String> {
+
+    Mono<Long> deleteByVinOrResponseVin(String vin, String responseVin);
+}
@@ -0,0 +1,160 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
+
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Store de idempotência no MongoDB pelo driver reativo: as idas ao banco não ocupam a thread da
+ * requisição nem as do executor de análise.
+ *
+ * Leitura: {@link #getResponseAsync} devolve um futuro concluído pela thread do driver; erro ou
+ * {@code idempotency.reactive.timeout} estourado equivalem a chave ausente. Escrita: disparada sem
+ * aguardar a confirmação, com no máximo {@code idempotency.reactive.max-inflight-writes} gravações em
+ * andamento. Sem vaga a gravação é descartada (a próxima requisição para a chave consulta os fornecedores
+ * de novo), para um MongoDB lento não acumular gravações pendentes em memória.
+ *
+ * Métricas: idempotency.store.write.inflight e idempotency.store.write.dropped.
+ */
+@Component
+@Primary
+@Profile("!embedded")
+@ConditionalOnProperty(name = "idempotency.store.type", havingValue = "reactive")
+public class ReactiveIdempotencyStoreMongoAdapter implements IdempotencyStorePort {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveIdempotencyStoreMongoAdapter.class);
+
+    private final ReactiveIdempotencyRepository repository;
+    private final VehicleAnalysisCodec codec;
+    private final ReactiveMongoTemplate mongoTemplate;
+    // Dona das reservas feitas por esta instância
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Duration timeout;
+    private final int maxInFlightWrites;
+    private final Semaphore writePermits;
+    private final Counter droppedWrites;
+
+    public ReactiveIdempotencyStoreMongoAdapter(
+            ReactiveIdempotencyRepository repository,
+            VehicleAnalysisCodec codec,
+            ReactiveMongoTemplate mongoTemplate,
+            @Value("${idempotency.reactive.timeout:500ms}") Duration timeout,
+            @Value("${idempotency.reactive.max-inflight-writes:256}") int maxInFlightWrites,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.codec = codec;
+        this.mongoTemplate = mongoTemplate;
+        this.timeout = timeout;
+        this.maxInFlightWrites = maxInFlightWrites;
+        this.writePermits = new Semaphore(maxInFlightWrites);
+
+        this.droppedWrites = Counter.builder("idempotency.store.write.dropped")
+                .description("Gravações de idempotência descartadas por excesso de gravações em andamento")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.store.write.inflight", this, ReactiveIdempotencyStoreMongoAdapter::inFlightWrites)
+                .description("Gravações de idempotência enviadas ao MongoDB aguardando confirmação")
+                .register(meterRegistry);
+
+        log.info("Store de idempotência reativo: timeout={}, gravações simultâneas={}", timeout, maxInFlightWrites);
+    }
+
+    @Override
+    public CompletableFuture<Optional<VehicleAnalysis>> getResponseAsync(String idempotencyKey) {
+        return repository.findById(idempotencyKey)
+                .mapNotNull(document -> document.decode(codec))
+                .timeout(timeout)
+                .toFuture()
+                .thenApply(Optional::ofNullable)
+                .exceptionally(error -> {
+                    log.error("Erro ao buscar chave de idempotência no MongoDB: {}", idempotencyKey, error);
+                    return Optional.empty();
+                });
+    }
+
+    /**
+     * Versão bloqueante, para chamadores fora do caminho da requisição (ex: aquecimento de cache).
+     */
+    @Override
+    public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
+        return getResponseAsync(idempotencyKey).join();
+    }
+
+    @Override
+    public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
+        IdempotencyDocument document;
+        try {
+            document = IdempotencyDocument.encoded(idempotencyKey, response, codec);
+        } catch (RuntimeException e) {
+            log.error("Erro ao codificar resposta de idempotência: {}", idempotencyKey, e);
+            return;
+        }
+        if (!writePermits.tryAcquire()) {
+            droppedWrites.increment();
+            log.warn("Gravação de idempotência descartada, {} gravações em andamento: {}", maxInFlightWrites, idempotencyKey);
+            return;
+        }
+        repository.save(document)
+                .timeout(timeout)
+                .doFinally(signal -> writePermits.release())
+                .subscribe(
+                        saved -> { },
+                        error -> log.error("Erro ao salvar resposta de idempotência no MongoDB: {}", idempotencyKey, error));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> claim(String idempotencyKey, Duration lease) {
+        Instant now = Instant.now();
+        return mongoTemplate.upsert(IdempotencyDocument.claimable(idempotencyKey, nodeId, now),
+                        IdempotencyDocument.claim(nodeId, now, lease), IdempotencyDocument.class)
+                .map(result -> true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false))
+                .timeout(timeout)
+                .doOnError(error -> log.error("Erro ao reservar chave de idempotência no MongoDB: {}", idempotencyKey, error))
+                .toFuture();
+    }
+
+    @Override
+    public void releaseClaim(String idempotencyKey) {
+        mongoTemplate.remove(IdempotencyDocument.claimedBy(idempotencyKey, nodeId), IdempotencyDocument.class)
+                .timeout(timeout)
+                .subscribe(
+                        result -> { },
+                        error -> log.error("Erro ao liberar reserva de idempotência no MongoDB: {}", idempotencyKey, error));
+    }
+
+    /**
+     * Aguarda a remoção: a invalidação só é publicada às outras instâncias depois que o MongoDB não tem mais a resposta.
+     */
+    @Override
+    public void removeByVin(String vin) {
+        try {
+            Long removed = repository.deleteByVinOrResponseVin(vin, vin).block(timeout);
+            log.info("Respostas de idempotência removidas para o VIN {}: {}", vin, removed);
+        } catch (Exception e) {
+            log.error("Erro ao remover respostas de idempotência do VIN {} no MongoDB", vin, e);
+        }
+    }
+
+    private int inFlightWrites() {
+        return maxInFlightWrites - writePermits.availablePermits();
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Driver reativo do MongoDB, criado só com {@code idempotency.store.type=reactive}.
+ *
+ * As autoconfigurações reativas do Spring Boot ficam excluídas em application.properties: sem isso
+ * toda instância abriria um segundo MongoClient (e o seu pool de conexões) mesmo usando o store
+ * bloqueante. O cliente usa o mesmo {@code spring.data.mongodb.uri} e o mesmo conversor do
+ * {@link org.springframework.data.mongodb.core.MongoTemplate}.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("!embedded")
+@ConditionalOnProperty(name = "idempotency.store.type", havingValue = "reactive")
+@EnableReactiveMongoRepositories(basePackageClasses = ReactiveIdempotencyRepository.class)
+public class ReactiveMongoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveMongoConfiguration.class);
+
+    @Bean(destroyMethod = "close")
+    public MongoClient reactiveMongoClient(MongoProperties properties) {
+        log.info("Driver reativo do MongoDB habilitado para o store de idempotência");
+        return MongoClients.create(properties.determineUri());
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient, MongoProperties properties,
+                                                       MongoConverter mongoConverter) {
+        return new ReactiveMongoTemplate(
+                new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient, properties.getMongoClientDatabase()),
+                mongoConverter);
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Análise codificada em Smile (JSON binário do Jackson), precedida do byte de versão.
+ *
+ * Nomes de campo e valores repetidos (status dos fornecedores, descrições de infração) são gravados
+ * uma vez e referenciados nas ocorrências seguintes. A atualidade ({@code freshness}) não é gravada:
+ * é recalculada a partir de {@code analyzedAt} a cada resposta.
+ */
+@Component
+public class SmileVehicleAnalysisCodec implements VehicleAnalysisCodec {
+
+    static final byte VERSION = 1;
+
+    private final ObjectMapper mapper;
+
+    public SmileVehicleAnalysisCodec() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        this.mapper = SmileMapper.builder(factory)
+                .addModule(new JavaTimeModule())
+                .addMixIn(VehicleAnalysis.class, StoredVehicleAnalysis.class)
+                // Campos novos gravados por uma versão mais recente não impedem a leitura
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    @Override
+    public byte[] encode(VehicleAnalysis analysis) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        out.write(VERSION);
+        try {
+            mapper.writeValue(out, analysis);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao codificar análise do VIN " + analysis.vin(), e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public VehicleAnalysis decode(byte[] payload) {
+        if (payload == null || payload.length < 2) {
+            throw new IllegalArgumentException("Payload de análise vazio");
+        }
+        if (payload[0] != VERSION) {
+            throw new IllegalArgumentException("Versão de payload de análise desconhecida: " + payload[0]);
+        }
+        try {
+            return mapper.readValue(payload, 1, payload.length - 1, VehicleAnalysis.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Payload de análise inválido", e);
+        }
+    }
+
+    @JsonIgnoreProperties({"freshness"})
+    private interface StoredVehicleAnalysis {
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+
+/**
+ * Codificação da análise gravada no store de idempotência como payload binário.
+ *
+ * O primeiro byte do payload identifica formato e versão do esquema: um payload gravado por uma versão
+ * anterior continua legível, ou é recusado com {@link IllegalArgumentException} (tratado como chave ausente).
+ */
+public interface VehicleAnalysisCodec {
+
+    byte[] encode(VehicleAnalysis analysis);
+
+    VehicleAnalysis decode(byte[] payload);
+}
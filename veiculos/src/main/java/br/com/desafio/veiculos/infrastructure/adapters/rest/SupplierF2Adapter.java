@@ -1,10 +1,15 @@
 package br.com.desafio.veiculos.infrastructure.adapters.rest;
 
 import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import br.com.desafio.veiculos.domain.Deadline;
 import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.f1.F1ResponseData;
 import br.com.desafio.veiculos.domain.f2.F2ResponseData;
 import br.com.desafio.veiculos.infrastructure.adapters.rest.client.SupplierF2Client;
 import br.com.desafio.veiculos.infrastructure.config.ResilienceConfiguration;
+import br.com.desafio.veiculos.infrastructure.resilience.DeadlineAwareResilience;
+import feign.FeignException;
+import feign.Request;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -12,8 +17,12 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 @Component("supplierF2Adapter")
@@ -24,10 +33,20 @@ public class SupplierF2Adapter implements SupplierPort {
 
     private final SupplierF2Client f2Client;
     private final MeterRegistry meterRegistry;
+    private final DeadlineAwareResilience resilience;
+    private final long connectTimeoutMs;
+    private final long readTimeoutMs;
 
-    public SupplierF2Adapter(SupplierF2Client f2Client, MeterRegistry meterRegistry) {
+    public SupplierF2Adapter(SupplierF2Client f2Client,
+                             MeterRegistry meterRegistry,
+                             DeadlineAwareResilience resilience,
+                             @Value("${spring.cloud.openfeign.client.config.default.connect-timeout:350}") long connectTimeoutMs,
+                             @Value("${spring.cloud.openfeign.client.config.default.read-timeout:350}") long readTimeoutMs) {
         this.f2Client = f2Client;
         this.meterRegistry = meterRegistry;
+        this.resilience = resilience;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
     }
 
     @Override
@@ -35,16 +54,35 @@ public class SupplierF2Adapter implements SupplierPort {
     @Retry(name = SUPPLIER_NAME, fallbackMethod = "fallback")
     @Bulkhead(name = SUPPLIER_NAME, fallbackMethod = "fallback")
     public SupplierResult<Object> fetchData(String vin) {
+        return doFetch(vin, Deadline.none());
+    }
+
+    @Override
+    public SupplierResult<Object> fetchData(String vin, Deadline deadline) {
+        return resilience.execute(SUPPLIER_NAME, false, deadline, ResilienceConfiguration.F2_TIMEOUT,
+                () -> doFetch(vin, deadline),
+                e -> e instanceof TimeoutException timeout ? fallback(vin, timeout) : fallback(vin, e));
+    }
+
+    private SupplierResult<Object> doFetch(String vin, Deadline deadline) {
         Timer.Sample sample = Timer.start(meterRegistry);
         long start = System.nanoTime();
         
         try {
-            F2ResponseData response = f2Client.getVehicleData(vin);
+            F2ResponseData response = deadline.isBounded()
+                    ? f2Client.getVehicleData(vin, requestOptions(deadline))
+                    : f2Client.getVehicleData(vin);
             long latencyMs = (System.nanoTime() - start) / 1_000_000;
             
             sample.stop(meterRegistry.timer("supplier.latency", "supplier", SUPPLIER_NAME, "status", "success"));
             return SupplierResult.success(SUPPLIER_NAME, latencyMs, response);
 
+        } catch (FeignException.NotFound e) {
+            // 404: o fornecedor não conhece o VIN - resposta válida, não é falha (sem retry nem circuit breaker)
+            long latencyMs = (System.nanoTime() - start) / 1_000_000;
+            sample.stop(meterRegistry.timer("supplier.latency", "supplier", SUPPLIER_NAME, "status", "not_found"));
+            return SupplierResult.notFound(SUPPLIER_NAME, latencyMs);
+
         } catch (Exception e) {
             log.warn("Falha ao consultar F2 para o VIN: {}", vin, e);
             throw new RuntimeException(e);
@@ -66,9 +104,31 @@ public class SupplierF2Adapter implements SupplierPort {
         return SupplierResult.failure(SUPPLIER_NAME, 0, e.getMessage());
     }
 
+    /**
+     * Timeouts da chamada HTTP limitados ao tempo restante da análise.
+     */
+    private Request.Options requestOptions(Deadline deadline) {
+        long budgetMs = Math.max(1, Math.min(readTimeoutMs, deadline.remaining().toMillis()));
+        return new Request.Options(Math.min(connectTimeoutMs, budgetMs), TimeUnit.MILLISECONDS,
+                budgetMs, TimeUnit.MILLISECONDS, true);
+    }
+
     @Override
     public String getSupplierName() {
         return SUPPLIER_NAME;
     }
+
+    @Override
+    public Set<String> dependsOn() {
+        return Set.of("F1");
+    }
+
+    /**
+     * F2 (detalhe de RENAJUD/recall) só é consultado quando F1 indica restrição.
+     */
+    @Override
+    public boolean shouldActivate(Map<String, SupplierResult<?>> dependencies) {
+        return dependencies.get("F1").data() instanceof F1ResponseData f1Data && f1Data.hasConstraints();
+    }
 }
 
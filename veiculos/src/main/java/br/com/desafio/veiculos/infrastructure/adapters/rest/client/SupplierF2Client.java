@@ -1,6 +1,7 @@
 package br.com.desafio.veiculos.infrastructure.adapters.rest.client;
 
 import br.com.desafio.veiculos.domain.f2.F2ResponseData;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,4 +11,10 @@ public interface SupplierF2Client {
 
     @GetMapping("/vehicle/{vin}")
     F2ResponseData getVehicleData(@PathVariable("vin") String vin);
+
+    /**
+     * Mesma consulta com timeouts definidos por chamada (prazo restante da análise).
+     */
+    @GetMapping("/vehicle/{vin}")
+    F2ResponseData getVehicleData(@PathVariable("vin") String vin, Request.Options options);
 }
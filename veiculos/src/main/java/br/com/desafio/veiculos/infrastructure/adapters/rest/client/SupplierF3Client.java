@@ -1,6 +1,7 @@
 package br.com.desafio.veiculos.infrastructure.adapters.rest.client;
 
 import br.com.desafio.veiculos.domain.f3.F3ResponseData;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,5 +11,11 @@ public interface SupplierF3Client {
 
     @GetMapping("/infractions/{vin}")
     F3ResponseData getInfractions(@PathVariable("vin") String vin);
+
+    /**
+     * Mesma consulta com timeouts definidos por chamada (prazo restante da análise).
+     */
+    @GetMapping("/infractions/{vin}")
+    F3ResponseData getInfractions(@PathVariable("vin") String vin, Request.Options options);
 }
 
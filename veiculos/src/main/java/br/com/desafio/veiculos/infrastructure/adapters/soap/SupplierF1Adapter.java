@@ -2,11 +2,14 @@ package br.com.desafio.veiculos.infrastructure.adapters.soap;
 
 import br.com.desafio.veiculos.application.port.out.SupplierPort;
 import br.com.desafio.veiculos.domain.Constraints;
+import br.com.desafio.veiculos.domain.Deadline;
 import br.com.desafio.veiculos.domain.SupplierResult;
 import br.com.desafio.veiculos.domain.f1.F1ResponseData;
 import br.com.desafio.veiculos.infrastructure.config.ResilienceConfiguration;
+import br.com.desafio.veiculos.infrastructure.resilience.DeadlineAwareResilience;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -28,13 +31,16 @@ public class SupplierF1Adapter implements SupplierPort {
     private final WebServiceTemplate webServiceTemplate;
     private final MeterRegistry meterRegistry;
     private final String f1Url;
+    private final DeadlineAwareResilience resilience;
 
     public SupplierF1Adapter(WebServiceTemplate webServiceTemplate, 
                              MeterRegistry meterRegistry,
-                             @Value("${suppliers.f1.url}") String f1Url) {
+                             @Value("${suppliers.f1.url}") String f1Url,
+                             DeadlineAwareResilience resilience) {
         this.webServiceTemplate = webServiceTemplate;
         this.meterRegistry = meterRegistry;
         this.f1Url = f1Url;
+        this.resilience = resilience;
     }
 
     @Override
@@ -43,6 +49,23 @@ public class SupplierF1Adapter implements SupplierPort {
     @Retry(name = SUPPLIER_NAME, fallbackMethod = "fallback")
     @Bulkhead(name = SUPPLIER_NAME, fallbackMethod = "fallback")
     public SupplierResult<Object> fetchData(String vin) {
+        return doFetch(vin);
+    }
+
+    @Override
+    public SupplierResult<Object> fetchData(String vin, Deadline deadline) {
+        // O timeout de leitura do WebServiceTemplate é fixo (350ms); o prazo limita tentativas e esperas
+        return resilience.execute(SUPPLIER_NAME, true, deadline, ResilienceConfiguration.DEFAULT_TIMEOUT,
+                () -> doFetch(vin),
+                e -> {
+                    if (e instanceof TimeoutException timeout) {
+                        return fallback(vin, timeout);
+                    }
+                    return e instanceof RequestNotPermitted ? fallbackRateLimiter(vin, e) : fallback(vin, e);
+                });
+    }
+
+    private SupplierResult<Object> doFetch(String vin) {
         Timer.Sample sample = Timer.start(meterRegistry);
         long start = System.nanoTime();
         
@@ -53,6 +76,13 @@ public class SupplierF1Adapter implements SupplierPort {
             // 2. Enviar e receber (WebServiceTemplate)
             // Em produção, isso seria um objeto JAX-B complexo
             Object response = webServiceTemplate.marshalSendAndReceive(f1Url, request);
+
+            // Resposta sem payload: o fornecedor não conhece o VIN
+            if (response == null) {
+                long latencyMs = (System.nanoTime() - start) / 1_000_000;
+                sample.stop(meterRegistry.timer("supplier.latency", "supplier", SUPPLIER_NAME, "status", "not_found"));
+                return SupplierResult.notFound(SUPPLIER_NAME, latencyMs);
+            }
             
             // 3. Mapear a resposta (JAX-B -> Domain)
             F1ResponseData mappedResponse = mapSoapResponse(response, vin);
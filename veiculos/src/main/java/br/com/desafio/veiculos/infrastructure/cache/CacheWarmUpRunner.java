@@ -0,0 +1,155 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import br.com.desafio.veiculos.application.port.out.AnalysisLogReaderPort;
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.infrastructure.config.IdempotencyKeyGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aquecimento do cache de idempotência na inicialização, a partir do tópico {@code vehicle_analysis_log}.
+ *
+ * Relê os logs de análise de {@code analysis.warmup.lookback} para trás, ordena os identificadores
+ * pela frequência de consulta e, do mais consultado para o menos, busca a análise já gravada no store
+ * de idempotência. Com o store em dois níveis ({@code idempotency.store.type=tiered}) a busca traz a
+ * resposta do MongoDB para o cache local, e as primeiras requisições após o deploy não vão à rede nem
+ * aos fornecedores. Nenhum fornecedor é chamado durante o aquecimento.
+ *
+ * Como roda como {@link ApplicationRunner}, o readiness só passa a UP depois que o aquecimento termina;
+ * o tempo total é limitado por {@code analysis.warmup.time-budget} e a quantidade por
+ * {@code analysis.warmup.max-records} (logs lidos) e {@code analysis.warmup.max-entries} (chaves aquecidas).
+ * Falha na leitura do Kafka não impede a subida: a aplicação inicia com o cache frio.
+ */
+@Component
+@ConditionalOnProperty(name = "analysis.warmup.enabled", havingValue = "true")
+public class CacheWarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmUpRunner.class);
+
+    private final AnalysisLogReaderPort logReader;
+    private final IdempotencyStorePort idempotencyStore;
+    private final IdempotencyKeyGenerator keyGenerator;
+    private final Duration lookback;
+    private final int maxRecords;
+    private final int maxEntries;
+    private final Duration timeBudget;
+    private final Clock clock;
+
+    private final Counter recordsRead;
+    private final Counter entriesLoaded;
+    private final Counter entriesMissing;
+    private final Timer duration;
+
+    public CacheWarmUpRunner(AnalysisLogReaderPort logReader,
+                             IdempotencyStorePort idempotencyStore,
+                             IdempotencyKeyGenerator keyGenerator,
+                             @Value("${analysis.warmup.lookback:6h}") Duration lookback,
+                             @Value("${analysis.warmup.max-records:200000}") int maxRecords,
+                             @Value("${analysis.warmup.max-entries:5000}") int maxEntries,
+                             @Value("${analysis.warmup.time-budget:30s}") Duration timeBudget,
+                             MeterRegistry meterRegistry) {
+        this(logReader, idempotencyStore, keyGenerator, lookback, maxRecords, maxEntries, timeBudget,
+                meterRegistry, Clock.systemUTC());
+    }
+
+    CacheWarmUpRunner(AnalysisLogReaderPort logReader,
+                      IdempotencyStorePort idempotencyStore,
+                      IdempotencyKeyGenerator keyGenerator,
+                      Duration lookback,
+                      int maxRecords,
+                      int maxEntries,
+                      Duration timeBudget,
+                      MeterRegistry meterRegistry,
+                      Clock clock) {
+        this.logReader = logReader;
+        this.idempotencyStore = idempotencyStore;
+        this.keyGenerator = keyGenerator;
+        this.lookback = lookback;
+        this.maxRecords = maxRecords;
+        this.maxEntries = maxEntries;
+        this.timeBudget = timeBudget;
+        this.clock = clock;
+
+        this.recordsRead = Counter.builder("analysis.warmup.records")
+                .description("Logs de análise relidos no aquecimento")
+                .register(meterRegistry);
+        this.entriesLoaded = entries(meterRegistry, "loaded");
+        this.entriesMissing = entries(meterRegistry, "missing");
+        this.duration = Timer.builder("analysis.warmup.duration")
+                .description("Duração do aquecimento de cache na inicialização")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * @return quantidade de análises carregadas no cache
+     */
+    int warmUp() {
+        long start = System.nanoTime();
+        Deadline deadline = Deadline.after(timeBudget);
+
+        HotIdentifierRanking ranking = new HotIdentifierRanking();
+        try {
+            long read = logReader.replay(clock.instant().minus(lookback), maxRecords, deadline,
+                    analysisLog -> ranking.record(analysisLog.idInputValue()));
+            recordsRead.increment(read);
+        } catch (RuntimeException e) {
+            log.warn("Aquecimento de cache: falha ao ler o histórico de análises, iniciando com cache frio: {}",
+                    e.getMessage());
+        }
+
+        List<String> hot = ranking.top(maxEntries);
+        int loaded = 0;
+        int visited = 0;
+        for (String identifier : hot) {
+            if (deadline.isExpired()) {
+                log.warn("Aquecimento de cache interrompido pelo prazo de {} após {} de {} identificadores",
+                        timeBudget, visited, hot.size());
+                break;
+            }
+            visited++;
+            try {
+                if (idempotencyStore.getResponse(keyGenerator.forIdentifier(identifier)).isPresent()) {
+                    loaded++;
+                    entriesLoaded.increment();
+                } else {
+                    entriesMissing.increment();
+                }
+            } catch (RuntimeException e) {
+                entriesMissing.increment();
+                log.debug("Aquecimento de cache: falha ao carregar {}: {}", identifier, e.getMessage());
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        duration.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Aquecimento de cache concluído em {}ms: {} identificadores distintos, {} análises carregadas",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), ranking.distinct(), loaded);
+        return loaded;
+    }
+
+    private static Counter entries(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("analysis.warmup.entries")
+                .description("Identificadores consultados no store de idempotência durante o aquecimento")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
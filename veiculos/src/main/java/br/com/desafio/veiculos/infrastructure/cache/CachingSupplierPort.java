@@ -0,0 +1,91 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import br.com.desafio.veiculos.application.port.out.VinCacheEvictable;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import br.com.desafio.veiculos.infrastructure.adapters.ForwardingSupplierPort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Cache local dos resultados de um fornecedor, por VIN canônico.
+ *
+ * Só respostas SUCCESS são guardadas, pelo TTL configurado para o fornecedor; o tamanho é limitado
+ * em bytes estimados (eviction W-TinyLFU do Caffeine). Um acerto é devolvido com latência zero e
+ * marcado como {@code cached}, para não ser contabilizado como chamada paga.
+ *
+ * Métricas: cache.gets/cache.evictions/cache.size com tag {@code cache=supplier.<fornecedor>}
+ * e supplier.cache.weight (bytes estimados ocupados).
+ */
+public class CachingSupplierPort extends ForwardingSupplierPort implements VinCacheEvictable {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingSupplierPort.class);
+
+    private final Cache<String, SupplierResult<Object>> cache;
+
+    public CachingSupplierPort(SupplierPort delegate, Duration ttl, long maxBytes,
+                               Weigher<String, SupplierResult<Object>> weigher, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxBytes)
+                .weigher(weigher)
+                .recordStats()
+                .build();
+
+        String supplier = delegate.getSupplierName();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "supplier." + supplier, "supplier", supplier);
+        Gauge.builder("supplier.cache.weight", cache, CachingSupplierPort::weightedSize)
+                .description("Bytes estimados ocupados pelo cache do fornecedor")
+                .baseUnit("bytes")
+                .tag("supplier", supplier)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SupplierResult<Object> fetchData(String vin) {
+        return cached(vin, () -> delegate.fetchData(vin));
+    }
+
+    @Override
+    public SupplierResult<Object> fetchData(String vin, Deadline deadline) {
+        return cached(vin, () -> delegate.fetchData(vin, deadline));
+    }
+
+    @Override
+    public void evictVins(Collection<String> vins) {
+        cache.invalidateAll(vins);
+    }
+
+    private SupplierResult<Object> cached(String vin, Supplier<SupplierResult<Object>> call) {
+        SupplierResult<Object> hit = cache.getIfPresent(vin);
+        if (hit != null) {
+            log.debug("{}: resultado servido do cache local", getSupplierName());
+            return SupplierResult.cached(hit);
+        }
+
+        SupplierResult<Object> result = call.get();
+        if (result.status().status() == SupplierStatus.Status.SUCCESS && result.data() != null) {
+            cache.put(vin, result);
+        }
+        return result;
+    }
+
+    private static double weightedSize(Cache<String, SupplierResult<Object>> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contagem de frequência dos identificadores consultados, para escolher quais aquecer primeiro.
+ *
+ * Identificadores são agrupados como a chave de idempotência os enxerga (maiúsculas, sem espaços
+ * nas pontas): "abc1234" e "ABC1234 " contam como o mesmo.
+ */
+final class HotIdentifierRanking {
+
+    private final Map<String, Integer> counts = new HashMap<>();
+
+    void record(String identifier) {
+        if (identifier == null || identifier.isBlank()) {
+            return;
+        }
+        counts.merge(identifier.toUpperCase().trim(), 1, Integer::sum);
+    }
+
+    /**
+     * Os {@code limit} identificadores mais frequentes, do mais para o menos consultado
+     * (empate resolvido pelo identificador, para a ordem ser determinística).
+     */
+    List<String> top(int limit) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(Math.max(0, limit))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    int distinct() {
+        return counts.size();
+    }
+}
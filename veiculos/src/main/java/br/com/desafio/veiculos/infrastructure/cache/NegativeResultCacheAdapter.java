@@ -0,0 +1,94 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import br.com.desafio.veiculos.application.port.out.NegativeResultCachePort;
+import br.com.desafio.veiculos.application.port.out.VinCacheEvictable;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Cache negativo em memória (Caffeine), com TTL curto e número máximo de entradas.
+ *
+ * Identificadores maiores que {@link #MAX_IDENTIFIER_LENGTH} não são guardados: continuam rejeitados,
+ * mas não podem ser usados para encher a memória. Métricas: cache.gets/cache.evictions/cache.size
+ * com tag {@code cache=negative.identifier} e {@code cache=negative.vehicle}.
+ */
+@Component
+public class NegativeResultCacheAdapter implements NegativeResultCachePort, VinCacheEvictable {
+
+    private static final Logger log = LoggerFactory.getLogger(NegativeResultCacheAdapter.class);
+
+    static final int MAX_IDENTIFIER_LENGTH = 64;
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> rejectedIdentifiers;
+    private final Cache<String, VehicleAnalysis> unknownVehicles;
+
+    public NegativeResultCacheAdapter(
+            @Value("${analysis.negative-cache.enabled:false}") boolean enabled,
+            @Value("${analysis.negative-cache.ttl:5m}") Duration ttl,
+            @Value("${analysis.negative-cache.max-entries:50000}") long maxEntries,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.rejectedIdentifiers = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        this.unknownVehicles = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rejectedIdentifiers, "negative.identifier");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownVehicles, "negative.vehicle");
+    }
+
+    @Override
+    public boolean isRejectedIdentifier(String identifier) {
+        return enabled && cacheable(identifier) && rejectedIdentifiers.getIfPresent(identifier) != null;
+    }
+
+    @Override
+    public void rememberRejectedIdentifier(String identifier) {
+        if (enabled && cacheable(identifier)) {
+            rejectedIdentifiers.put(identifier, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public Optional<VehicleAnalysis> getUnknownVehicle(String vin) {
+        return enabled ? Optional.ofNullable(unknownVehicles.getIfPresent(vin)) : Optional.empty();
+    }
+
+    @Override
+    public void rememberUnknownVehicle(String vin, VehicleAnalysis analysis) {
+        if (enabled) {
+            log.info("VIN {} desconhecido por todos os fornecedores. Guardando resultado negativo.", vin);
+            unknownVehicles.put(vin, analysis);
+        }
+    }
+
+    /**
+     * Um VIN corrigido pode passar a existir nos fornecedores. Identificadores rejeitados não dependem
+     * dos fornecedores e continuam guardados.
+     */
+    @Override
+    public void evictVins(Collection<String> vins) {
+        unknownVehicles.invalidateAll(vins);
+    }
+
+    private boolean cacheable(String identifier) {
+        return identifier != null && identifier.length() <= MAX_IDENTIFIER_LENGTH;
+    }
+}
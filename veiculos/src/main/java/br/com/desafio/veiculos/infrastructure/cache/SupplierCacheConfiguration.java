@@ -0,0 +1,81 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Coloca um {@link CachingSupplierPort} na frente de cada fornecedor com TTL configurado
+ * ({@code supplier.cache.ttl.<fornecedor>}), limitado a {@code supplier.cache.max-size.<fornecedor>} (padrão 16MB).
+ * Fornecedores sem TTL (ou com TTL zero) não são cacheados.
+ *
+ * É o decorador mais externo: acertos não passam pelo limite adaptativo, rate limiter ou bulkhead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "supplier.cache.enabled", havingValue = "true")
+public class SupplierCacheConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(SupplierCacheConfiguration.class);
+
+    private static final DataSize DEFAULT_MAX_SIZE = DataSize.ofMegabytes(16);
+
+    @Bean
+    static BeanPostProcessor supplierCachePostProcessor(Environment environment,
+                                                        ObjectProvider<ObjectMapper> objectMapper,
+                                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SupplierCachePostProcessor(environment, objectMapper, meterRegistry);
+    }
+
+    private static final class SupplierCachePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+        private final ObjectProvider<ObjectMapper> objectMapper;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        private SupplierCachePostProcessor(Environment environment, ObjectProvider<ObjectMapper> objectMapper,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+            this.environment = environment;
+            this.objectMapper = objectMapper;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof SupplierPort supplier)) {
+                return bean;
+            }
+
+            String name = supplier.getSupplierName();
+            Duration ttl = environment.getProperty("supplier.cache.ttl." + name, Duration.class, Duration.ZERO);
+            if (ttl.isZero() || ttl.isNegative()) {
+                log.info("Cache local desativado para {}", name);
+                return bean;
+            }
+
+            DataSize maxSize = environment.getProperty("supplier.cache.max-size." + name, DataSize.class, DEFAULT_MAX_SIZE);
+
+            log.info("Cache local para {}: TTL={}, tamanho máximo={}", name, ttl, maxSize);
+            return new CachingSupplierPort(supplier, ttl, maxSize.toBytes(),
+                    new SupplierResultWeigher(objectMapper.getIfAvailable(ObjectMapper::new)),
+                    meterRegistry.getObject());
+        }
+
+        @Override
+        public int getOrder() {
+            // Depois do proxy do AOP e do limite adaptativo: o cache é a camada mais externa
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
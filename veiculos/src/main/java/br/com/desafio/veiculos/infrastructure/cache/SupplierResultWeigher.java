@@ -0,0 +1,36 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import br.com.desafio.veiculos.domain.SupplierResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Estima o tamanho em bytes de uma entrada do cache pelo JSON dos dados do fornecedor.
+ *
+ * A estimativa é feita uma vez, na escrita (que já acompanha uma chamada remota).
+ */
+public class SupplierResultWeigher implements Weigher<String, SupplierResult<Object>> {
+
+    // Chave, status, referências e cabeçalhos da entrada no Caffeine
+    static final int ENTRY_OVERHEAD_BYTES = 128;
+    // Dados que não puderam ser serializados contam como uma entrada grande
+    static final int UNKNOWN_DATA_BYTES = 4096;
+
+    private final ObjectMapper objectMapper;
+
+    public SupplierResultWeigher(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public int weigh(String vin, SupplierResult<Object> result) {
+        int dataBytes;
+        try {
+            dataBytes = result.data() == null ? 0 : objectMapper.writeValueAsBytes(result.data()).length;
+        } catch (JsonProcessingException e) {
+            dataBytes = UNKNOWN_DATA_BYTES;
+        }
+        return ENTRY_OVERHEAD_BYTES + 2 * vin.length() + dataBytes;
+    }
+}
@@ -0,0 +1,260 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.application.port.out.VinCacheEvictable;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store de idempotência em dois níveis: cache local (Caffeine) na frente do MongoDB. Só existe com
+ * {@code idempotency.store.type=tiered}; o padrão é o {@code IdempotencyStoreMongoAdapter} direto.
+ *
+ * Leitura: o nível local responde sem ida à rede; numa falta, o Mongo é consultado e o resultado
+ * passa a ficar no nível local. Escrita, conforme {@code idempotency.tiered.consistency}:
+ * <ul>
+ *   <li>write-through: grava no Mongo na thread do chamador (outras instâncias enxergam a resposta imediatamente);</li>
+ *   <li>write-behind: grava só no nível local e enfileira a gravação no Mongo. Com a fila cheia, ou depois do
+ *       encerramento, a gravação volta a ser feita pelo chamador. Outras instâncias podem não enxergar a resposta
+ *       por alguns milissegundos. Uma invalidação do VIN descarta as gravações dele ainda na fila.</li>
+ * </ul>
+ *
+ * Métricas por nível (tag tier=local|remote): idempotency.store.lookups{result=hit|miss} e
+ * idempotency.store.latency{operation=get|store}; idempotency.store.write.pending para a fila do write-behind.
+ */
+@Component
+@Primary
+@Profile("!embedded")
+@ConditionalOnProperty(name = "idempotency.store.type", havingValue = "tiered")
+public class TieredIdempotencyStore implements IdempotencyStorePort, VinCacheEvictable {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredIdempotencyStore.class);
+
+    public static final String WRITE_THROUGH = "write-through";
+    public static final String WRITE_BEHIND = "write-behind";
+
+    private final IdempotencyStorePort remote;
+    private final Cache<String, VehicleAnalysis> local;
+    private final boolean writeBehind;
+    private final ThreadPoolExecutor writer;
+    // Write-behind: versão mais recente de cada chave ainda não gravada no Mongo. O monitor do mapa serializa
+    // as gravações e os descartes por invalidação, como no IdempotencyWriteBuffer
+    private final Map<String, VehicleAnalysis> pendingWrites = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Timer localGetLatency;
+    private final Timer remoteGetLatency;
+    private final Timer remoteStoreLatency;
+
+    public TieredIdempotencyStore(
+            @Qualifier("idempotencyStoreMongoAdapter") IdempotencyStorePort remote,
+            @Value("${idempotency.tiered.consistency:write-through}") String consistency,
+            @Value("${idempotency.tiered.local.max-entries:10000}") long maxEntries,
+            @Value("${idempotency.tiered.local.ttl:10m}") Duration localTtl,
+            @Value("${idempotency.tiered.write-behind.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        if (!WRITE_THROUGH.equalsIgnoreCase(consistency) && !WRITE_BEHIND.equalsIgnoreCase(consistency)) {
+            throw new IllegalArgumentException("idempotency.tiered.consistency inválido: " + consistency);
+        }
+        this.remote = remote;
+        this.writeBehind = WRITE_BEHIND.equalsIgnoreCase(consistency);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(localTtl)
+                .build();
+
+        // Uma thread basta: a fila absorve picos e, cheia ou encerrada, devolve a gravação ao chamador
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "idempotency-write-behind");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                TieredIdempotencyStore::runOnCaller);
+
+        this.localHits = lookups(meterRegistry, "local", "hit");
+        this.localMisses = lookups(meterRegistry, "local", "miss");
+        this.remoteHits = lookups(meterRegistry, "remote", "hit");
+        this.remoteMisses = lookups(meterRegistry, "remote", "miss");
+        this.localGetLatency = latency(meterRegistry, "local", "get");
+        this.remoteGetLatency = latency(meterRegistry, "remote", "get");
+        this.remoteStoreLatency = latency(meterRegistry, "remote", "store");
+        Gauge.builder("idempotency.store.write.pending", writer, executor -> executor.getQueue().size())
+                .description("Gravações no MongoDB aguardando na fila do write-behind")
+                .register(meterRegistry);
+
+        log.info("Store de idempotência em dois níveis: consistência={}, cache local={} entradas / TTL {}",
+                consistency, maxEntries, localTtl);
+    }
+
+    @Override
+    public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
+        long start = System.nanoTime();
+        VehicleAnalysis cached = local.getIfPresent(idempotencyKey);
+        localGetLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (cached != null) {
+            localHits.increment();
+            return Optional.of(cached);
+        }
+        localMisses.increment();
+
+        start = System.nanoTime();
+        Optional<VehicleAnalysis> stored = remote.getResponse(idempotencyKey);
+        remoteGetLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (stored.isPresent()) {
+            remoteHits.increment();
+            local.put(idempotencyKey, stored.get());
+        } else {
+            remoteMisses.increment();
+        }
+        return stored;
+    }
+
+    @Override
+    public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
+        local.put(idempotencyKey, response);
+        if (writeBehind) {
+            pendingWrites.put(idempotencyKey, response);
+            writer.execute(() -> storePending(idempotencyKey, response));
+        } else {
+            storeRemote(idempotencyKey, response);
+        }
+    }
+
+    /**
+     * A reserva é coordenada no MongoDB: o nível local não é compartilhado entre instâncias.
+     */
+    @Override
+    public CompletableFuture<Boolean> claim(String idempotencyKey, Duration lease) {
+        return remote.claim(idempotencyKey, lease);
+    }
+
+    @Override
+    public void releaseClaim(String idempotencyKey) {
+        remote.releaseClaim(idempotencyKey);
+    }
+
+    @Override
+    public void removeByVin(String vin) {
+        discardPending(Set.of(vin));
+        remote.removeByVin(vin);
+        evictVins(List.of(vin));
+    }
+
+    /**
+     * O nível local é indexado pela chave de idempotência: as entradas dos VINs são localizadas
+     * numa única varredura por lote. Gravações dos VINs ainda na fila do write-behind são descartadas,
+     * para não devolverem ao Mongo a resposta invalidada.
+     */
+    @Override
+    public void evictVins(Collection<String> vins) {
+        Set<String> targets = Set.copyOf(vins);
+        discardPending(targets);
+        List<String> keys = local.asMap().entrySet().stream()
+                .filter(entry -> targets.contains(entry.getValue().vin()))
+                .map(Map.Entry::getKey)
+                .toList();
+        local.invalidateAll(keys);
+    }
+
+    private void storeRemote(String idempotencyKey, VehicleAnalysis response) {
+        remoteStoreLatency.record(() -> remote.storeResponse(idempotencyKey, response));
+    }
+
+    /**
+     * Grava a resposta enfileirada, a menos que tenha sido substituída por outra mais nova da chave
+     * ou descartada por invalidação do VIN enquanto aguardava.
+     */
+    private void storePending(String idempotencyKey, VehicleAnalysis response) {
+        synchronized (pendingWrites) {
+            if (pendingWrites.remove(idempotencyKey, response)) {
+                storeRemote(idempotencyKey, response);
+            }
+        }
+    }
+
+    /**
+     * Tira os VINs do mapa antes de disputar o monitor, para que a thread do write-behind não grave o próximo
+     * da fila nesse intervalo, e depois aguarda a gravação em andamento: nada dos VINs chega ao Mongo depois
+     * do descarte.
+     */
+    private void discardPending(Set<String> vins) {
+        pendingWrites.values().removeIf(response -> response.vin() != null && vins.contains(response.vin()));
+        synchronized (pendingWrites) {
+            // A gravação em andamento já tinha saído do mapa: só é preciso esperar que termine
+        }
+    }
+
+    /**
+     * Fila cheia ou executor encerrado: o chamador grava. Diferente do CallerRunsPolicy, que descarta a tarefa
+     * em silêncio depois do shutdown.
+     */
+    private static void runOnCaller(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            log.debug("Write-behind encerrado: gravação de idempotência feita pelo chamador");
+        }
+        task.run();
+    }
+
+    /**
+     * Grava no Mongo o que ainda estiver na fila antes de encerrar.
+     */
+    @PreDestroy
+    void drain() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Encerrando com {} gravações de idempotência não persistidas", writer.getQueue().size());
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.shutdownNow();
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("idempotency.store.lookups")
+                .description("Consultas ao store de idempotência por nível")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Timer latency(MeterRegistry meterRegistry, String tier, String operation) {
+        return Timer.builder("idempotency.store.latency")
+                .description("Latência do store de idempotência por nível")
+                .tag("tier", tier)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -1,5 +1,8 @@
 package br.com.desafio.veiculos.infrastructure.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -10,11 +13,29 @@ import java.util.concurrent.Executors;
 @Configuration
 public class ExecutorConfig {
 
-    @Bean(name = "analysisTaskExecutor")
-    public ExecutorService analysisTaskExecutor() {
-        // Pool de threads para execução paralela das chamadas aos fornecedores
-        // Em produção, considerar ThreadPoolTaskExecutor do Spring para melhor gerenciamento
-        return Executors.newFixedThreadPool(10);
+    private static final Logger log = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    public static final String MODE_FIXED = "fixed";
+    public static final String MODE_VIRTUAL = "virtual";
+
+    /**
+     * Executor das chamadas aos fornecedores (F1, F2, F3).
+     *
+     * fixed: pool fixo de threads de plataforma - cada chamada SOAP/Feign bloqueia uma thread.
+     * virtual: uma virtual thread por chamada (Java 21) - a concorrência passa a ser
+     * limitada pelos bulkheads de cada fornecedor, e não pelo tamanho do pool.
+     */
+    @Bean(name = "analysisTaskExecutor", destroyMethod = "shutdown")
+    public ExecutorService analysisTaskExecutor(
+            @Value("${analysis.executor.mode:fixed}") String mode,
+            @Value("${analysis.executor.pool-size:10}") int poolSize) {
+        if (MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            log.info("Executor de análise em modo virtual threads");
+            return Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("analysis-vt-", 0).factory());
+        }
+        log.info("Executor de análise em modo pool fixo ({} threads)", poolSize);
+        return Executors.newFixedThreadPool(poolSize);
     }
 
     @Bean(name = "springTaskExecutor")
@@ -1,33 +1,37 @@
 package br.com.desafio.veiculos.infrastructure.config;
 
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StreamUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Filtro que intercepta requisições e garante que todas tenham Idempotency-Key.
- * 
+ *
  * Comportamento:
  * 1. Se cliente enviar Idempotency-Key → usa a enviada
- * 2. Se não enviar → gera automaticamente baseado no body
- * 3. Adiciona o header na requisição para uso downstream
+ * 2. GET/HEAD sem chave → gera a partir do método e do caminho, sem ler o corpo
+ * 3. Demais métodos sem chave → gera a partir do hash do body, calculado enquanto o body é lido downstream
+ * 4. Adiciona o header na requisição para uso downstream (calculado só quando alguém o consulta)
+ *
+ * O body não é copiado: o hash acompanha a leitura feita pelo controller. Só se o header for consultado
+ * antes de o body ter sido lido até o fim, o restante é lido para o hash e guardado para quem ainda vai lê-lo.
  */
 @Slf4j
 @Component
@@ -35,7 +39,7 @@ import java.util.Map;
 public class IdempotencyFilter extends OncePerRequestFilter {
 
     private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
-    
+
     private final IdempotencyKeyGenerator keyGenerator;
 
     @Override
@@ -52,53 +56,17 @@ public class IdempotencyFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Precisa ler o body para gerar chave
-        CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(request);
-        String body = cachedRequest.getCachedBody();
-
-        // Gera chave automaticamente
-        String generatedKey = keyGenerator.generate(body);
-        log.info("Idempotency-Key gerada automaticamente: {}", generatedKey);
-
-        // Cria wrapper com o header adicional
-        HttpServletRequestWrapper wrappedRequest = new HttpServletRequestWrapper(cachedRequest) {
-            private final Map<String, String> customHeaders = new HashMap<>();
-
-            {
-                customHeaders.put(IDEMPOTENCY_KEY_HEADER, generatedKey);
-            }
-
-            @Override
-            public String getHeader(String name) {
-                String headerValue = customHeaders.get(name);
-                if (headerValue != null) {
-                    return headerValue;
-                }
-                return super.getHeader(name);
-            }
-
-            @Override
-            public Enumeration<String> getHeaderNames() {
-                Map<String, String> allHeaders = new HashMap<>();
-                Enumeration<String> originalHeaders = super.getHeaderNames();
-                while (originalHeaders.hasMoreElements()) {
-                    String name = originalHeaders.nextElement();
-                    allHeaders.put(name, super.getHeader(name));
-                }
-                allHeaders.putAll(customHeaders);
-                return Collections.enumeration(allHeaders.keySet());
-            }
-
-            @Override
-            public Enumeration<String> getHeaders(String name) {
-                if (customHeaders.containsKey(name)) {
-                    return Collections.enumeration(Collections.singletonList(customHeaders.get(name)));
+        if (isBodiless(request)) {
+            filterChain.doFilter(new KeyedRequest(request) {
+                @Override
+                protected String resolveKey() {
+                    return keyGenerator.generate(request.getMethod(), pathWithQuery(request));
                 }
-                return super.getHeaders(name);
-            }
-        };
+            }, response);
+            return;
+        }
 
-        filterChain.doFilter(wrappedRequest, response);
+        filterChain.doFilter(new DigestingRequest(request, keyGenerator.contentKey()), response);
     }
 
     @Override
@@ -110,53 +78,197 @@ public class IdempotencyFilter extends OncePerRequestFilter {
                path.startsWith("/v3/api-docs");
     }
 
+    private static boolean isBodiless(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    private static String pathWithQuery(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query;
+    }
+
     /**
-     * Wrapper que cacheia o body da requisição para múltiplas leituras
+     * Wrapper que acrescenta o header Idempotency-Key, resolvido na primeira consulta
      */
-    private static class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
-        private final byte[] cachedBody;
+    private abstract static class KeyedRequest extends HttpServletRequestWrapper {
+        private String key;
 
-        public CachedBodyHttpServletRequest(HttpServletRequest request) throws IOException {
+        KeyedRequest(HttpServletRequest request) {
             super(request);
-            this.cachedBody = StreamUtils.copyToByteArray(request.getInputStream());
         }
 
-        public String getCachedBody() {
-            return new String(cachedBody, StandardCharsets.UTF_8);
+        protected abstract String resolveKey();
+
+        private String key() {
+            if (key == null) {
+                key = resolveKey();
+                log.debug("Idempotency-Key gerada automaticamente: {}", key);
+            }
+            return key;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return IDEMPOTENCY_KEY_HEADER.equalsIgnoreCase(name) ? key() : super.getHeader(name);
         }
 
         @Override
-        public BufferedReader getReader() {
-            return new BufferedReader(new InputStreamReader(
-                new ByteArrayInputStream(cachedBody), StandardCharsets.UTF_8));
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(IDEMPOTENCY_KEY_HEADER::equalsIgnoreCase);
+            names.add(IDEMPOTENCY_KEY_HEADER);
+            return Collections.enumeration(names);
         }
 
         @Override
-        public jakarta.servlet.ServletInputStream getInputStream() {
-            return new jakarta.servlet.ServletInputStream() {
-                private final ByteArrayInputStream buffer = new ByteArrayInputStream(cachedBody);
+        public Enumeration<String> getHeaders(String name) {
+            if (IDEMPOTENCY_KEY_HEADER.equalsIgnoreCase(name)) {
+                return Collections.enumeration(Collections.singletonList(key()));
+            }
+            return super.getHeaders(name);
+        }
+    }
 
-                @Override
-                public int read() {
-                    return buffer.read();
-                }
+    /**
+     * Wrapper cujo body alimenta o hash da chave conforme é lido
+     */
+    private static class DigestingRequest extends KeyedRequest {
+        private final IdempotencyKeyGenerator.ContentKey contentKey;
+        private DigestingInputStream body;
+        private BufferedReader reader;
 
-                @Override
-                public boolean isFinished() {
-                    return buffer.available() == 0;
-                }
+        DigestingRequest(HttpServletRequest request, IdempotencyKeyGenerator.ContentKey contentKey) {
+            super(request);
+            this.contentKey = contentKey;
+        }
 
-                @Override
-                public boolean isReady() {
-                    return true;
-                }
+        @Override
+        protected String resolveKey() {
+            try {
+                body().drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao ler o body para gerar a Idempotency-Key", e);
+            }
+            return contentKey.key();
+        }
 
-                @Override
-                public void setReadListener(jakarta.servlet.ReadListener listener) {
-                    throw new UnsupportedOperationException();
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            return body();
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                reader = new BufferedReader(new InputStreamReader(body(), StandardCharsets.UTF_8));
+            }
+            return reader;
+        }
+
+        private DigestingInputStream body() throws IOException {
+            if (body == null) {
+                body = new DigestingInputStream(super.getInputStream(), contentKey);
+            }
+            return body;
+        }
+    }
+
+    /**
+     * Repassa o body da requisição atualizando o hash com cada byte lido. Depois de {@link #drain()},
+     * entrega a partir do buffer o que o downstream ainda não tinha lido.
+     */
+    private static class DigestingInputStream extends ServletInputStream {
+        private final ServletInputStream source;
+        private final IdempotencyKeyGenerator.ContentKey contentKey;
+        private boolean finished;
+        private byte[] replay;
+        private int replayPosition;
+
+        DigestingInputStream(ServletInputStream source, IdempotencyKeyGenerator.ContentKey contentKey) {
+            this.source = source;
+            this.contentKey = contentKey;
+        }
+
+        /**
+         * Lê o restante do body para o hash, guardando-o para leituras posteriores
+         */
+        void drain() throws IOException {
+            if (finished) {
+                return;
+            }
+            byte[] remaining = source.readAllBytes();
+            contentKey.update(remaining, 0, remaining.length);
+            finished = true;
+            if (remaining.length > 0) {
+                replay = remaining;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (replay != null) {
+                return replayPosition < replay.length ? replay[replayPosition++] & 0xff : -1;
+            }
+            if (finished) {
+                return -1;
+            }
+            int b = source.read();
+            if (b < 0) {
+                finished = true;
+            } else {
+                contentKey.update(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (replay != null) {
+                if (replayPosition >= replay.length) {
+                    return -1;
                 }
-            };
+                int copied = Math.min(length, replay.length - replayPosition);
+                System.arraycopy(replay, replayPosition, buffer, offset, copied);
+                replayPosition += copied;
+                return copied;
+            }
+            if (finished) {
+                return -1;
+            }
+            int read = source.read(buffer, offset, length);
+            if (read < 0) {
+                finished = true;
+            } else if (read > 0) {
+                contentKey.update(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            if (replay != null) {
+                return replay.length - replayPosition;
+            }
+            return finished ? 0 : source.available();
+        }
+
+        @Override
+        public boolean isFinished() {
+            if (replay != null) {
+                return replayPosition >= replay.length;
+            }
+            return finished || source.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return replay != null || finished || source.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            throw new UnsupportedOperationException();
         }
     }
 }
-
@@ -1,7 +1,12 @@
 package br.com.desafio.veiculos.infrastructure.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.UUID;
@@ -13,44 +18,66 @@ import java.util.UUID;
  * 1. Se cliente não enviar Idempotency-Key, geramos automaticamente
  * 2. Geramos com base no hash do conteúdo da requisição
  * 3. Garantimos que mesma requisição = mesma chave
+ *
+ * Algoritmo ({@code idempotency.key.algorithm}): {@code sha-256} (padrão) ou {@code murmur3-128},
+ * não criptográfico e bem mais barato, para quando as chaves só circulam internamente. Todas as instâncias
+ * devem usar o mesmo algoritmo, e trocá-lo equivale a esvaziar o store de idempotência (chaves novas).
+ * O digest SHA-256 é reaproveitado por thread e o hexadecimal sai de uma tabela, sem objetos intermediários.
  */
 @Component
 public class IdempotencyKeyGenerator {
 
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyGenerator.class);
+
+    public static final String SHA_256 = "sha-256";
+    public static final String MURMUR3_128 = "murmur3-128";
+
+    // Prefixo do hash usado em generate(content): 16 bytes = 32 caracteres hexadecimais
+    private static final int CONTENT_KEY_BYTES = 16;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final ThreadLocal<MessageDigest> SHA_256_DIGEST = ThreadLocal.withInitial(IdempotencyKeyGenerator::sha256);
+
+    private final boolean murmur3;
+
+    public IdempotencyKeyGenerator() {
+        this(SHA_256);
+    }
+
+    @Autowired
+    public IdempotencyKeyGenerator(@Value("${idempotency.key.algorithm:sha-256}") String algorithm) {
+        if (!SHA_256.equalsIgnoreCase(algorithm) && !MURMUR3_128.equalsIgnoreCase(algorithm)) {
+            throw new IllegalArgumentException("idempotency.key.algorithm inválido: " + algorithm);
+        }
+        this.murmur3 = MURMUR3_128.equalsIgnoreCase(algorithm);
+        log.info("Chaves de idempotência derivadas com {}", murmur3 ? MURMUR3_128 : SHA_256);
+    }
+
     /**
      * Gera chave de idempotência baseada no conteúdo da requisição
      * 
      * @param content Conteúdo da requisição (JSON serializado)
-     * @return Chave única para esse conteúdo
+     * @return Chave única para esse conteúdo (32 caracteres hexadecimais)
      */
     public String generate(String content) {
         if (content == null || content.isBlank()) {
             // Fallback: UUID aleatório
             return UUID.randomUUID().toString();
         }
+        return toHex(hash(content.getBytes(StandardCharsets.UTF_8)), CONTENT_KEY_BYTES);
+    }
 
-        try {
-            // Gera hash SHA-256 do conteúdo
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(content.getBytes());
-            
-            // Converte para string hexadecimal
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            
-            // Retorna primeiros 32 caracteres (suficiente para unicidade)
-            return hexString.substring(0, 32);
-            
-        } catch (NoSuchAlgorithmException e) {
-            // Fallback: UUID aleatório
-            return UUID.randomUUID().toString();
-        }
+    /**
+     * Gera a chave de idempotência da análise de um veículo a partir do identificador recebido.
+     * Utiliza o hash do identificador em maiúsculas e sem espaços nas pontas: a mesma chave é
+     * derivada pelo controller e pelo aquecimento de cache na inicialização.
+     *
+     * @param identifier Identificador do veículo (Placa, RENAVAM ou VIN)
+     * @return Chave de idempotência (hash hexadecimal completo: 64 caracteres com SHA-256, 32 com Murmur3)
+     */
+    public String forIdentifier(String identifier) {
+        byte[] hash = hash(identifier.toUpperCase().trim().getBytes(StandardCharsets.UTF_8));
+        return toHex(hash, hash.length);
     }
 
     /**
@@ -60,5 +87,88 @@ public class IdempotencyKeyGenerator {
         String combined = String.join("|", parts);
         return generate(combined);
     }
-}
 
+    /**
+     * Hash do conteúdo calculado aos poucos, conforme ele é lido (corpo da requisição sem cópia).
+     * Para o mesmo conteúdo em UTF-8, a chave é a mesma de {@link #generate(String)}.
+     */
+    ContentKey contentKey() {
+        // Digest próprio: o da thread pode ser usado por generate() enquanto o corpo ainda está sendo lido
+        return new ContentKey(murmur3 ? new Murmur3.Digest() : sha256());
+    }
+
+    private byte[] hash(byte[] content) {
+        return murmur3 ? Murmur3.hash128(content) : SHA_256_DIGEST.get().digest(content);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Toda JVM é obrigada a oferecer SHA-256
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Hexadecimal minúsculo dos primeiros {@code length} bytes.
+     */
+    static String toHex(byte[] bytes, int length) {
+        byte[] hex = new byte[length * 2];
+        for (int i = 0; i < length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+        }
+        return new String(hex, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Chave de um conteúdo recebido em partes. Conteúdo vazio ou só com espaços gera UUID aleatório,
+     * como em {@link #generate(String)}.
+     */
+    static final class ContentKey {
+
+        private final MessageDigest digest;
+        private boolean blank = true;
+        private String key;
+
+        private ContentKey(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        void update(int b) {
+            checkOpen();
+            blank = blank && isWhitespace((byte) b);
+            digest.update((byte) b);
+        }
+
+        void update(byte[] bytes, int offset, int length) {
+            checkOpen();
+            for (int i = offset; blank && i < offset + length; i++) {
+                blank = isWhitespace(bytes[i]);
+            }
+            digest.update(bytes, offset, length);
+        }
+
+        /**
+         * Encerra o hash: depois da primeira chamada o conteúdo não pode mais crescer.
+         */
+        String key() {
+            if (key == null) {
+                key = blank ? UUID.randomUUID().toString() : toHex(digest.digest(), CONTENT_KEY_BYTES);
+            }
+            return key;
+        }
+
+        private void checkOpen() {
+            if (key != null) {
+                throw new IllegalStateException("Chave já calculada");
+            }
+        }
+
+        // Bytes acima de 0x7f fazem parte de caracteres não ASCII em UTF-8: não são espaço
+        private static boolean isWhitespace(byte b) {
+            return b >= 0 && Character.isWhitespace(b);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.desafio.veiculos.infrastructure.config;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+
+/**
+ * MurmurHash3 x64 de 128 bits (semente 0), mesmo resultado do {@code Hashing.murmur3_128()} do Guava.
+ *
+ * Não criptográfico: adequado a chaves internas, em que ninguém escolhe o conteúdo para provocar colisão.
+ * {@link Digest} calcula o mesmo hash aos poucos, para conteúdo que chega em partes.
+ */
+final class Murmur3 {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private Murmur3() {
+    }
+
+    /**
+     * @return os 16 bytes do hash (h1 e h2 em little-endian)
+     */
+    static byte[] hash128(byte[] data) {
+        int length = data.length;
+        long h1 = 0;
+        long h2 = 0;
+
+        int blocks = length >>> 4;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = (long) LONGS.get(data, i << 4);
+            long k2 = (long) LONGS.get(data, (i << 4) + 8);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        return finish(h1, h2, data, blocks << 4, length, length);
+    }
+
+    /**
+     * Mistura os bytes restantes ({@code data[from, to)}, menos de 16) e finaliza o hash de {@code totalLength} bytes.
+     */
+    private static byte[] finish(long h1, long h2, byte[] data, int from, int to, long totalLength) {
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = to - 1; i >= from + 8; i--) {
+            k2 = (k2 << 8) | (data[i] & 0xffL);
+        }
+        for (int i = Math.min(to, from + 8) - 1; i >= from; i--) {
+            k1 = (k1 << 8) | (data[i] & 0xffL);
+        }
+        h1 ^= mixK1(k1);
+        h2 ^= mixK2(k2);
+
+        h1 ^= totalLength;
+        h2 ^= totalLength;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        byte[] hash = new byte[16];
+        LONGS.set(hash, 0, h1);
+        LONGS.set(hash, 8, h2);
+        return hash;
+    }
+
+    /**
+     * Hash incremental: blocos completos são misturados conforme chegam e só o bloco parcial (até 16 bytes) fica guardado.
+     */
+    static final class Digest extends MessageDigest {
+
+        private final byte[] block = new byte[16];
+        private int buffered;
+        private long length;
+        private long h1;
+        private long h2;
+
+        Digest() {
+            super("Murmur3-128");
+        }
+
+        @Override
+        protected void engineUpdate(byte input) {
+            block[buffered++] = input;
+            length++;
+            if (buffered == block.length) {
+                mix(block, 0);
+                buffered = 0;
+            }
+        }
+
+        @Override
+        protected void engineUpdate(byte[] input, int offset, int len) {
+            length += len;
+            if (buffered > 0) {
+                int copied = Math.min(block.length - buffered, len);
+                System.arraycopy(input, offset, block, buffered, copied);
+                buffered += copied;
+                offset += copied;
+                len -= copied;
+                if (buffered < block.length) {
+                    return;
+                }
+                mix(block, 0);
+                buffered = 0;
+            }
+            for (; len >= 16; offset += 16, len -= 16) {
+                mix(input, offset);
+            }
+            System.arraycopy(input, offset, block, 0, len);
+            buffered = len;
+        }
+
+        @Override
+        protected byte[] engineDigest() {
+            byte[] hash = finish(h1, h2, block, 0, buffered, length);
+            engineReset();
+            return hash;
+        }
+
+        @Override
+        protected void engineReset() {
+            buffered = 0;
+            length = 0;
+            h1 = 0;
+            h2 = 0;
+        }
+
+        @Override
+        protected int engineGetDigestLength() {
+            return 16;
+        }
+
+        private void mix(byte[] data, int offset) {
+            h1 ^= mixK1((long) LONGS.get(data, offset));
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2((long) LONGS.get(data, offset + 8));
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
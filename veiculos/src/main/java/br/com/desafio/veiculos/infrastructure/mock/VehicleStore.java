@@ -0,0 +1,397 @@
+package br.com.desafio.veiculos.infrastructure.mock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Armazenamento compacto e somente leitura da base de veículos.
+ *
+ * Cada veículo ocupa uma linha de largura fixa ({@value #ROW_BYTES} bytes) num buffer fora do heap:
+ * VIN e placa em ASCII, RENAVAM como long, marca e modelo como códigos de um dicionário e o ano.
+ * RENAJUD e recall ficam em bitsets, com as contagens calculadas na carga.
+ *
+ * Os índices por VIN, placa e RENAVAM são tabelas de endereçamento aberto em {@code int[]}
+ * (número da linha + 1) - sem objetos por entrada. A busca compara direto com os bytes da linha
+ * e só materializa um {@link VehicleDatabase.VehicleData} quando encontra o veículo.
+ */
+@Slf4j
+public final class VehicleStore {
+
+    public static final int VIN_LENGTH = 17;
+    public static final int PLACA_LENGTH = 7;
+    public static final int RENAVAM_LENGTH = 11;
+
+    private static final int VIN_OFFSET = 0;
+    private static final int PLACA_OFFSET = VIN_OFFSET + VIN_LENGTH;
+    private static final int RENAVAM_OFFSET = PLACA_OFFSET + PLACA_LENGTH;
+    private static final int MARCA_OFFSET = RENAVAM_OFFSET + Long.BYTES;
+    private static final int MODELO_OFFSET = MARCA_OFFSET + Integer.BYTES;
+    private static final int ANO_OFFSET = MODELO_OFFSET + Integer.BYTES;
+    static final int ROW_BYTES = ANO_OFFSET + Short.BYTES;
+    // Posições do buffer são int: ~51 milhões de veículos por instância
+    static final int MAX_ROWS = Integer.MAX_VALUE / ROW_BYTES;
+
+    private static final int EMPTY = 0;
+
+    private final ByteBuffer rows;
+    private final String[] dictionary;
+    private final BitSet renajud;
+    private final BitSet recall;
+    private final int size;
+    private final int renajudCount;
+    private final int recallCount;
+
+    private final int[] vinIndex;
+    private final int[] placaIndex;
+    private final int[] renavamIndex;
+
+    private VehicleStore(ByteBuffer rows, int rowCount, String[] dictionary, BitSet renajud, BitSet recall) {
+        this.rows = rows;
+        this.dictionary = dictionary;
+
+        int capacity = tableCapacity(rowCount);
+        this.vinIndex = new int[capacity];
+        this.placaIndex = new int[capacity];
+        this.renavamIndex = new int[capacity];
+
+        // Linhas com VIN repetido ficam fora dos índices e das contagens (vale a primeira ocorrência)
+        BitSet indexed = new BitSet(rowCount);
+        int duplicates = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (!insertVin(row)) {
+                duplicates++;
+                continue;
+            }
+            indexed.set(row);
+            insertPlaca(row);
+            insertRenavam(row);
+        }
+        if (duplicates > 0) {
+            log.warn("{} veículos com VIN repetido ignorados na carga", duplicates);
+        }
+
+        renajud.and(indexed);
+        recall.and(indexed);
+        this.renajud = renajud;
+        this.recall = recall;
+        this.size = indexed.cardinality();
+        this.renajudCount = renajud.cardinality();
+        this.recallCount = recall.cardinality();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Carrega um arquivo em lote, uma linha por veículo:
+     * {@code placa;renavam;vin;marca;modelo;ano;renajud;recall}. Linhas vazias, iniciadas por '#'
+     * ou com campos inválidos são ignoradas (as inválidas são contadas no log).
+     */
+    public static VehicleStore load(Path file) throws IOException {
+        long start = System.nanoTime();
+        Builder builder = builder();
+        int invalid = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(";", -1);
+                try {
+                    if (fields.length != 8) {
+                        throw new IllegalArgumentException("esperados 8 campos, encontrados " + fields.length);
+                    }
+                    builder.add(fields[0], fields[1], fields[2], fields[3], fields[4],
+                            Integer.parseInt(fields[5].trim()),
+                            Boolean.parseBoolean(fields[6].trim()), Boolean.parseBoolean(fields[7].trim()));
+                } catch (IllegalArgumentException e) {
+                    invalid++;
+                    log.debug("Linha ignorada na carga de {}: {}", file, e.getMessage());
+                }
+            }
+        }
+
+        VehicleStore store = builder.build();
+        log.info("Base de veículos carregada de {}: {} veículos em {} ms, {} KB ({} linhas inválidas)",
+                file, store.size(), (System.nanoTime() - start) / 1_000_000, store.footprintBytes() / 1024, invalid);
+        return store;
+    }
+
+    /**
+     * Busca por VIN, placa ou RENAVAM (sem distinção de maiúsculas), escolhendo o índice pelo formato.
+     */
+    public Optional<VehicleDatabase.VehicleData> find(String identifier) {
+        String key = identifier.trim();
+        int row = switch (key.length()) {
+            case VIN_LENGTH -> lookupAscii(vinIndex, VIN_OFFSET, VIN_LENGTH, key);
+            case RENAVAM_LENGTH -> isDigits(key) ? lookupRenavam(Long.parseLong(key)) : -1;
+            case PLACA_LENGTH -> lookupAscii(placaIndex, PLACA_OFFSET, PLACA_LENGTH, key);
+            default -> -1;
+        };
+        return row < 0 ? Optional.empty() : Optional.of(materialize(row));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int renajudCount() {
+        return renajudCount;
+    }
+
+    public int recallCount() {
+        return recallCount;
+    }
+
+    /**
+     * Bytes ocupados pelas linhas (fora do heap) e pelos índices.
+     */
+    public long footprintBytes() {
+        return rows.capacity() + 4L * (vinIndex.length + placaIndex.length + renavamIndex.length)
+                + (renajud.size() + recall.size()) / 8;
+    }
+
+    private VehicleDatabase.VehicleData materialize(int row) {
+        int base = row * ROW_BYTES;
+        return VehicleDatabase.VehicleData.builder()
+                .vin(readAscii(base + VIN_OFFSET, VIN_LENGTH))
+                .placa(readAscii(base + PLACA_OFFSET, PLACA_LENGTH))
+                .renavam(formatRenavam(rows.getLong(base + RENAVAM_OFFSET)))
+                .marca(dictionary[rows.getInt(base + MARCA_OFFSET)])
+                .modelo(dictionary[rows.getInt(base + MODELO_OFFSET)])
+                .ano(rows.getShort(base + ANO_OFFSET))
+                .renajud(renajud.get(row))
+                .recall(recall.get(row))
+                .build();
+    }
+
+    // --- índices ---
+
+    private boolean insertVin(int row) {
+        return insertAscii(vinIndex, row, VIN_OFFSET, VIN_LENGTH);
+    }
+
+    private void insertPlaca(int row) {
+        insertAscii(placaIndex, row, PLACA_OFFSET, PLACA_LENGTH);
+    }
+
+    private boolean insertAscii(int[] table, int row, int offset, int length) {
+        int base = row * ROW_BYTES + offset;
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + rows.get(base + i);
+        }
+        int mask = table.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int existing = table[slot];
+            if (existing == EMPTY) {
+                table[slot] = row + 1;
+                return true;
+            }
+            if (sameBytes(existing - 1, offset, base, length)) {
+                return false;
+            }
+        }
+    }
+
+    private void insertRenavam(int row) {
+        long renavam = rows.getLong(row * ROW_BYTES + RENAVAM_OFFSET);
+        int mask = renavamIndex.length - 1;
+        for (int slot = mix(Long.hashCode(renavam)) & mask; ; slot = (slot + 1) & mask) {
+            int existing = renavamIndex[slot];
+            if (existing == EMPTY) {
+                renavamIndex[slot] = row + 1;
+                return;
+            }
+            if (rows.getLong((existing - 1) * ROW_BYTES + RENAVAM_OFFSET) == renavam) {
+                return;
+            }
+        }
+    }
+
+    private int lookupAscii(int[] table, int offset, int length, String key) {
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            char c = upperAscii(key.charAt(i));
+            if (c > 0x7F) {
+                return -1;
+            }
+            hash = 31 * hash + (byte) c;
+        }
+        int mask = table.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (matches(entry - 1, offset, key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private int lookupRenavam(long renavam) {
+        int mask = renavamIndex.length - 1;
+        for (int slot = mix(Long.hashCode(renavam)) & mask; ; slot = (slot + 1) & mask) {
+            int entry = renavamIndex[slot];
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (rows.getLong((entry - 1) * ROW_BYTES + RENAVAM_OFFSET) == renavam) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private boolean matches(int row, int offset, String key) {
+        int base = row * ROW_BYTES + offset;
+        for (int i = 0; i < key.length(); i++) {
+            if (rows.get(base + i) != (byte) upperAscii(key.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameBytes(int row, int offset, int otherBase, int length) {
+        int base = row * ROW_BYTES + offset;
+        for (int i = 0; i < length; i++) {
+            if (rows.get(base + i) != rows.get(otherBase + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readAscii(int position, int length) {
+        byte[] bytes = new byte[length];
+        rows.get(position, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static int mix(int hash) {
+        // Espalha os bits altos: as chaves compartilham prefixos longos (fabricante no VIN, UF na placa)
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    private static int tableCapacity(int rowCount) {
+        // Fator de carga máximo de 0,5: sondagem linear curta
+        return Math.max(16, Integer.highestOneBit(Math.max(1, rowCount) * 2 - 1) << 1);
+    }
+
+    private static char upperAscii(char c) {
+        return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String formatRenavam(long renavam) {
+        String digits = Long.toString(renavam);
+        return digits.length() >= RENAVAM_LENGTH ? digits : "0".repeat(RENAVAM_LENGTH - digits.length()) + digits;
+    }
+
+    /**
+     * Acumula linhas em memória do heap; {@link #build()} copia para o buffer fora do heap e monta os índices.
+     */
+    public static final class Builder {
+
+        private byte[] rows = new byte[64 * ROW_BYTES];
+        private int count;
+        private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private final BitSet renajud = new BitSet();
+        private final BitSet recall = new BitSet();
+
+        private Builder() {
+        }
+
+        public Builder add(String placa, String renavam, String vin, String marca, String modelo,
+                           int ano, boolean hasRenajud, boolean hasRecall) {
+            String normalizedVin = fixedAscii(vin, VIN_LENGTH, "VIN");
+            String normalizedPlaca = fixedAscii(placa, PLACA_LENGTH, "placa");
+            String normalizedRenavam = renavam == null ? "" : renavam.trim();
+            if (normalizedRenavam.length() != RENAVAM_LENGTH || !isDigits(normalizedRenavam)) {
+                throw new IllegalArgumentException("RENAVAM inválido: " + renavam);
+            }
+            if (ano < Short.MIN_VALUE || ano > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Ano inválido: " + ano);
+            }
+
+            if (count == MAX_ROWS) {
+                throw new IllegalStateException("Limite de " + MAX_ROWS + " veículos por base atingido");
+            }
+            if ((count + 1) * ROW_BYTES > rows.length) {
+                rows = Arrays.copyOf(rows, (int) Math.min((long) rows.length * 2, (long) MAX_ROWS * ROW_BYTES));
+            }
+            ByteBuffer row = ByteBuffer.wrap(rows, count * ROW_BYTES, ROW_BYTES);
+            row.put(normalizedVin.getBytes(StandardCharsets.US_ASCII));
+            row.put(normalizedPlaca.getBytes(StandardCharsets.US_ASCII));
+            row.putLong(Long.parseLong(normalizedRenavam));
+            row.putInt(code(marca));
+            row.putInt(code(modelo));
+            row.putShort((short) ano);
+
+            renajud.set(count, hasRenajud);
+            recall.set(count, hasRecall);
+            count++;
+            return this;
+        }
+
+        public VehicleStore build() {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(1, count * ROW_BYTES));
+            buffer.put(rows, 0, count * ROW_BYTES);
+            return new VehicleStore(buffer, count, dictionary.toArray(new String[0]),
+                    (BitSet) renajud.clone(), (BitSet) recall.clone());
+        }
+
+        private int code(String value) {
+            String key = value == null ? "" : value.trim();
+            return dictionaryCodes.computeIfAbsent(key, k -> {
+                dictionary.add(k);
+                return dictionary.size() - 1;
+            });
+        }
+
+        private static String fixedAscii(String value, int length, String field) {
+            String normalized = value == null ? "" : value.trim();
+            if (normalized.length() != length) {
+                throw new IllegalArgumentException(field + " deve ter " + length + " caracteres: " + value);
+            }
+            StringBuilder upper = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                char c = upperAscii(normalized.charAt(i));
+                if (c > 0x7F) {
+                    throw new IllegalArgumentException(field + " com caractere não ASCII: " + value);
+                }
+                upper.append(c);
+            }
+            return upper.toString();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.desafio.veiculos.infrastructure.resilience;
+
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Envolve cada bean {@link SupplierPort} com o limite de concorrência adaptativo.
+ *
+ * O decorador fica por fora do adaptador e, portanto, do {@link DeadlineAwareResilience} que as consultas
+ * com prazo usam (Retry, CircuitBreaker, RateLimiter e Bulkhead programáticos); chamadas sem prazo passam
+ * pelo proxy das anotações. O bulkhead estático
+ * ({@code resilience4j.bulkhead.instances.<fornecedor>.max-concurrent-calls}) vira o teto do limite.
+ * As amostras de latência são por tentativa, medidas dentro do bulkhead ({@link AttemptLatency}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "supplier.adaptive-limit.enabled", havingValue = "true")
+public class AdaptiveLimitConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveLimitConfiguration.class);
+
+    // Padrão do Resilience4j quando o bulkhead do fornecedor não está configurado
+    private static final int DEFAULT_BULKHEAD_MAX_CONCURRENT_CALLS = 25;
+
+    @Bean
+    static BeanPostProcessor adaptiveLimitSupplierPostProcessor(Environment environment,
+                                                                ObjectProvider<MeterRegistry> meterRegistry) {
+        return new AdaptiveLimitPostProcessor(environment, meterRegistry);
+    }
+
+    private static final class AdaptiveLimitPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        private AdaptiveLimitPostProcessor(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+            this.environment = environment;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof SupplierPort supplier)) {
+                return bean;
+            }
+
+            String name = supplier.getSupplierName();
+            int maxLimit = environment.getProperty("resilience4j.bulkhead.instances." + name + ".max-concurrent-calls",
+                    Integer.class, DEFAULT_BULKHEAD_MAX_CONCURRENT_CALLS);
+            int initialLimit = environment.getProperty("supplier.adaptive-limit.initial-limit", Integer.class, 10);
+            int minLimit = environment.getProperty("supplier.adaptive-limit.min-limit", Integer.class, 1);
+            double rttTolerance = environment.getProperty("supplier.adaptive-limit.rtt-tolerance", Double.class, 1.5);
+            double smoothing = environment.getProperty("supplier.adaptive-limit.smoothing", Double.class, 0.2);
+
+            log.info("Limite adaptativo para {}: inicial={}, mínimo={}, teto (bulkhead)={}", name, initialLimit, minLimit, maxLimit);
+            GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit, rttTolerance, smoothing);
+            return new AdaptiveLimitSupplierPort(supplier, limiter, meterRegistry.getObject());
+        }
+
+        @Override
+        public int getOrder() {
+            // Depois do auto-proxy do AOP (HIGHEST_PRECEDENCE): decora o proxy, não o adaptador cru.
+            // Antes do cache (LOWEST_PRECEDENCE), que fica por fora: acertos no cache não ocupam vaga do limite
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.desafio.veiculos.infrastructure.resilience;
+
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import br.com.desafio.veiculos.infrastructure.adapters.ForwardingSupplierPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Aplica o {@link GradientConcurrencyLimiter} às chamadas de um fornecedor.
+ *
+ * Acima do limite atual a chamada é rejeitada na hora, como falha, sem ocupar thread esperando vaga.
+ * Chamadas bem-sucedidas alimentam o limite com a latência; timeouts o reduzem. O bulkhead estático
+ * do fornecedor continua valendo por dentro, como teto.
+ *
+ * A amostra é a duração da última tentativa ({@link AttemptLatency}), não a da chamada inteira: tentativas
+ * que falharam, a espera entre elas e a espera pelo rate limiter não são latência do fornecedor e fariam o
+ * limite cair justamente quando ele se recupera. Sem tentativa que tenha chegado ao fornecedor (prazo esgotado
+ * antes, rate limiter ou bulkhead sem vaga) não há amostra.
+ *
+ * Métricas (tag supplier): supplier.adaptive.limit, supplier.adaptive.inflight,
+ * supplier.adaptive.rejection.rate (última janela de 10s) e o contador supplier.adaptive.rejected.
+ */
+public class AdaptiveLimitSupplierPort extends ForwardingSupplierPort {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveLimitSupplierPort.class);
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final GradientConcurrencyLimiter limiter;
+    private final Counter rejections;
+
+    private long windowStart = System.nanoTime();
+    private long windowAccepted;
+    private long windowRejected;
+    private double lastRejectionRate;
+
+    public AdaptiveLimitSupplierPort(SupplierPort delegate, GradientConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.limiter = limiter;
+
+        String supplier = delegate.getSupplierName();
+        this.rejections = Counter.builder("supplier.adaptive.rejected")
+                .description("Chamadas rejeitadas pelo limite de concorrência adaptativo")
+                .tag("supplier", supplier)
+                .register(meterRegistry);
+        Gauge.builder("supplier.adaptive.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                .description("Limite atual de chamadas simultâneas")
+                .tag("supplier", supplier)
+                .register(meterRegistry);
+        Gauge.builder("supplier.adaptive.inflight", limiter, GradientConcurrencyLimiter::getInFlight)
+                .description("Chamadas em andamento")
+                .tag("supplier", supplier)
+                .register(meterRegistry);
+        Gauge.builder("supplier.adaptive.rejection.rate", this, AdaptiveLimitSupplierPort::rejectionRate)
+                .description("Fração de chamadas rejeitadas na última janela")
+                .tag("supplier", supplier)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SupplierResult<Object> fetchData(String vin) {
+        return limited(() -> delegate.fetchData(vin));
+    }
+
+    @Override
+    public SupplierResult<Object> fetchData(String vin, Deadline deadline) {
+        return limited(() -> delegate.fetchData(vin, deadline));
+    }
+
+    private SupplierResult<Object> limited(Supplier<SupplierResult<Object>> call) {
+        if (!limiter.tryAcquire()) {
+            rejections.increment();
+            log.warn("{}: limite de concorrência adaptativo atingido ({})", getSupplierName(), limiter.getLimit());
+            return SupplierResult.failure(getSupplierName(), 0, "Limite de concorrência adaptativo excedido");
+        }
+
+        long start = System.nanoTime();
+        AttemptLatency latency = AttemptLatency.start();
+        SupplierResult<Object> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            limiter.onIgnore();
+            throw e;
+        } finally {
+            latency.stop();
+        }
+
+        // Pelas anotações do Resilience4j só a duração total é conhecida
+        long rttNanos = latency.observed() ? latency.lastAttemptNanos() : System.nanoTime() - start;
+        SupplierStatus.Status status = result.status().status();
+        if (rttNanos == AttemptLatency.NONE) {
+            limiter.onIgnore();
+        } else if (status == SupplierStatus.Status.SUCCESS || status == SupplierStatus.Status.NOT_FOUND) {
+            limiter.onSample(rttNanos, false);
+        } else if (status == SupplierStatus.Status.TIMEOUT) {
+            limiter.onSample(rttNanos, true);
+        } else {
+            // Falhas rápidas (circuit breaker aberto, rate limit) não medem a capacidade do fornecedor
+            limiter.onIgnore();
+        }
+        return result;
+    }
+
+    synchronized double rejectionRate() {
+        long now = System.nanoTime();
+        if (now - windowStart >= RATE_WINDOW_NANOS) {
+            long accepted = limiter.getAccepted();
+            long rejected = limiter.getRejected();
+            long total = (accepted - windowAccepted) + (rejected - windowRejected);
+            lastRejectionRate = total == 0 ? 0 : (double) (rejected - windowRejected) / total;
+            windowAccepted = accepted;
+            windowRejected = rejected;
+            windowStart = now;
+        }
+        return lastRejectionRate;
+    }
+}
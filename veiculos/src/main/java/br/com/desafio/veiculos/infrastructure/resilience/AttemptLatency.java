@@ -0,0 +1,66 @@
+package br.com.desafio.veiculos.infrastructure.resilience;
+
+/**
+ * Latência da última tentativa feita ao fornecedor na thread atual.
+ *
+ * O {@link DeadlineAwareResilience} mede só a chamada dentro do bulkhead: ficam de fora a espera pelo rate
+ * limiter e pelo bulkhead, as tentativas anteriores e o intervalo entre elas. O {@link AdaptiveLimitSupplierPort}
+ * abre a medição antes de chamar o fornecedor e usa o valor como amostra do limite adaptativo.
+ */
+final class AttemptLatency {
+
+    static final long NONE = -1;
+
+    private static final ThreadLocal<AttemptLatency> CURRENT = new ThreadLocal<>();
+
+    private boolean observed;
+    private long lastAttemptNanos = NONE;
+
+    private AttemptLatency() {
+    }
+
+    /**
+     * Abre a medição da thread atual, descartando uma anterior.
+     */
+    static AttemptLatency start() {
+        AttemptLatency latency = new AttemptLatency();
+        CURRENT.set(latency);
+        return latency;
+    }
+
+    /**
+     * A chamada passou pelo {@link DeadlineAwareResilience}, que mede as tentativas.
+     */
+    static void observe() {
+        AttemptLatency latency = CURRENT.get();
+        if (latency != null) {
+            latency.observed = true;
+        }
+    }
+
+    static void record(long nanos) {
+        AttemptLatency latency = CURRENT.get();
+        if (latency != null) {
+            latency.lastAttemptNanos = nanos;
+        }
+    }
+
+    void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return {@code false} quando a chamada não passou pelo {@link DeadlineAwareResilience} (anotações do
+     * Resilience4j): só a duração total está disponível
+     */
+    boolean observed() {
+        return observed;
+    }
+
+    /**
+     * @return duração da última tentativa, ou {@link #NONE} se nenhuma chegou ao fornecedor
+     */
+    long lastAttemptNanos() {
+        return lastAttemptNanos;
+    }
+}
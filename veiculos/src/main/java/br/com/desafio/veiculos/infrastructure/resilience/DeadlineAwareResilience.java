@@ -0,0 +1,146 @@
+package br.com.desafio.veiculos.infrastructure.resilience;
+
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Aplica Retry, CircuitBreaker, RateLimiter e Bulkhead de forma programática, respeitando o prazo da análise.
+ *
+ * As anotações do Resilience4j não conhecem o prazo: cada adaptador faria até 3 tentativas com
+ * espera entre elas mesmo depois de o cliente ter desistido. Aqui as mesmas instâncias dos registries
+ * (mesma configuração, estado e métricas das anotações) são usadas na mesma ordem do aspecto -
+ * Retry(CircuitBreaker(RateLimiter(Bulkhead(chamada)))) - com três cortes:
+ * - uma nova tentativa só começa se a espera mais uma tentativa inteira couberem no prazo;
+ * - sem tempo para a espera configurada do rate limiter ou do bulkhead, só segue se houver vaga imediata;
+ * - prazo esgotado antes da chamada devolve timeout sem consultar o fornecedor.
+ *
+ * A duração de cada tentativa, só da chamada dentro do bulkhead, fica em {@link AttemptLatency} para o
+ * limite adaptativo.
+ */
+@Component
+public class DeadlineAwareResilience {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineAwareResilience.class);
+
+    private final RetryRegistry retryRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public DeadlineAwareResilience(RetryRegistry retryRegistry,
+                                   CircuitBreakerRegistry circuitBreakerRegistry,
+                                   RateLimiterRegistry rateLimiterRegistry,
+                                   BulkheadRegistry bulkheadRegistry,
+                                   MeterRegistry meterRegistry) {
+        this.retryRegistry = retryRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param supplierName   nome da instância nos registries (F1, F2, F3)
+     * @param rateLimited    aplica o rate limiter do fornecedor
+     * @param attemptTimeout duração máxima de uma tentativa
+     * @param call           chamada ao fornecedor; exceções contam como falha
+     * @param fallback       resultado quando as tentativas se esgotam, o prazo acaba ou a chamada é rejeitada
+     */
+    public <T> SupplierResult<T> execute(String supplierName,
+                                         boolean rateLimited,
+                                         Deadline deadline,
+                                         Duration attemptTimeout,
+                                         Supplier<SupplierResult<T>> call,
+                                         Function<Throwable, SupplierResult<T>> fallback) {
+        Retry.AsyncContext<SupplierResult<T>> retryContext = retryRegistry.retry(supplierName).asyncContext();
+        AttemptLatency.observe();
+
+        while (true) {
+            if (deadline.isExpired()) {
+                return deadlineExhausted(supplierName, "before_call", fallback);
+            }
+
+            try {
+                SupplierResult<T> result = attempt(supplierName, rateLimited, deadline, call);
+                retryContext.onComplete();
+                return result;
+            } catch (RuntimeException e) {
+                long delayMs = retryContext.onError(e);
+                if (delayMs < 0) {
+                    return fallback.apply(e);
+                }
+                if (!deadline.hasTimeFor(Duration.ofMillis(delayMs).plus(attemptTimeout))) {
+                    log.warn("{}: prazo insuficiente para nova tentativa ({})", supplierName, deadline);
+                    return deadlineExhausted(supplierName, "retry", fallback);
+                }
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return fallback.apply(interrupted);
+                }
+            }
+        }
+    }
+
+    private <T> SupplierResult<T> attempt(String supplierName, boolean rateLimited, Deadline deadline,
+                                          Supplier<SupplierResult<T>> call) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(supplierName);
+        return circuitBreaker.executeSupplier(() -> {
+            if (rateLimited) {
+                acquireRateLimit(rateLimiterRegistry.rateLimiter(supplierName), deadline);
+            }
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead(supplierName);
+            acquireBulkhead(bulkhead, deadline);
+            long start = System.nanoTime();
+            try {
+                return call.get();
+            } finally {
+                AttemptLatency.record(System.nanoTime() - start);
+                bulkhead.onComplete();
+            }
+        });
+    }
+
+    private void acquireRateLimit(RateLimiter rateLimiter, Deadline deadline) {
+        Duration maxWait = rateLimiter.getRateLimiterConfig().getTimeoutDuration();
+        if (!deadline.hasTimeFor(maxWait) && rateLimiter.getMetrics().getAvailablePermissions() <= 0) {
+            throw RequestNotPermitted.createRequestNotPermitted(rateLimiter);
+        }
+        RateLimiter.waitForPermission(rateLimiter);
+    }
+
+    private void acquireBulkhead(Bulkhead bulkhead, Deadline deadline) {
+        Duration maxWait = bulkhead.getBulkheadConfig().getMaxWaitDuration();
+        if (!deadline.hasTimeFor(maxWait) && bulkhead.getMetrics().getAvailableConcurrentCalls() <= 0) {
+            throw BulkheadFullException.createBulkheadFullException(bulkhead);
+        }
+        bulkhead.acquirePermission();
+    }
+
+    private <T> SupplierResult<T> deadlineExhausted(String supplierName, String stage,
+                                                    Function<Throwable, SupplierResult<T>> fallback) {
+        meterRegistry.counter("supplier.deadline.exhausted", "supplier", supplierName, "stage", stage).increment();
+        return fallback.apply(new TimeoutException("Prazo da análise esgotado"));
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.desafio.veiculos.infrastructure.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limite de concorrência adaptativo por gradiente de latência (no estilo do Gradient2 do Netflix concurrency-limits).
+ *
+ * Mantém duas médias móveis do RTT: uma longa (linha de base do fornecedor saudável) e uma curta
+ * (situação atual). O gradiente {@code tolerância * longa / curta}, limitado a [0.5, 1], reduz o limite
+ * quando a latência sobe acima da linha de base; quando a latência está estável, o limite cresce
+ * aos poucos (raiz quadrada do limite como folga). Timeouts reduzem o limite multiplicativamente.
+ *
+ * O limite só cresce quando pelo menos metade dele está em uso - sem demanda não há sinal de capacidade.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final double LONG_WINDOW_SMOOTHING = 2.0 / (600 + 1);
+    private static final double SHORT_WINDOW_SMOOTHING = 2.0 / (10 + 1);
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double rttTolerance, double smoothing) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Reserva uma vaga sem bloquear.
+     *
+     * @return false se o limite atual já estiver ocupado (a chamada deve ser rejeitada)
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga e ajusta o limite com a latência observada.
+     *
+     * @param rttNanos latência da chamada
+     * @param dropped  a chamada expirou (sinal de sobrecarga)
+     */
+    public void onSample(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        update(rttNanos, dropped, inFlightAtCompletion);
+    }
+
+    /**
+     * Libera a vaga sem amostra de latência (ex: falha que não reflete a capacidade do fornecedor).
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update(long rttNanos, boolean dropped, int inFlightAtCompletion) {
+        if (dropped) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * DROP_BACKOFF);
+            limit = (int) estimatedLimit;
+            return;
+        }
+
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            shortRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * LONG_WINDOW_SMOOTHING;
+            shortRttNanos += (rttNanos - shortRttNanos) * SHORT_WINDOW_SMOOTHING;
+        }
+
+        // Linha de base muito acima da latência atual (ex: após um incidente): aproxima para recuperar rápido
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos = longRttNanos * 0.95;
+        }
+
+        // Sem demanda suficiente a latência não diz nada sobre capacidade extra
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.usecase.VehicleAnalysisUseCase;
+import br.com.desafio.veiculos.domain.BulkAnalysisResult;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkAnalysisServiceTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void deveEntregarUmResultadoPorIdentificador() throws Exception {
+        BulkAnalysisService service = new BulkAnalysisService(new FakeUseCase(new AtomicInteger(), new AtomicInteger()), executor, 3, 100);
+        ConcurrentLinkedQueue<BulkAnalysisResult> results = new ConcurrentLinkedQueue<>();
+
+        service.analyzeAll(List.of("ABC1234", "INVALIDO", "DEF5678", "GHI9012"), Function.identity(), results::add)
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(4, results.size());
+        BulkAnalysisResult invalid = results.stream()
+                .filter(result -> result.identifier().equals("INVALIDO"))
+                .findFirst().orElseThrow();
+        assertEquals(BulkAnalysisResult.Status.ERROR, invalid.status());
+        assertEquals("Identificador inválido: INVALIDO", invalid.error());
+        assertEquals(3, results.stream().filter(result -> result.status() == BulkAnalysisResult.Status.OK).count());
+    }
+
+    @Test
+    void deveLimitarAnalisesSimultaneas() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        BulkAnalysisService service = new BulkAnalysisService(new FakeUseCase(running, peak), executor, 2, 100);
+        List<String> identifiers = List.of("A", "B", "C", "D", "E", "F", "G", "H");
+        AtomicInteger delivered = new AtomicInteger();
+
+        service.analyzeAll(identifiers, Function.identity(), result -> delivered.incrementAndGet())
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(identifiers.size(), delivered.get());
+        assertTrue(peak.get() <= 2, "pico de análises simultâneas: " + peak.get());
+    }
+
+    @Test
+    void deveRejeitarLoteVazioOuAcimaDoLimite() {
+        BulkAnalysisService service = new BulkAnalysisService(new FakeUseCase(new AtomicInteger(), new AtomicInteger()), executor, 2, 2);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.analyzeAll(List.of(), Function.identity(), result -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.analyzeAll(List.of("A", "B", "C"), Function.identity(), result -> { }));
+    }
+
+    private final class FakeUseCase implements VehicleAnalysisUseCase {
+
+        private final AtomicInteger running;
+        private final AtomicInteger peak;
+
+        FakeUseCase(AtomicInteger running, AtomicInteger peak) {
+            this.running = running;
+            this.peak = peak;
+        }
+
+        @Override
+        public VehicleAnalysis analyzeVehicle(String inputIdentifier, String idempotencyKey) {
+            return analyzeVehicleAsync(inputIdentifier, idempotencyKey).join();
+        }
+
+        @Override
+        public CompletableFuture<VehicleAnalysis> analyzeVehicleAsync(String inputIdentifier, String idempotencyKey, Deadline deadline) {
+            if (inputIdentifier.equals("INVALIDO")) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException("Identificador inválido: " + inputIdentifier));
+            }
+            return CompletableFuture.supplyAsync(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return new VehicleAnalysis(inputIdentifier, null, null, Map.of());
+            }, executor);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.application.port.out.IdentifierNormalizationPort;
+import br.com.desafio.veiculos.application.port.out.VinCacheEvictable;
+import br.com.desafio.veiculos.domain.IdentifierType;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheInvalidationServiceTest {
+
+    private static final String VIN = "9BWZZZ377VT004251";
+
+    private final List<String> events = new ArrayList<>();
+    private final List<Collection<String>> evicted = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CacheInvalidationService service = new CacheInvalidationService(
+            new FakeNormalization(),
+            new RecordingStore(),
+            vin -> events.add("publish:" + vin),
+            () -> List.of(vins -> {
+                events.add("local:" + vins);
+                evicted.add(vins);
+            }, failingCache()),
+            meterRegistry);
+
+    @Test
+    void deveRemoverDoStoreDescartarLocalmenteEPublicarNessaOrdem() {
+        String vin = service.invalidate("ABC1234");
+
+        assertEquals(VIN, vin);
+        assertEquals(List.of("remove:" + VIN, "local:[" + VIN + "]", "publish:" + VIN), events);
+    }
+
+    @Test
+    void deveRejeitarIdentificadorInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> service.invalidate("???"));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void deveDescartarVinsRecebidosEmTodosOsCachesLocais() {
+        service.evictLocal(List.of(VIN, "9BWZZZ377VT004252"));
+
+        assertEquals(List.of(List.of(VIN, "9BWZZZ377VT004252")), evicted);
+        assertEquals(2.0, meterRegistry.counter("cache.invalidation.evicted").count());
+    }
+
+    @Test
+    void deveIgnorarLoteVazio() {
+        service.evictLocal(List.of());
+
+        assertTrue(evicted.isEmpty());
+    }
+
+    private static VinCacheEvictable failingCache() {
+        return vins -> {
+            throw new IllegalStateException("cache indisponível");
+        };
+    }
+
+    private static final class FakeNormalization implements IdentifierNormalizationPort {
+
+        @Override
+        public IdentifierType identifyType(String identifier) {
+            return identifier.startsWith("ABC") ? IdentifierType.PLACA : IdentifierType.INVALIDO;
+        }
+
+        @Override
+        public String normalizeToVin(String identifier, IdentifierType type) {
+            return VIN;
+        }
+    }
+
+    private final class RecordingStore implements IdempotencyStorePort {
+
+        @Override
+        public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
+        }
+
+        @Override
+        public void removeByVin(String vin) {
+            events.add("remove:" + vin);
+        }
+    }
+}
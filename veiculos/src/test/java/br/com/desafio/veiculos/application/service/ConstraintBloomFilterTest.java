@@ -0,0 +1,65 @@
+package br.com.desafio.veiculos.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstraintBloomFilterTest {
+
+    @Test
+    void naoDeveTerFalsoNegativo() {
+        ConstraintBloomFilter filter = ConstraintBloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(vin(i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(vin(i)), vin(i));
+        }
+    }
+
+    @Test
+    void deveManterTaxaDeFalsoPositivoPertoDaConfigurada() {
+        ConstraintBloomFilter filter = ConstraintBloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(vin(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(vin(i))) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "falsos positivos: " + falsePositives);
+        assertEquals(0.01, filter.estimatedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void deveOcuparPoucosBitsPorVin() {
+        ConstraintBloomFilter filter = ConstraintBloomFilter.create(100_000, 0.01);
+
+        // ~9,6 bits por VIN para 1% de falso positivo
+        assertTrue(filter.sizeInBytes() < 100_000 * 10 / 8 + 8, "bytes: " + filter.sizeInBytes());
+        assertEquals(7, filter.hashFunctions());
+    }
+
+    @Test
+    void filtroVazioNaoContemNada() {
+        ConstraintBloomFilter filter = ConstraintBloomFilter.create(1_000, 0.01);
+
+        assertFalse(filter.mightContain("9BWZZZ377VT004251"));
+        assertEquals(0.0, filter.estimatedFalsePositiveRate());
+    }
+
+    @Test
+    void deveRejeitarTaxaInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> ConstraintBloomFilter.create(1_000, 0));
+        assertThrows(IllegalArgumentException.class, () -> ConstraintBloomFilter.create(1_000, 1));
+    }
+
+    private static String vin(int i) {
+        return String.format("9BWZZZ377V%07d", i);
+    }
+}
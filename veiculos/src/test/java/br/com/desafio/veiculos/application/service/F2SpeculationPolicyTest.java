@@ -0,0 +1,113 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import br.com.desafio.veiculos.domain.VehicleAnalysisLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class F2SpeculationPolicyTest {
+
+    private static final String VIN = "9BWZZZ377VT004251";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void naoDeveEspecularSemHistorico() {
+        F2SpeculationPolicy policy = policy(true, 1_000);
+
+        assertFalse(policy.shouldSpeculate(VIN));
+    }
+
+    @Test
+    void deveEspecularQuandoHistoricoDoVinIndicaRestricao() {
+        F2SpeculationPolicy policy = policy(true, 1_000);
+        policy.recordOutcome(VIN, true);
+        policy.recordOutcome(VIN, true);
+
+        assertTrue(policy.shouldSpeculate(VIN));
+    }
+
+    @Test
+    void deveUsarHistoricoDoPrefixoParaVinDesconhecido() {
+        F2SpeculationPolicy policy = policy(true, 1_000);
+        for (int i = 0; i < 20; i++) {
+            policy.recordOutcome("9BWZZZ37" + String.format("%09d", i), true);
+        }
+
+        assertTrue(policy.shouldSpeculate("9BWZZZ37X00000001"));
+        assertFalse(policy.shouldSpeculate("8AWZZZ37X00000001"));
+    }
+
+    @Test
+    void naoDeveEspecularQuandoDesabilitado() {
+        F2SpeculationPolicy policy = policy(false, 1_000);
+        policy.recordOutcome(VIN, true);
+        policy.recordOutcome(VIN, true);
+
+        assertFalse(policy.shouldSpeculate(VIN));
+    }
+
+    @Test
+    void deveRespeitarOrcamentoEDevolverReservaNoAcerto() {
+        F2SpeculationPolicy policy = policy(true, VehicleAnalysisService.F2_COST_CENTS);
+        policy.recordOutcome(VIN, true);
+        policy.recordOutcome(VIN, true);
+
+        assertTrue(policy.shouldSpeculate(VIN));
+        assertFalse(policy.shouldSpeculate(VIN));
+        assertEquals(1.0, meterRegistry.get("analysis.speculation").tag("outcome", "skipped_budget").counter().count());
+
+        policy.onEarlyStartUsed("F2", 120, SupplierResult.success("F2", 200, null));
+
+        assertEquals(1.0, meterRegistry.get("analysis.speculation").tag("outcome", "hit").counter().count());
+        assertTrue(policy.shouldSpeculate(VIN));
+    }
+
+    @Test
+    void deveContabilizarCustoDaEspeculacaoDescartada() {
+        F2SpeculationPolicy policy = policy(true, 1_000);
+
+        policy.onWasted();
+
+        assertEquals(VehicleAnalysisService.F2_COST_CENTS,
+                (long) meterRegistry.get("analysis.speculation.extra.cost.cents").counter().count());
+    }
+
+    @Test
+    void deveEspecularQuandoVinConstaNoFiltroDeRestricao() {
+        RestrictedVehicleFilter filter = restrictedVehicles(true, VIN);
+        filter.rebuild();
+        F2SpeculationPolicy policy = policy(true, 1_000, filter);
+
+        assertTrue(policy.shouldSpeculate(VIN));
+        assertFalse(policy.shouldSpeculate("9BWZZZ377VT004252"));
+    }
+
+    private F2SpeculationPolicy policy(boolean enabled, long budgetCents) {
+        return policy(enabled, budgetCents, restrictedVehicles(false));
+    }
+
+    private F2SpeculationPolicy policy(boolean enabled, long budgetCents, RestrictedVehicleFilter restrictedVehicles) {
+        return new F2SpeculationPolicy(enabled, 0.6, budgetCents, Duration.ofMinutes(1), 1_000, 8, 20,
+                restrictedVehicles, meterRegistry);
+    }
+
+    private RestrictedVehicleFilter restrictedVehicles(boolean enabled, String... restrictedVins) {
+        return new RestrictedVehicleFilter((since, maxRecords, deadline, sink) -> {
+            for (String vin : restrictedVins) {
+                sink.accept(VehicleAnalysisLog.builder()
+                        .vinCanonical(vin)
+                        .hasConstraints(true)
+                        .supplierCalls(Map.of("F1", new SupplierStatus(SupplierStatus.Status.SUCCESS, 100, null)))
+                        .build());
+            }
+            return restrictedVins.length;
+        }, enabled, Duration.ofDays(7), 1_000, 1_000, 0.01, Duration.ofSeconds(5), meterRegistry);
+    }
+}
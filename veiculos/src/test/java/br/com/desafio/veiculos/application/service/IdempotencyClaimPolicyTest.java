@@ -0,0 +1,137 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyClaimPolicyTest {
+
+    private static final VehicleAnalysis ANALYSIS = new VehicleAnalysis("9BWZZZ377VT004251", null, null, Map.of());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ScriptedStore store = new ScriptedStore();
+
+    @Test
+    void deveLiberarAConsultaSemIrAoStoreQuandoDesabilitada() throws Exception {
+        IdempotencyClaimPolicy policy = policy(false);
+
+        assertEquals(Optional.empty(), policy.acquire("chave", Deadline.none(), Runnable::run).get(1, TimeUnit.SECONDS));
+        assertEquals(0, store.claims.get());
+    }
+
+    @Test
+    void deveConsultarOsFornecedoresQuandoObtemAReserva() throws Exception {
+        store.claimResults.add(true);
+
+        assertEquals(Optional.empty(), policy(true).acquire("chave", Deadline.none(), Runnable::run).get(1, TimeUnit.SECONDS));
+        assertEquals(1.0, count("acquired"));
+    }
+
+    @Test
+    void deveEntregarARespostaGravadaPelaInstanciaQueDetemAChave() throws Exception {
+        store.claimResults.add(false);
+        store.claimResults.add(false);
+        store.responses.add(Optional.empty());
+        store.responses.add(Optional.of(ANALYSIS));
+
+        Optional<VehicleAnalysis> response = policy(true).acquire("chave", Deadline.none(), Runnable::run).get(1, TimeUnit.SECONDS);
+
+        assertEquals(Optional.of(ANALYSIS), response);
+        assertEquals(1.0, count("waited"));
+        assertEquals(2, store.claims.get());
+    }
+
+    @Test
+    void deveAssumirAChaveQuandoAReservaEDesfeitaOuExpira() throws Exception {
+        store.claimResults.add(false);
+        store.claimResults.add(true);
+        store.responses.add(Optional.empty());
+
+        assertEquals(Optional.empty(), policy(true).acquire("chave", Deadline.none(), Runnable::run).get(1, TimeUnit.SECONDS));
+        assertEquals(1.0, count("takeover"));
+    }
+
+    @Test
+    void deveDeixarDeAguardarAoFimDoPrazoDaRequisicao() throws Exception {
+        store.alwaysClaimed = true;
+
+        Optional<VehicleAnalysis> response = policy(true)
+                .acquire("chave", Deadline.after(Duration.ofMillis(60)), Runnable::run).get(1, TimeUnit.SECONDS);
+
+        assertEquals(Optional.empty(), response);
+        assertEquals(1.0, count("expired"));
+    }
+
+    @Test
+    void deveSeguirSemCoordenacaoQuandoOStoreFalha() throws Exception {
+        store.claimFailure = new IllegalStateException("MongoDB indisponível");
+
+        assertEquals(Optional.empty(), policy(true).acquire("chave", Deadline.none(), Runnable::run).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void deveDesfazerAReservaSomenteComAPoliticaHabilitada() {
+        policy(false).release("chave");
+        assertEquals(0, store.releases.get());
+
+        policy(true).release("chave");
+        assertEquals(1, store.releases.get());
+    }
+
+    private IdempotencyClaimPolicy policy(boolean enabled) {
+        return new IdempotencyClaimPolicy(store, enabled, Duration.ofSeconds(30), Duration.ofMillis(10), meterRegistry);
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("idempotency.claim", "result", result).count();
+    }
+
+    private static class ScriptedStore implements IdempotencyStorePort {
+        final Deque<Boolean> claimResults = new ArrayDeque<>();
+        final Deque<Optional<VehicleAnalysis>> responses = new ArrayDeque<>();
+        final AtomicInteger claims = new AtomicInteger();
+        final AtomicInteger releases = new AtomicInteger();
+        volatile boolean alwaysClaimed;
+        volatile RuntimeException claimFailure;
+
+        @Override
+        public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
+            Optional<VehicleAnalysis> response = responses.poll();
+            return response != null ? response : Optional.empty();
+        }
+
+        @Override
+        public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
+        }
+
+        @Override
+        public CompletableFuture<Boolean> claim(String idempotencyKey, Duration lease) {
+            claims.incrementAndGet();
+            if (claimFailure != null) {
+                return CompletableFuture.failedFuture(claimFailure);
+            }
+            if (alwaysClaimed) {
+                return CompletableFuture.completedFuture(false);
+            }
+            return CompletableFuture.completedFuture(claimResults.poll());
+        }
+
+        @Override
+        public void releaseClaim(String idempotencyKey) {
+            releases.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightAnalysisRegistryTest {
+
+    private static final String VIN = "9BWZZZ377VT004251";
+
+    private SimpleMeterRegistry meterRegistry;
+    private InFlightAnalysisRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new InFlightAnalysisRegistry(meterRegistry);
+    }
+
+    @Test
+    void chamadasConcorrentesParaMesmoVinDevemCompartilharAnalise() {
+        CompletableFuture<VehicleAnalysis> source = new CompletableFuture<>();
+        AtomicInteger execucoes = new AtomicInteger();
+
+        CompletableFuture<VehicleAnalysis> primeira = registry.join(VIN, () -> {
+            execucoes.incrementAndGet();
+            return run(source);
+        });
+        CompletableFuture<VehicleAnalysis> segunda = registry.join(VIN, () -> {
+            execucoes.incrementAndGet();
+            return run(new CompletableFuture<>());
+        });
+
+        VehicleAnalysis analysis = VehicleAnalysis.builder().vin(VIN).build();
+        source.complete(analysis);
+
+        assertEquals(1, execucoes.get());
+        assertSame(analysis, primeira.join());
+        assertSame(analysis, segunda.join());
+        assertEquals(1.0, meterRegistry.get("analysis.singleflight").tag("role", "leader").counter().count());
+        assertEquals(1.0, meterRegistry.get("analysis.singleflight").tag("role", "coalesced").counter().count());
+    }
+
+    @Test
+    void deveIniciarNovaAnaliseAposConclusao() {
+        registry.join(VIN, () -> run(CompletableFuture.completedFuture(VehicleAnalysis.builder().vin(VIN).build()))).join();
+
+
+        AtomicInteger execucoes = new AtomicInteger();
+        registry.join(VIN, () -> {
+            execucoes.incrementAndGet();
+            return run(CompletableFuture.completedFuture(VehicleAnalysis.builder().vin(VIN).build()));
+        }).join();
+
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void cancelamentoDeUmChamadorNaoDeveAfetarOsDemais() {
+        CompletableFuture<VehicleAnalysis> source = new CompletableFuture<>();
+
+        CompletableFuture<VehicleAnalysis> primeira = registry.join(VIN, () -> run(source));
+        CompletableFuture<VehicleAnalysis> segunda = registry.join(VIN, () -> run(source));
+
+        primeira.cancel(true);
+
+        assertFalse(source.isCancelled());
+        VehicleAnalysis analysis = VehicleAnalysis.builder().vin(VIN).build();
+        source.complete(analysis);
+        assertSame(analysis, segunda.join());
+    }
+
+    @Test
+    void deveCancelarAnaliseQuandoTodosOsChamadoresDesistirem() {
+        CompletableFuture<VehicleAnalysis> source = new CompletableFuture<>();
+        VehicleAnalysis parcial = VehicleAnalysis.builder().vin(VIN).build();
+
+        CompletableFuture<VehicleAnalysis> primeira = registry.join(VIN, () -> new AnalysisRun(source, () -> parcial));
+        CompletableFuture<VehicleAnalysis> segunda = registry.join(VIN, () -> run(source));
+
+        primeira.cancel(true);
+        segunda.cancel(true);
+
+        assertTrue(source.isCancelled());
+        assertTrue(registry.partial(VIN).isEmpty());
+    }
+
+    @Test
+    void naoDeveAnexarAAnaliseCanceladaQueAindaNaoSaiuDoRegistro() {
+        // Fonte que só termina depois de propagar o cancelamento aos fornecedores
+        CompletableFuture<VehicleAnalysis> cancelada = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return false;
+            }
+        };
+        VehicleAnalysis parcialCancelada = VehicleAnalysis.builder().vin(VIN).build();
+        registry.join(VIN, () -> new AnalysisRun(cancelada, () -> parcialCancelada)).cancel(true);
+        assertSame(parcialCancelada, registry.partial(VIN).orElseThrow());
+
+        CompletableFuture<VehicleAnalysis> nova = new CompletableFuture<>();
+        VehicleAnalysis parcialNova = VehicleAnalysis.builder().vin(VIN).build();
+        CompletableFuture<VehicleAnalysis> terceira = registry.join(VIN, () -> new AnalysisRun(nova, () -> parcialNova));
+        assertEquals(2.0, meterRegistry.get("analysis.singleflight").tag("role", "leader").counter().count());
+
+        // O fim tardio da análise cancelada não pode tirar a nova do registro
+        cancelada.complete(VehicleAnalysis.builder().vin(VIN).build());
+        assertSame(parcialNova, registry.partial(VIN).orElseThrow());
+
+        VehicleAnalysis analysis = VehicleAnalysis.builder().vin(VIN).build();
+        nova.complete(analysis);
+        assertSame(analysis, terceira.join());
+        assertTrue(registry.partial(VIN).isEmpty());
+    }
+
+    @Test
+    void falhaNaAnaliseDevePropagarParaTodosOsChamadores() {
+        CompletableFuture<VehicleAnalysis> source = new CompletableFuture<>();
+        VehicleAnalysis parcial = VehicleAnalysis.builder().vin(VIN).build();
+
+        CompletableFuture<VehicleAnalysis> primeira = registry.join(VIN, () -> new AnalysisRun(source, () -> parcial));
+        CompletableFuture<VehicleAnalysis> segunda = registry.join(VIN, () -> run(source));
+
+        source.completeExceptionally(new IllegalStateException("falha"));
+
+        assertTrue(primeira.isCompletedExceptionally());
+        assertTrue(segunda.isCompletedExceptionally());
+        assertTrue(registry.partial(VIN).isEmpty());
+    }
+
+    @Test
+    void deveExporVisaoParcialSomenteEnquantoAnaliseEstiverEmAndamento() {
+        CompletableFuture<VehicleAnalysis> source = new CompletableFuture<>();
+        VehicleAnalysis parcial = VehicleAnalysis.builder().vin(VIN).build();
+
+        registry.join(VIN, () -> new AnalysisRun(source, () -> parcial));
+
+        assertSame(parcial, registry.partial(VIN).orElseThrow());
+
+        source.complete(VehicleAnalysis.builder().vin(VIN).build());
+
+        assertTrue(registry.partial(VIN).isEmpty());
+    }
+
+    private static AnalysisRun run(CompletableFuture<VehicleAnalysis> source) {
+        return new AnalysisRun(source, () -> null);
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartialResponsePolicyTest {
+
+    private static final String VIN = "9BWZZZ377VT004251";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void deveResponderComVisaoParcialAoFimDoOrcamento() throws Exception {
+        PartialResponsePolicy policy = new PartialResponsePolicy(true, Duration.ofMillis(20), meterRegistry);
+        CompletableFuture<VehicleAnalysis> analysis = new CompletableFuture<>();
+        VehicleAnalysis parcial = VehicleAnalysis.builder().vin(VIN).build();
+
+        CompletableFuture<VehicleAnalysis> response = policy.withinBudget(analysis, () -> Optional.of(parcial), Runnable::run);
+
+        assertSame(parcial, response.get(1, TimeUnit.SECONDS));
+        assertFalse(analysis.isDone());
+
+        analysis.complete(VehicleAnalysis.builder().vin(VIN).build());
+        assertEquals(1.0, meterRegistry.get("analysis.partial.late.results").counter().count());
+    }
+
+    @Test
+    void deveResponderComAnaliseCompletaDentroDoOrcamento() throws Exception {
+        PartialResponsePolicy policy = new PartialResponsePolicy(true, Duration.ofSeconds(10), meterRegistry);
+        CompletableFuture<VehicleAnalysis> analysis = new CompletableFuture<>();
+        VehicleAnalysis completa = VehicleAnalysis.builder().vin(VIN).build();
+
+        CompletableFuture<VehicleAnalysis> response = policy.withinBudget(analysis,
+                () -> Optional.of(VehicleAnalysis.builder().vin(VIN).build()), Runnable::run);
+        analysis.complete(completa);
+
+        assertSame(completa, response.get(1, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("analysis.partial").tag("outcome", "complete").counter().count());
+    }
+
+    @Test
+    void deveCancelarAnaliseQuandoClienteDesistirAntesDaResposta() {
+        PartialResponsePolicy policy = new PartialResponsePolicy(true, Duration.ofSeconds(10), meterRegistry);
+        CompletableFuture<VehicleAnalysis> analysis = new CompletableFuture<>();
+
+        policy.withinBudget(analysis, Optional::empty, Runnable::run).cancel(true);
+
+        assertTrue(analysis.isCancelled());
+    }
+
+    @Test
+    void deveDevolverAnaliseOriginalQuandoDesabilitada() {
+        PartialResponsePolicy policy = new PartialResponsePolicy(false, Duration.ofMillis(1), meterRegistry);
+        CompletableFuture<VehicleAnalysis> analysis = new CompletableFuture<>();
+
+        assertSame(analysis, policy.withinBudget(analysis, Optional::empty, Runnable::run));
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.port.out.AnalysisLogReaderPort;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import br.com.desafio.veiculos.domain.VehicleAnalysisLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestrictedVehicleFilterTest {
+
+    private static final String RESTRICTED = "9BWZZZ377VT004251";
+    private static final String LIFTED = "9BWZZZ377VT004252";
+    private static final String UNKNOWN_F1 = "9BWZZZ377VT004253";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void deveConterVinsComRestricaoNoUltimoLog() {
+        RestrictedVehicleFilter filter = filter(replaying(
+                log(RESTRICTED, true, SupplierStatus.Status.SUCCESS),
+                log(LIFTED, true, SupplierStatus.Status.SUCCESS),
+                log(LIFTED, false, SupplierStatus.Status.SUCCESS)));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightBeRestricted(RESTRICTED));
+        assertFalse(filter.mightBeRestricted(LIFTED));
+    }
+
+    @Test
+    void deveIgnorarLogsSemRespostaDeF1() {
+        RestrictedVehicleFilter filter = filter(replaying(
+                log(UNKNOWN_F1, true, SupplierStatus.Status.SUCCESS),
+                log(UNKNOWN_F1, false, SupplierStatus.Status.TIMEOUT)));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightBeRestricted(UNKNOWN_F1));
+    }
+
+    @Test
+    void deveIncluirRestricaoEncontradaEntreReconstrucoes() {
+        RestrictedVehicleFilter filter = filter(replaying());
+        filter.rebuild();
+
+        filter.recordOutcome(RESTRICTED, true);
+
+        assertTrue(filter.mightBeRestricted(RESTRICTED));
+    }
+
+    @Test
+    void deveContarFalsoPositivoObservado() {
+        RestrictedVehicleFilter filter = filter(replaying(log(RESTRICTED, true, SupplierStatus.Status.SUCCESS)));
+        filter.rebuild();
+
+        filter.recordOutcome(RESTRICTED, false);
+
+        assertEquals(1.0, meterRegistry.get("analysis.constraint-filter.false.positive").counter().count());
+    }
+
+    @Test
+    void deveManterSnapshotAnteriorQuandoReconstrucaoFalhar() {
+        boolean[] fail = {false};
+        RestrictedVehicleFilter filter = filter((since, maxRecords, deadline, sink) -> {
+            if (fail[0]) {
+                throw new IllegalStateException("Kafka indisponível");
+            }
+            sink.accept(log(RESTRICTED, true, SupplierStatus.Status.SUCCESS));
+            return 1;
+        });
+        filter.rebuild();
+        fail[0] = true;
+
+        filter.rebuild();
+
+        assertTrue(filter.mightBeRestricted(RESTRICTED));
+        assertEquals(1.0, meterRegistry.get("analysis.constraint-filter.rebuild.failures").counter().count());
+    }
+
+    @Test
+    void naoDeveCarregarQuandoDesabilitado() {
+        RestrictedVehicleFilter filter = new RestrictedVehicleFilter(replaying(log(RESTRICTED, true, SupplierStatus.Status.SUCCESS)),
+                false, Duration.ofDays(7), 1_000, 1_000, 0.01, Duration.ofSeconds(5), meterRegistry);
+
+        filter.rebuild();
+
+        assertFalse(filter.isReady());
+        assertFalse(filter.mightBeRestricted(RESTRICTED));
+    }
+
+    @Test
+    void deveReportarMemoriaETaxaDeFalsoPositivo() {
+        RestrictedVehicleFilter filter = filter(replaying(log(RESTRICTED, true, SupplierStatus.Status.SUCCESS)));
+
+        filter.rebuild();
+
+        assertTrue(meterRegistry.get("analysis.constraint-filter.bytes").gauge().value() > 0);
+        assertTrue(meterRegistry.get("analysis.constraint-filter.false.positive.rate").gauge().value() < 0.01);
+    }
+
+    private RestrictedVehicleFilter filter(AnalysisLogReaderPort reader) {
+        return new RestrictedVehicleFilter(reader, true, Duration.ofDays(7), 1_000, 1_000, 0.01,
+                Duration.ofSeconds(5), meterRegistry);
+    }
+
+    private static AnalysisLogReaderPort replaying(VehicleAnalysisLog... logs) {
+        return (since, maxRecords, deadline, sink) -> {
+            List.of(logs).forEach(sink);
+            return logs.length;
+        };
+    }
+
+    private static VehicleAnalysisLog log(String vin, boolean hasConstraints, SupplierStatus.Status f1Status) {
+        return VehicleAnalysisLog.builder()
+                .vinCanonical(vin)
+                .hasConstraints(hasConstraints)
+                .supplierCalls(Map.of("F1", new SupplierStatus(f1Status, 100, null)))
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.Freshness;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaleWhileRevalidatePolicyTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StaleWhileRevalidatePolicy policy = new StaleWhileRevalidatePolicy(
+            true, Duration.ofHours(1), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    private final List<VehicleAnalysis> stored = new ArrayList<>();
+    private final AtomicInteger refreshes = new AtomicInteger();
+
+    @Test
+    void deveMarcarComoFreshDentroDoTtl() {
+        VehicleAnalysis served = policy.annotate(analysisAt(NOW.minusSeconds(600), SupplierStatus.Status.SUCCESS));
+
+        assertEquals(Freshness.State.FRESH, served.freshness().state());
+        assertEquals(Long.valueOf(600), served.freshness().ageSeconds());
+    }
+
+    @Test
+    void deveMarcarComoStaleAposOTtlOuSemDataConhecida() {
+        assertTrue(policy.annotate(analysisAt(NOW.minusSeconds(7200), SupplierStatus.Status.SUCCESS)).freshness().isStale());
+        assertTrue(policy.annotate(analysisAt(null, SupplierStatus.Status.SUCCESS)).freshness().isStale());
+    }
+
+    @Test
+    void deveAtualizarUmaUnicaVezPorChave() {
+        VehicleAnalysis served = policy.annotate(analysisAt(NOW.minusSeconds(7200), SupplierStatus.Status.SUCCESS));
+        CompletableFuture<VehicleAnalysis> refresh = new CompletableFuture<>();
+
+        policy.revalidateIfStale("chave", served, () -> start(refresh), stored::add);
+        policy.revalidateIfStale("chave", served, () -> start(refresh), stored::add);
+        assertEquals(1, refreshes.get());
+
+        VehicleAnalysis fresh = analysisAt(NOW, SupplierStatus.Status.SUCCESS);
+        refresh.complete(fresh);
+
+        assertEquals(List.of(fresh), stored);
+        assertEquals(1.0, meterRegistry.counter("analysis.swr.refresh", "outcome", "coalesced").count());
+
+        // Concluída a atualização, uma nova entrega STALE pode disparar outra
+        policy.revalidateIfStale("chave", served, () -> start(CompletableFuture.completedFuture(fresh)), stored::add);
+        assertEquals(2, refreshes.get());
+    }
+
+    @Test
+    void naoDeveSubstituirPorAtualizacaoDegradada() {
+        VehicleAnalysis served = policy.annotate(analysisAt(NOW.minusSeconds(7200), SupplierStatus.Status.SUCCESS));
+
+        policy.revalidateIfStale("chave", served,
+                () -> start(CompletableFuture.completedFuture(analysisAt(NOW, SupplierStatus.Status.TIMEOUT))), stored::add);
+
+        assertTrue(stored.isEmpty());
+        assertEquals(1.0, meterRegistry.counter("analysis.swr.refresh", "outcome", "degraded").count());
+    }
+
+    @Test
+    void naoDeveAtualizarAnaliseFreshNemComPoliticaDesabilitada() {
+        VehicleAnalysis fresh = policy.annotate(analysisAt(NOW.minusSeconds(10), SupplierStatus.Status.SUCCESS));
+        policy.revalidateIfStale("chave", fresh, () -> start(new CompletableFuture<>()), stored::add);
+
+        StaleWhileRevalidatePolicy disabled = new StaleWhileRevalidatePolicy(
+                false, Duration.ofHours(1), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        VehicleAnalysis stale = disabled.annotate(analysisAt(NOW.minusSeconds(7200), SupplierStatus.Status.SUCCESS));
+        disabled.revalidateIfStale("chave", stale, () -> start(new CompletableFuture<>()), stored::add);
+
+        assertTrue(stale.freshness().isStale());
+        assertEquals(0, refreshes.get());
+    }
+
+    private CompletableFuture<VehicleAnalysis> start(CompletableFuture<VehicleAnalysis> refresh) {
+        refreshes.incrementAndGet();
+        return refresh;
+    }
+
+    private VehicleAnalysis analysisAt(Instant analyzedAt, SupplierStatus.Status f1Status) {
+        SupplierStatus status = f1Status == SupplierStatus.Status.SUCCESS
+                ? SupplierResult.success("F1", 10, null).status()
+                : SupplierResult.timeout("F1", 400).status();
+        return VehicleAnalysis.builder()
+                .vin("9BWZZZ377VT004251")
+                .supplierStatus(Map.of("F1", status))
+                .analyzedAt(analyzedAt)
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SupplierGraphTest {
+
+    private static final String VIN = "9BWZZZ377VT004251";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void deveOrdenarDependenciasAntesDosDependentes() {
+        SupplierGraph graph = new SupplierGraph(List.of(
+                supplier("F3", Set.of(), 0, deps -> true),
+                supplier("F2", Set.of("F1"), 0, deps -> true),
+                supplier("F1", Set.of(), 0, deps -> true)), meterRegistry);
+
+        assertArrayEquals(new String[] {"F1", "F2", "F3"}, graph.supplierNames());
+    }
+
+    @Test
+    void deveRejeitarDependenciaCircularOuDesconhecida() {
+        assertThrows(IllegalStateException.class, () -> new SupplierGraph(List.of(
+                supplier("A", Set.of("B"), 0, deps -> true),
+                supplier("B", Set.of("A"), 0, deps -> true)), meterRegistry));
+        assertThrows(IllegalStateException.class, () -> new SupplierGraph(List.of(
+                supplier("A", Set.of("X"), 0, deps -> true)), meterRegistry));
+    }
+
+    @Test
+    void deveRegistrarNotCalledQuandoDependenteNaoForAtivado() throws Exception {
+        AtomicInteger f2Calls = new AtomicInteger();
+        SupplierGraph graph = new SupplierGraph(List.of(
+                supplier("F1", Set.of(), 0, deps -> true),
+                counting(supplier("F2", Set.of("F1"), 0, deps -> false), f2Calls)), meterRegistry);
+        SupplierResultAccumulator results = new SupplierResultAccumulator(graph.supplierNames());
+
+        try (AnalysisScope scope = new AnalysisScope(executor)) {
+            graph.execute(VIN, Deadline.none(), scope, results, SpeculationHook.NONE).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(SupplierStatus.Status.SUCCESS, results.get(0).status().status());
+        assertEquals(SupplierStatus.Status.NOT_CALLED, results.get(1).status().status());
+        assertEquals(0, f2Calls.get());
+    }
+
+    @Test
+    void deveAcionarDependenteComResultadosDasDependencias() throws Exception {
+        SupplierGraph graph = new SupplierGraph(List.of(
+                supplier("F1", Set.of(), 30, deps -> true),
+                supplier("F2", Set.of("F1"), 10, deps -> "F1".equals(deps.get("F1").data())),
+                supplier("F3", Set.of(), 0, deps -> true)), meterRegistry);
+        SupplierResultAccumulator results = new SupplierResultAccumulator(graph.supplierNames());
+
+        try (AnalysisScope scope = new AnalysisScope(executor)) {
+            graph.execute(VIN, Deadline.none(), scope, results, SpeculationHook.NONE).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals("F2", results.get(1).data());
+        assertEquals(1, meterRegistry.get("analysis.critical.path").tag("path", "F1>F2").timer().count());
+    }
+
+    @Test
+    void deveDescartarChamadaEspeculativaQuandoDependenteNaoForAtivado() throws Exception {
+        AtomicInteger discarded = new AtomicInteger();
+        SpeculationHook alwaysEarly = new SpeculationHook() {
+            @Override
+            public boolean shouldStartEarly(String supplierName, String vin) {
+                return true;
+            }
+
+            @Override
+            public void onActivationResolved(String supplierName, String vin, boolean activated) {
+            }
+
+            @Override
+            public void onEarlyStartUsed(String supplierName, long dependenciesLatencyMs, SupplierResult<?> result) {
+            }
+
+            @Override
+            public void onEarlyStartDiscarded(String supplierName) {
+                discarded.incrementAndGet();
+            }
+        };
+        SupplierGraph graph = new SupplierGraph(List.of(
+                supplier("F1", Set.of(), 0, deps -> true),
+                supplier("F2", Set.of("F1"), 200, deps -> false)), meterRegistry);
+        SupplierResultAccumulator results = new SupplierResultAccumulator(graph.supplierNames());
+
+        try (AnalysisScope scope = new AnalysisScope(executor)) {
+            graph.execute(VIN, Deadline.none(), scope, results, alwaysEarly).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(SupplierStatus.Status.NOT_CALLED, results.get(1).status().status());
+        assertEquals(1, discarded.get());
+    }
+
+    private SupplierPort counting(SupplierPort delegate, AtomicInteger calls) {
+        return supplier(delegate.getSupplierName(), delegate.dependsOn(), 0, delegate::shouldActivate, calls);
+    }
+
+    private SupplierPort supplier(String name, Set<String> dependsOn, long latencyMs,
+                                  Predicate<Map<String, SupplierResult<?>>> activation) {
+        return supplier(name, dependsOn, latencyMs, activation, new AtomicInteger());
+    }
+
+    private SupplierPort supplier(String name, Set<String> dependsOn, long latencyMs,
+                                  Predicate<Map<String, SupplierResult<?>>> activation, AtomicInteger calls) {
+        return new SupplierPort() {
+            @Override
+            public SupplierResult<Object> fetchData(String vin) {
+                calls.incrementAndGet();
+                try {
+                    Thread.sleep(latencyMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return SupplierResult.failure(name, latencyMs, "interrompido");
+                }
+                return SupplierResult.success(name, latencyMs, name);
+            }
+
+            @Override
+            public String getSupplierName() {
+                return name;
+            }
+
+            @Override
+            public Set<String> dependsOn() {
+                return dependsOn;
+            }
+
+            @Override
+            public boolean shouldActivate(Map<String, SupplierResult<?>> dependencies) {
+                return activation.test(dependencies);
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.domain.SupplierResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SupplierResultAccumulatorTest {
+
+    @Test
+    void deveConsolidarNaOrdemDosSlotsIndependenteDaOrdemDeChegada() {
+        SupplierResultAccumulator accumulator = new SupplierResultAccumulator("F1", "F2", "F3");
+
+        accumulator.record(2, SupplierResult.success("F3", 10, "f3"));
+        accumulator.record(1, SupplierResult.success("F2", 10, "f2"));
+        accumulator.record(0, SupplierResult.success("F1", 10, "f1"));
+
+        assertEquals(List.of("F1", "F2", "F3"), recorded(accumulator));
+        assertEquals("f1", accumulator.get(0).data());
+    }
+
+    @Test
+    void deveIgnorarSlotsSemResultado() {
+        SupplierResultAccumulator accumulator = new SupplierResultAccumulator("F1", "F2", "F3");
+        accumulator.record(0, SupplierResult.notCalled("F1"));
+
+        assertEquals(List.of("F1"), recorded(accumulator));
+        assertNull(accumulator.get(1));
+    }
+
+    @Test
+    void naoDevePermitirSobrescreverResultado() {
+        SupplierResultAccumulator accumulator = new SupplierResultAccumulator("F1", "F2", "F3");
+        accumulator.record(0, SupplierResult.notCalled("F1"));
+
+        assertThrows(IllegalStateException.class,
+                () -> accumulator.record(0, SupplierResult.notCalled("F1")));
+    }
+
+    @Test
+    void devePublicarResultadosEscritosPorOutrasThreads() throws InterruptedException {
+        SupplierResultAccumulator accumulator = new SupplierResultAccumulator("F1", "F2", "F3");
+
+        Thread[] writers = new Thread[accumulator.size()];
+        for (int slot = 0; slot < writers.length; slot++) {
+            int current = slot;
+            writers[slot] = new Thread(() -> accumulator.record(current,
+                    SupplierResult.success(accumulator.supplierName(current), 1, current)));
+            writers[slot].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        for (int slot = 0; slot < accumulator.size(); slot++) {
+            assertEquals(slot, accumulator.get(slot).data());
+        }
+    }
+
+    /**
+     * Fornecedores com resultado, percorrendo os slots como a consolidação da análise.
+     */
+    private static List<String> recorded(SupplierResultAccumulator accumulator) {
+        List<String> names = new ArrayList<>();
+        for (int slot = 0; slot < accumulator.size(); slot++) {
+            if (accumulator.get(slot) != null) {
+                names.add(accumulator.supplierName(slot));
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,341 @@
+package br.com.desafio.veiculos.application.service;
+
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.application.port.out.IdentifierNormalizationPort;
+import br.com.desafio.veiculos.application.port.out.NegativeResultCachePort;
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import br.com.desafio.veiculos.domain.Constraints;
+import br.com.desafio.veiculos.domain.IdentifierType;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import br.com.desafio.veiculos.domain.f1.F1ResponseData;
+import br.com.desafio.veiculos.infrastructure.mappers.VehicleAnalysisMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VehicleAnalysisServiceTest {
+
+    private static final String VIN = "9BWZZZ377VT004251";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4, runnable -> new Thread(runnable, "analise-teste"));
+    private final RecordingNormalization normalization = new RecordingNormalization();
+    private final AtomicInteger supplierCalls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        MDC.remove("traceId");
+    }
+
+    @Test
+    void deveContinuarNoExecutorComOTraceIdDaRequisicaoQuandoAConsultaConcluirDepois() throws Exception {
+        AsyncStore store = new AsyncStore();
+        VehicleAnalysisService service = service(store, supplier());
+
+        MDC.put("traceId", "trace-1");
+        CompletableFuture<VehicleAnalysis> analysis = service.analyzeVehicleAsync(VIN, "chave");
+        MDC.remove("traceId");
+        Thread io = new Thread(() -> store.lookup.complete(Optional.empty()), "store-io");
+        io.start();
+        io.join();
+
+        assertEquals(VIN, analysis.get(1, TimeUnit.SECONDS).vin());
+        assertEquals("trace-1", normalization.traceId.get());
+        assertEquals("analise-teste", normalization.thread.get());
+    }
+
+    @Test
+    void naoDeveConsultarOsFornecedoresQuandoOChamadorDesistirDuranteAConsulta() throws Exception {
+        AsyncStore store = new AsyncStore();
+        VehicleAnalysisService service = service(store, supplier());
+
+        CompletableFuture<VehicleAnalysis> analysis = service.analyzeVehicleAsync(VIN, "chave");
+        analysis.cancel(true);
+        store.lookup.complete(Optional.empty());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+
+        assertNull(normalization.thread.get());
+        assertEquals(0, supplierCalls.get());
+    }
+
+    @Test
+    void cancelamentoAposAConsultaDeveChegarAAnaliseCompartilhada() throws Exception {
+        AsyncStore store = new AsyncStore();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        VehicleAnalysisService service = service(store, new SupplierPort() {
+            @Override
+            public SupplierResult<Object> fetchData(String vin) {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return SupplierResult.failure("F1", 0, "interrompido");
+            }
+
+            @Override
+            public String getSupplierName() {
+                return "F1";
+            }
+        });
+
+        CompletableFuture<VehicleAnalysis> analysis = service.analyzeVehicleAsync(VIN, "chave");
+        store.lookup.complete(Optional.empty());
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        analysis.cancel(true);
+
+        assertThrows(CancellationException.class, analysis::join);
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "A consulta ao fornecedor deve ser interrompida");
+        assertFalse(store.stored.containsKey("chave"));
+    }
+
+    @Test
+    void deveReservarAChaveEGravarARespostaAoFimDaAnalise() throws Exception {
+        SharedStore shared = new SharedStore();
+        NodeStore node = shared.node("no-1");
+
+        VehicleAnalysis analysis = service(node, claims(node), supplier()).analyzeVehicleAsync(VIN, "chave").get(1, TimeUnit.SECONDS);
+
+        assertEquals(VIN, analysis.vin());
+        assertEquals(1, supplierCalls.get());
+        assertEquals(1.0, claimCount("acquired"));
+        assertSame(analysis, shared.responses.get("chave"));
+        assertTrue(shared.owners.isEmpty(), "A gravação da resposta encerra a reserva");
+    }
+
+    @Test
+    void requisicaoRepetidaNaMesmaInstanciaDeveSeJuntarAAnaliseEmAndamento() throws Exception {
+        SharedStore shared = new SharedStore();
+        NodeStore node = shared.node("no-1");
+        CountDownLatch release = new CountDownLatch(1);
+        VehicleAnalysisService service = service(node, claims(node), supplier(release));
+
+        CompletableFuture<VehicleAnalysis> first = service.analyzeVehicleAsync(VIN, "chave");
+        CompletableFuture<VehicleAnalysis> second = service.analyzeVehicleAsync(VIN, "chave");
+        release.countDown();
+
+        assertEquals(VIN, first.get(1, TimeUnit.SECONDS).vin());
+        assertEquals(VIN, second.get(1, TimeUnit.SECONDS).vin());
+        assertEquals(1, supplierCalls.get());
+        assertEquals(2.0, claimCount("acquired"));
+        assertEquals(0.0, claimCount("waited"));
+        assertEquals(1.0, meterRegistry.get("analysis.singleflight").tag("role", "coalesced").counter().count());
+    }
+
+    @Test
+    void outraInstanciaDeveAguardarARespostaGravadaPelaQueDetemAChave() throws Exception {
+        SharedStore shared = new SharedStore();
+        NodeStore first = shared.node("no-1");
+        NodeStore second = shared.node("no-2");
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<VehicleAnalysis> owner = service(first, claims(first), supplier(release)).analyzeVehicleAsync(VIN, "chave");
+        CompletableFuture<VehicleAnalysis> waiting = service(second, claims(second), supplier(release)).analyzeVehicleAsync(VIN, "chave");
+        release.countDown();
+
+        // A resposta entregue a quem aguardou é a gravada por quem detinha a chave
+        assertEquals(owner.get(1, TimeUnit.SECONDS).analyzedAt(), waiting.get(1, TimeUnit.SECONDS).analyzedAt());
+        assertEquals(1, supplierCalls.get());
+        assertEquals(1.0, claimCount("waited"));
+    }
+
+    @Test
+    void deveDesfazerAReservaQuandoARespostaNaoForGravada() throws Exception {
+        SharedStore shared = new SharedStore();
+        NodeStore node = shared.node("no-1");
+        SupplierPort unknown = new SupplierPort() {
+            @Override
+            public SupplierResult<Object> fetchData(String vin) {
+                return SupplierResult.notFound("F1", 5);
+            }
+
+            @Override
+            public String getSupplierName() {
+                return "F1";
+            }
+        };
+
+        service(node, claims(node), unknown).analyzeVehicleAsync(VIN, "chave").get(1, TimeUnit.SECONDS);
+
+        assertFalse(shared.responses.containsKey("chave"));
+        assertTrue(shared.owners.isEmpty(), "Sem resposta gravada, a reserva deve ser desfeita");
+    }
+
+    private IdempotencyClaimPolicy claims(IdempotencyStorePort store) {
+        return new IdempotencyClaimPolicy(store, true, Duration.ofSeconds(30), Duration.ofMillis(20), meterRegistry);
+    }
+
+    private double claimCount(String result) {
+        return meterRegistry.counter("idempotency.claim", "result", result).count();
+    }
+
+    private VehicleAnalysisService service(IdempotencyStorePort store, SupplierPort... suppliers) {
+        return service(store, new IdempotencyClaimPolicy(store, false, Duration.ofSeconds(30), Duration.ofMillis(20), meterRegistry),
+                suppliers);
+    }
+
+    private VehicleAnalysisService service(IdempotencyStorePort store, IdempotencyClaimPolicy claimPolicy,
+                                           SupplierPort... suppliers) {
+        RestrictedVehicleFilter restrictedVehicles = new RestrictedVehicleFilter((since, maxRecords, deadline, sink) -> 0,
+                false, Duration.ofDays(7), 1_000, 1_000, 0.01, Duration.ofSeconds(1), meterRegistry);
+        return new VehicleAnalysisService(normalization, List.of(suppliers), logEntry -> { }, store, new NoNegativeCache(),
+                new VehicleAnalysisMapper(), executor, meterRegistry,
+                new F2SpeculationPolicy(false, 0.6, 0, Duration.ofMinutes(1), 1_000, 8, 20, restrictedVehicles, meterRegistry),
+                new PartialResponsePolicy(false, Duration.ofMillis(200), meterRegistry),
+                new StaleWhileRevalidatePolicy(false, Duration.ofHours(1), meterRegistry),
+                claimPolicy);
+    }
+
+    private SupplierPort supplier() {
+        return supplier(new CountDownLatch(0));
+    }
+
+    /**
+     * Fornecedor que só responde depois de {@code release}.
+     */
+    private SupplierPort supplier(CountDownLatch release) {
+        return new SupplierPort() {
+            @Override
+            public SupplierResult<Object> fetchData(String vin) {
+                supplierCalls.incrementAndGet();
+                try {
+                    release.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return SupplierResult.failure("F1", 0, "interrompido");
+                }
+                return SupplierResult.success("F1", 5, new F1ResponseData(vin, new Constraints(false, false)));
+            }
+
+            @Override
+            public String getSupplierName() {
+                return "F1";
+            }
+        };
+    }
+
+    /**
+     * Store cuja consulta só conclui quando o teste completar {@code lookup}.
+     */
+    private static final class AsyncStore implements IdempotencyStorePort {
+        final CompletableFuture<Optional<VehicleAnalysis>> lookup = new CompletableFuture<>();
+        final Map<String, VehicleAnalysis> stored = new ConcurrentHashMap<>();
+
+        @Override
+        public CompletableFuture<Optional<VehicleAnalysis>> getResponseAsync(String idempotencyKey) {
+            return lookup;
+        }
+
+        @Override
+        public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
+            return Optional.ofNullable(stored.get(idempotencyKey));
+        }
+
+        @Override
+        public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
+            stored.put(idempotencyKey, response);
+        }
+    }
+
+    /**
+     * MongoDB compartilhado entre instâncias, com a semântica da reserva: resposta gravada ou reserva de outra
+     * instância recusam o claim; a própria instância reentra na sua reserva.
+     */
+    private static final class SharedStore {
+        final Map<String, VehicleAnalysis> responses = new ConcurrentHashMap<>();
+        final Map<String, String> owners = new ConcurrentHashMap<>();
+
+        NodeStore node(String nodeId) {
+            return new NodeStore(this, nodeId);
+        }
+    }
+
+    private record NodeStore(SharedStore shared, String nodeId) implements IdempotencyStorePort {
+
+        @Override
+        public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
+            return Optional.ofNullable(shared.responses.get(idempotencyKey));
+        }
+
+        @Override
+        public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
+            shared.responses.put(idempotencyKey, response);
+            shared.owners.remove(idempotencyKey);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> claim(String idempotencyKey, Duration lease) {
+            if (shared.responses.containsKey(idempotencyKey)) {
+                return CompletableFuture.completedFuture(false);
+            }
+            String owner = shared.owners.putIfAbsent(idempotencyKey, nodeId);
+            return CompletableFuture.completedFuture(owner == null || owner.equals(nodeId));
+        }
+
+        @Override
+        public void releaseClaim(String idempotencyKey) {
+            shared.owners.remove(idempotencyKey, nodeId);
+        }
+    }
+
+    /**
+     * Normalização identidade que registra a thread e o traceId em que a análise prosseguiu.
+     */
+    private static final class RecordingNormalization implements IdentifierNormalizationPort {
+        final AtomicReference<String> thread = new AtomicReference<>();
+        final AtomicReference<String> traceId = new AtomicReference<>();
+
+        @Override
+        public IdentifierType identifyType(String identifier) {
+            return IdentifierType.VIN;
+        }
+
+        @Override
+        public String normalizeToVin(String identifier, IdentifierType type) {
+            thread.set(Thread.currentThread().getName());
+            traceId.set(MDC.get("traceId"));
+            return identifier;
+        }
+    }
+
+    private static final class NoNegativeCache implements NegativeResultCachePort {
+        @Override
+        public boolean isRejectedIdentifier(String identifier) {
+            return false;
+        }
+
+        @Override
+        public void rememberRejectedIdentifier(String identifier) {
+        }
+
+        @Override
+        public Optional<VehicleAnalysis> getUnknownVehicle(String vin) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void rememberUnknownVehicle(String vin, VehicleAnalysis analysis) {
+        }
+    }
+}
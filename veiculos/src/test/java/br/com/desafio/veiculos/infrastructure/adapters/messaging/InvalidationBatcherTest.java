@@ -0,0 +1,63 @@
+package br.com.desafio.veiculos.infrastructure.adapters.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidationBatcherTest {
+
+    private final List<List<String>> sent = new ArrayList<>();
+
+    @Test
+    void deveCompactarVinsRepetidosNoLotePendente() {
+        InvalidationBatcher batcher = new InvalidationBatcher(10, sent::add);
+
+        assertTrue(batcher.add("9BWZZZ377VT004251"));
+        assertFalse(batcher.add("9BWZZZ377VT004251"));
+        assertTrue(batcher.add("9BWZZZ377VT004252"));
+        batcher.flush();
+
+        assertEquals(1, sent.size());
+        assertEquals(Set.of("9BWZZZ377VT004251", "9BWZZZ377VT004252"), new HashSet<>(sent.get(0)));
+    }
+
+    @Test
+    void deveDividirExpurgoEmMassaEmLotesLimitados() {
+        InvalidationBatcher batcher = new InvalidationBatcher(100, sent::add);
+        for (int i = 0; i < 250; i++) {
+            batcher.add(String.format("9BWZZZ377VT%06d", i));
+        }
+
+        assertTrue(batcher.isFull());
+        assertEquals(3, batcher.flush());
+
+        assertEquals(List.of(100, 100, 50), sent.stream().map(List::size).toList());
+        assertEquals(250, sent.stream().flatMap(List::stream).distinct().count());
+        assertEquals(0, batcher.pendingCount());
+    }
+
+    @Test
+    void naoDeveEnviarLoteVazio() {
+        InvalidationBatcher batcher = new InvalidationBatcher(10, sent::add);
+
+        assertEquals(0, batcher.flush());
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void deveAceitarNovamenteVinJaEnviado() {
+        InvalidationBatcher batcher = new InvalidationBatcher(10, sent::add);
+        batcher.add("9BWZZZ377VT004251");
+        batcher.flush();
+
+        assertTrue(batcher.add("9BWZZZ377VT004251"));
+        batcher.flush();
+
+        assertEquals(2, sent.size());
+    }
+}
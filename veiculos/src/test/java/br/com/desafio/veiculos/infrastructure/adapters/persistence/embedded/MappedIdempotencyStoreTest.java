@@ -0,0 +1,211 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.embedded;
+
+import br.com.desafio.veiculos.domain.Constraints;
+import br.com.desafio.veiculos.domain.Infractions;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo.SmileVehicleAnalysisCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedIdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T10:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void deveLerARespostaGravada() {
+        MappedIdempotencyStore store = store(DataSize.ofMegabytes(1));
+
+        store.storeResponse("chave", analysis("9BWZZZ377VT004251"));
+
+        assertEquals("9BWZZZ377VT004251", store.getResponse("chave").orElseThrow().vin());
+        assertTrue(store.getResponse("outra").isEmpty());
+        assertEquals(1.0, meterRegistry.counter("idempotency.store.lookups", "tier", "embedded", "result", "hit").count());
+        assertTrue(meterRegistry.get("idempotency.embedded.index.bytes").gauge().value() > 0);
+    }
+
+    @Test
+    void deveRecuperarRespostasERemocoesAoReabrir() {
+        MappedIdempotencyStore store = store(DataSize.ofMegabytes(1));
+        store.storeResponse("chave-1", analysis("9BWZZZ377VT004251"));
+        store.storeResponse("chave-2", analysis("9BWZZZ377VT004252"));
+        store.storeResponse("chave-1", analysis("9BWZZZ377VT004253"));
+        store.removeByVin("9BWZZZ377VT004252");
+        store.close();
+
+        MappedIdempotencyStore reopened = store(DataSize.ofMegabytes(1));
+
+        assertEquals("9BWZZZ377VT004253", reopened.getResponse("chave-1").orElseThrow().vin());
+        assertTrue(reopened.getResponse("chave-2").isEmpty());
+    }
+
+    @Test
+    void deveExpirarPeloTtlEApagarOSegmento() throws IOException {
+        MappedIdempotencyStore store = store(DataSize.ofMegabytes(1));
+        store.storeResponse("chave", analysis("9BWZZZ377VT004251"));
+
+        clock.advance(Duration.ofHours(2));
+        store.maintain();
+        clock.advance(Duration.ofHours(23));
+
+        assertTrue(store.getResponse("chave").isEmpty());
+        store.maintain();
+        assertEquals(1.0, meterRegistry.counter("idempotency.embedded.segments.expired").count());
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void deveCompactarSegmentosComRespostasSobrescritas() throws IOException {
+        MappedIdempotencyStore store = store(DataSize.ofKilobytes(4));
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 5; i++) {
+                store.storeResponse("chave-" + i, analysis(String.format("9BWZZZ377VT%06d", round * 10 + i)));
+            }
+        }
+        long before = segmentFiles();
+
+        store.maintain();
+
+        assertTrue(meterRegistry.counter("idempotency.embedded.compactions").count() > 0);
+        assertTrue(segmentFiles() < before, "Segmentos compactados devem ser apagados");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(String.format("9BWZZZ377VT%06d", 190 + i), store.getResponse("chave-" + i).orElseThrow().vin());
+        }
+
+        store.close();
+        MappedIdempotencyStore reopened = store(DataSize.ofKilobytes(4));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(String.format("9BWZZZ377VT%06d", 190 + i), reopened.getResponse("chave-" + i).orElseThrow().vin());
+        }
+    }
+
+    @Test
+    void deveIgnorarRegistroFinalComConteudoCorrompidoAoReabrir() throws IOException {
+        assertRecoversFromCorruptedTail((bytes, offset, length) -> bytes[offset + length - 1] ^= 0x5a);
+    }
+
+    @Test
+    void deveIgnorarRegistroFinalComTamanhoCorrompidoAoReabrir() throws IOException {
+        assertRecoversFromCorruptedTail((bytes, offset, length) -> ByteBuffer.wrap(bytes).putInt(offset, Integer.MAX_VALUE));
+    }
+
+    private void assertRecoversFromCorruptedTail(Corruption corruption) throws IOException {
+        MappedIdempotencyStore store = store(DataSize.ofMegabytes(1));
+        store.storeResponse("chave-1", analysis("9BWZZZ377VT004251"));
+        store.storeResponse("chave-2", analysis("9BWZZZ377VT004252"));
+        store.storeResponse("chave-3", analysis("9BWZZZ377VT004253"));
+        store.close();
+        corruptLastRecord(corruption);
+
+        MappedIdempotencyStore reopened = store(DataSize.ofMegabytes(1));
+
+        assertEquals("9BWZZZ377VT004251", reopened.getResponse("chave-1").orElseThrow().vin());
+        assertEquals("9BWZZZ377VT004252", reopened.getResponse("chave-2").orElseThrow().vin());
+        assertTrue(reopened.getResponse("chave-3").isEmpty());
+
+        reopened.storeResponse("chave-3", analysis("9BWZZZ377VT004254"));
+        reopened.storeResponse("chave-4", analysis("9BWZZZ377VT004255"));
+        assertEquals("9BWZZZ377VT004254", reopened.getResponse("chave-3").orElseThrow().vin());
+        reopened.close();
+
+        MappedIdempotencyStore again = store(DataSize.ofMegabytes(1));
+        assertEquals("9BWZZZ377VT004251", again.getResponse("chave-1").orElseThrow().vin());
+        assertEquals("9BWZZZ377VT004254", again.getResponse("chave-3").orElseThrow().vin());
+        assertEquals("9BWZZZ377VT004255", again.getResponse("chave-4").orElseThrow().vin());
+    }
+
+    /**
+     * Percorre os registros do único segmento pelos tamanhos gravados e corrompe o último.
+     */
+    private void corruptLastRecord(Corruption corruption) throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(MappedIdempotencyStore.SEGMENT_SUFFIX))
+                    .findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int offset = MappedSegment.HEADER_BYTES;
+        int last = offset;
+        while (buffer.getInt(offset) > 0) {
+            last = offset;
+            offset += buffer.getInt(offset);
+        }
+        corruption.apply(bytes, last, buffer.getInt(last));
+        Files.write(segment, bytes);
+    }
+
+    @FunctionalInterface
+    private interface Corruption {
+        void apply(byte[] bytes, int offset, int length);
+    }
+
+    private MappedIdempotencyStore store(DataSize segmentSize) {
+        return new MappedIdempotencyStore(new SmileVehicleAnalysisCodec(), directory, Duration.ofHours(24),
+                Duration.ofHours(1), segmentSize, 16, 0.5, meterRegistry, clock);
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(MappedIdempotencyStore.SEGMENT_SUFFIX)).count();
+        }
+    }
+
+    private static VehicleAnalysis analysis(String vin) {
+        return VehicleAnalysis.builder()
+                .vin(vin)
+                .constraints(new Constraints(false, false))
+                .infractions(new Infractions(new BigDecimal("195.54"), List.of(
+                        new Infractions.InfractionDetail("Excesso de velocidade", new BigDecimal("195.54")))))
+                .supplierStatus(Map.of("F1", new SupplierStatus(SupplierStatus.Status.SUCCESS, 120, null)))
+                .analyzedAt(NOW)
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = NOW;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.embedded;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAddressingIndexTest {
+
+    @Test
+    void deveCrescerMantendoTodasAsEntradas() {
+        OpenAddressingIndex index = new OpenAddressingIndex(4);
+
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(0, index.put(MappedIdempotencyStore.hash(bytes(key)), key, key, location -> false));
+        }
+
+        assertEquals(10_000, index.size());
+        for (long key = 1; key <= 10_000; key++) {
+            long expected = key;
+            assertEquals(key, index.get(MappedIdempotencyStore.hash(bytes(key)), location -> location == expected));
+        }
+    }
+
+    @Test
+    void deveSubstituirAPosicaoDaMesmaChave() {
+        OpenAddressingIndex index = new OpenAddressingIndex(16);
+        index.put(42, 7, 100, location -> false);
+
+        long previous = index.put(42, 7, 200, location -> location == 100);
+
+        assertEquals(100, previous);
+        assertEquals(1, index.size());
+        assertEquals(200, index.get(42, location -> true));
+    }
+
+    @Test
+    void deveManterEntradasColididasEncontraveisAposRemocao() {
+        OpenAddressingIndex index = new OpenAddressingIndex(16);
+        // Mesmos bits baixos: todas disputam o mesmo slot de origem
+        Map<Long, Long> entries = new HashMap<>();
+        for (long i = 1; i <= 8; i++) {
+            long keyHash = (i << 40) | 5;
+            entries.put(keyHash, i);
+            index.put(keyHash, 0, i, location -> false);
+        }
+
+        assertTrue(index.remove((2L << 40) | 5, 2));
+        assertTrue(index.remove((5L << 40) | 5, 5));
+        entries.remove((2L << 40) | 5);
+        entries.remove((5L << 40) | 5);
+
+        assertEquals(6, index.size());
+        entries.forEach((keyHash, location) ->
+                assertEquals((long) location, index.get(keyHash, candidate -> candidate == location)));
+        assertEquals(0, index.get((2L << 40) | 5, candidate -> true));
+    }
+
+    private static byte[] bytes(long key) {
+        return Long.toString(key).getBytes();
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreMongoAdapterTest {
+
+    private static final VehicleAnalysis ANALYSIS = new VehicleAnalysis("9BWZZZ377VT004251", null, null, Map.of());
+
+    private final IdempotencyRepository repository = mock(IdempotencyRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IdempotencyStoreMongoAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, IdempotencyDocument.class)).thenReturn(bulk);
+        // Buffer de uma vaga, sem espera e sem envio periódico durante o teste
+        adapter = new IdempotencyStoreMongoAdapter(repository, new SmileVehicleAnalysisCodec(), mongoTemplate,
+                true, 1, 10, Duration.ofHours(1), Duration.ZERO, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.drain();
+    }
+
+    @Test
+    void deveGravarExcedenteNaHoraComBufferCheio() {
+        adapter.storeResponse("chave-1", ANALYSIS);
+        verify(bulk, times(0)).execute();
+
+        adapter.storeResponse("chave-2", ANALYSIS);
+
+        verify(bulk, times(1)).execute();
+        assertEquals(1.0, meterRegistry.counter("idempotency.store.write.overflow").count());
+        assertTrue(adapter.getResponse("chave-1").isPresent(), "O enfileirado continua visível até o envio");
+    }
+
+    @Test
+    void deveGravarNaHoraDepoisDoEncerramento() {
+        adapter.storeResponse("chave-1", ANALYSIS);
+
+        adapter.drain();
+        verify(bulk, times(1)).execute();
+
+        adapter.storeResponse("chave-2", ANALYSIS);
+
+        verify(bulk, times(2)).execute();
+        verify(bulk, times(2)).replaceOne(any(), any(IdempotencyDocument.class), any());
+        assertEquals(0.0, meterRegistry.counter("idempotency.store.write.overflow").count());
+    }
+
+    @Test
+    void naoDeveGravarPendenteDoVinRemovido() {
+        adapter.storeResponse("chave-1", ANALYSIS);
+        adapter.removeByVin("9BWZZZ377VT004251");
+
+        adapter.drain();
+
+        verify(bulk, times(0)).execute();
+        verify(repository).deleteByVinOrResponseVin(eq("9BWZZZ377VT004251"), eq("9BWZZZ377VT004251"));
+    }
+}
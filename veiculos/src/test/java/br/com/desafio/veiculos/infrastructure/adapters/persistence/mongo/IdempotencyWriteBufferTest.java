@@ -0,0 +1,121 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyWriteBufferTest {
+
+    private final List<List<IdempotencyDocument>> written = new ArrayList<>();
+
+    @Test
+    void deveGravarPendentesEmLotesLimitados() throws Exception {
+        IdempotencyWriteBuffer buffer = new IdempotencyWriteBuffer(1_000, 100, written::add);
+        for (int i = 0; i < 250; i++) {
+            buffer.add(document("chave-" + i, "9BWZZZ377VT" + String.format("%06d", i)), Duration.ZERO);
+        }
+
+        assertTrue(buffer.hasFullBatch());
+        assertEquals(3, buffer.flush());
+
+        assertEquals(List.of(100, 100, 50), written.stream().map(List::size).toList());
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void deveManterPendentesVisiveisAteAGravacao() throws Exception {
+        IdempotencyWriteBuffer buffer = new IdempotencyWriteBuffer(10, 10, written::add);
+        IdempotencyDocument document = document("chave", "9BWZZZ377VT004251");
+        buffer.add(document, Duration.ZERO);
+
+        assertSame(document, buffer.pending("chave").orElseThrow());
+
+        buffer.flush();
+
+        assertTrue(buffer.pending("chave").isEmpty());
+    }
+
+    @Test
+    void deveGravarSomenteAVersaoMaisRecenteDaChave() throws Exception {
+        IdempotencyWriteBuffer buffer = new IdempotencyWriteBuffer(10, 10, written::add);
+        IdempotencyDocument older = document("chave", "9BWZZZ377VT004251");
+        IdempotencyDocument newer = document("chave", "9BWZZZ377VT004251");
+        buffer.add(older, Duration.ZERO);
+        buffer.add(newer, Duration.ZERO);
+
+        buffer.flush();
+
+        assertEquals(1, written.size());
+        assertEquals(List.of(newer), written.get(0));
+    }
+
+    @Test
+    void deveDescartarPendentesDoVinInvalidado() throws Exception {
+        IdempotencyWriteBuffer buffer = new IdempotencyWriteBuffer(10, 10, written::add);
+        buffer.add(document("chave-1", "9BWZZZ377VT004251"), Duration.ZERO);
+        buffer.add(document("chave-2", "9BWZZZ377VT004251"), Duration.ZERO);
+        IdempotencyDocument other = document("chave-3", "9BWZZZ377VT004252");
+        buffer.add(other, Duration.ZERO);
+
+        assertEquals(2, buffer.discardVin("9BWZZZ377VT004251"));
+        buffer.flush();
+
+        assertEquals(List.of(List.of(other)), written);
+    }
+
+    @Test
+    void deveGravarNaHoraAposAEsperaComBufferCheio() throws Exception {
+        IdempotencyWriteBuffer buffer = new IdempotencyWriteBuffer(1, 10, written::add);
+        assertTrue(buffer.add(document("chave-1", "9BWZZZ377VT004251"), Duration.ZERO));
+
+        long start = System.nanoTime();
+        IdempotencyDocument overflow = document("chave-2", "9BWZZZ377VT004252");
+        assertFalse(buffer.add(overflow, Duration.ofMillis(50)));
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+        assertEquals(List.of(List.of(overflow)), written);
+        assertTrue(buffer.pending("chave-2").isEmpty());
+    }
+
+    @Test
+    void naoDeveGravarExcedenteDoVinInvalidadoDuranteAEspera() throws Exception {
+        IdempotencyWriteBuffer buffer = new IdempotencyWriteBuffer(1, 10, written::add);
+        buffer.add(document("chave-1", "9BWZZZ377VT004251"), Duration.ZERO);
+        CompletableFuture<Boolean> overflow = CompletableFuture.supplyAsync(
+                () -> buffer.add(document("chave-2", "9BWZZZ377VT004252"), Duration.ofMillis(300)));
+
+        while (buffer.pending("chave-2").isEmpty()) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, buffer.discardVin("9BWZZZ377VT004252"));
+
+        assertFalse(overflow.get(5, TimeUnit.SECONDS));
+        assertTrue(written.isEmpty(), "O VIN invalidado durante a espera não pode chegar ao MongoDB");
+    }
+
+    @Test
+    void deveGravarNaHoraDepoisDeEncerrado() throws Exception {
+        IdempotencyWriteBuffer buffer = new IdempotencyWriteBuffer(10, 10, written::add);
+        IdempotencyDocument queued = document("chave-1", "9BWZZZ377VT004251");
+        buffer.add(queued, Duration.ZERO);
+
+        assertEquals(1, buffer.close());
+        IdempotencyDocument late = document("chave-2", "9BWZZZ377VT004252");
+
+        assertFalse(buffer.add(late, Duration.ofSeconds(5)));
+        assertEquals(List.of(List.of(queued), List.of(late)), written);
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    private static IdempotencyDocument document(String id, String vin) {
+        return new IdempotencyDocument(id, new VehicleAnalysis(vin, null, null, Map.of()));
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveIdempotencyStoreMongoAdapterTest {
+
+    private static final String VIN = "9BWZZZ377VT004251";
+    private static final VehicleAnalysis ANALYSIS = new VehicleAnalysis(VIN, null, null, Map.of());
+
+    private final ReactiveIdempotencyRepository repository = mock(ReactiveIdempotencyRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void deveDescartarGravacaoQuandoNaoHaVagaParaGravacoesEmAndamento() {
+        ReactiveIdempotencyStoreMongoAdapter adapter = adapter(Duration.ofSeconds(5), 1);
+        Sinks.One<IdempotencyDocument> confirmation = Sinks.one();
+        when(repository.save(any(IdempotencyDocument.class))).thenReturn(confirmation.asMono());
+
+        adapter.storeResponse("chave-1", ANALYSIS);
+        adapter.storeResponse("chave-2", ANALYSIS);
+
+        verify(repository, times(1)).save(any(IdempotencyDocument.class));
+        assertEquals(1.0, meterRegistry.counter("idempotency.store.write.dropped").count());
+        assertEquals(1.0, inFlightWrites());
+
+        confirmation.tryEmitEmpty();
+        assertEquals(0.0, inFlightWrites());
+
+        adapter.storeResponse("chave-3", ANALYSIS);
+        verify(repository, times(2)).save(any(IdempotencyDocument.class));
+    }
+
+    @Test
+    void deveTratarConsultaAlemDoTimeoutComoChaveAusente() {
+        ReactiveIdempotencyStoreMongoAdapter adapter = adapter(Duration.ofMillis(50), 16);
+        when(repository.findById("chave")).thenReturn(Mono.never());
+
+        assertEquals(Optional.empty(), adapter.getResponse("chave"));
+    }
+
+    @Test
+    void deveAguardarARemocaoDoVinAntesDeRetornar() {
+        ReactiveIdempotencyStoreMongoAdapter adapter = adapter(Duration.ofSeconds(5), 16);
+        AtomicBoolean removed = new AtomicBoolean();
+        when(repository.deleteByVinOrResponseVin(VIN, VIN)).thenReturn(Mono.delay(Duration.ofMillis(100))
+                .map(tick -> {
+                    removed.set(true);
+                    return 2L;
+                }));
+
+        adapter.removeByVin(VIN);
+
+        assertTrue(removed.get(), "A invalidação só pode seguir depois que o MongoDB removeu as respostas");
+    }
+
+    private ReactiveIdempotencyStoreMongoAdapter adapter(Duration timeout, int maxInFlightWrites) {
+        return new ReactiveIdempotencyStoreMongoAdapter(repository, new SmileVehicleAnalysisCodec(),
+                mock(ReactiveMongoTemplate.class), timeout, maxInFlightWrites, meterRegistry);
+    }
+
+    private double inFlightWrites() {
+        return meterRegistry.get("idempotency.store.write.inflight").gauge().value();
+    }
+}
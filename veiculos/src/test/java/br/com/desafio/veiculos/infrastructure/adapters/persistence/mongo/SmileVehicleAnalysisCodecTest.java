@@ -0,0 +1,83 @@
+package br.com.desafio.veiculos.infrastructure.adapters.persistence.mongo;
+
+import br.com.desafio.veiculos.domain.Constraints;
+import br.com.desafio.veiculos.domain.Freshness;
+import br.com.desafio.veiculos.domain.Infractions;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmileVehicleAnalysisCodecTest {
+
+    private final SmileVehicleAnalysisCodec codec = new SmileVehicleAnalysisCodec();
+
+    @Test
+    void deveRecuperarAAnaliseCodificadaSemAAtualidade() {
+        VehicleAnalysis analysis = analysis();
+
+        VehicleAnalysis decoded = codec.decode(codec.encode(analysis));
+
+        assertEquals(analysis.withFreshness(null), decoded);
+    }
+
+    @Test
+    void deveIniciarOPayloadPeloByteDeVersao() {
+        assertEquals(SmileVehicleAnalysisCodec.VERSION, codec.encode(analysis())[0]);
+    }
+
+    @Test
+    void deveRecusarPayloadDeVersaoDesconhecida() {
+        byte[] payload = codec.encode(analysis());
+        payload[0] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(payload));
+    }
+
+    @Test
+    void deveGerarPayloadMenorQueOJson() throws Exception {
+        VehicleAnalysis analysis = analysis();
+        byte[] json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsBytes(analysis);
+
+        assertTrue(codec.encode(analysis).length < json.length);
+    }
+
+    @Test
+    void deveLerDocumentoNoFormatoAnteriorEDocumentoCodificado() {
+        VehicleAnalysis analysis = analysis();
+
+        assertEquals(analysis, new IdempotencyDocument("legado", analysis).decode(codec));
+
+        IdempotencyDocument encoded = IdempotencyDocument.encoded("chave", analysis, codec);
+        assertNull(encoded.getResponse());
+        assertEquals(analysis.vin(), encoded.getVin());
+        assertEquals(analysis.withFreshness(null), encoded.decode(codec));
+    }
+
+    private static VehicleAnalysis analysis() {
+        Map<String, SupplierStatus> statuses = new LinkedHashMap<>();
+        statuses.put("F1", new SupplierStatus(SupplierStatus.Status.SUCCESS, 120, null));
+        statuses.put("F2", new SupplierStatus(SupplierStatus.Status.SUCCESS, 80, null, true));
+        statuses.put("F3", new SupplierStatus(SupplierStatus.Status.TIMEOUT, 2000, "Tempo esgotado"));
+        Infractions infractions = new Infractions(new BigDecimal("391.08"), List.of(
+                new Infractions.InfractionDetail("Excesso de velocidade", new BigDecimal("195.54")),
+                new Infractions.InfractionDetail("Excesso de velocidade", new BigDecimal("195.54"))));
+        return VehicleAnalysis.builder()
+                .vin("9BWZZZ377VT004251")
+                .constraints(new Constraints(true, false))
+                .infractions(infractions)
+                .supplierStatus(statuses)
+                .analyzedAt(Instant.parse("2026-10-17T10:15:30.123456Z"))
+                .freshness(Freshness.fresh())
+                .build();
+    }
+}
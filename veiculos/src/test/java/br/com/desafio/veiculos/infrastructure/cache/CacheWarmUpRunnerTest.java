@@ -0,0 +1,140 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import br.com.desafio.veiculos.application.port.out.AnalysisLogReaderPort;
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import br.com.desafio.veiculos.domain.VehicleAnalysisLog;
+import br.com.desafio.veiculos.infrastructure.config.IdempotencyKeyGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheWarmUpRunnerTest {
+
+    private static final Instant NOW = Instant.parse("2025-10-26T12:00:00Z");
+
+    private final IdempotencyKeyGenerator keyGenerator = new IdempotencyKeyGenerator();
+    private final RecordingStore store = new RecordingStore();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void deveAquecerIdentificadoresMaisConsultadosPrimeiro() {
+        // Arrange
+        store.stored.put(keyGenerator.forIdentifier("ABC1234"), analysis("9BWZZZ377VT004251"));
+        store.stored.put(keyGenerator.forIdentifier("XYZ9876"), analysis("9BWZZZ377VT004252"));
+        AnalysisLogReaderPort reader = replaying("XYZ9876", "abc1234", "ABC1234 ", "XYZ9876", "ABC1234", "DEF5555");
+
+        // Act
+        int loaded = runner(reader, 2, Duration.ofSeconds(5)).warmUp();
+
+        // Assert
+        assertEquals(2, loaded);
+        assertEquals(List.of(keyGenerator.forIdentifier("ABC1234"), keyGenerator.forIdentifier("XYZ9876")), store.lookups);
+        assertEquals(6.0, meterRegistry.counter("analysis.warmup.records").count());
+        assertEquals(2.0, meterRegistry.counter("analysis.warmup.entries", "result", "loaded").count());
+    }
+
+    @Test
+    void deveRelerHistoricoDoPeriodoConfigurado() {
+        // Arrange
+        List<Instant> since = new ArrayList<>();
+        AnalysisLogReaderPort reader = (from, maxRecords, deadline, sink) -> {
+            since.add(from);
+            return 0;
+        };
+
+        // Act
+        runner(reader, 10, Duration.ofSeconds(5)).warmUp();
+
+        // Assert
+        assertEquals(List.of(NOW.minus(Duration.ofHours(6))), since);
+    }
+
+    @Test
+    void deveContarIdentificadoresSemAnaliseGravada() {
+        // Arrange
+        AnalysisLogReaderPort reader = replaying("ABC1234", "DEF5555");
+
+        // Act
+        int loaded = runner(reader, 10, Duration.ofSeconds(5)).warmUp();
+
+        // Assert
+        assertEquals(0, loaded);
+        assertEquals(2, store.lookups.size());
+        assertEquals(2.0, meterRegistry.counter("analysis.warmup.entries", "result", "missing").count());
+    }
+
+    @Test
+    void deveIniciarComCacheFrioQuandoLeituraFalhar() {
+        // Arrange
+        AnalysisLogReaderPort reader = (from, maxRecords, deadline, sink) -> {
+            throw new IllegalStateException("Kafka indisponível");
+        };
+
+        // Act
+        int loaded = runner(reader, 10, Duration.ofSeconds(5)).warmUp();
+
+        // Assert
+        assertEquals(0, loaded);
+        assertTrue(store.lookups.isEmpty());
+    }
+
+    @Test
+    void deveRespeitarOrcamentoDeTempo() {
+        // Arrange
+        AnalysisLogReaderPort reader = replaying("ABC1234", "DEF5555");
+
+        // Act
+        int loaded = runner(reader, 10, Duration.ZERO).warmUp();
+
+        // Assert
+        assertEquals(0, loaded);
+        assertTrue(store.lookups.isEmpty());
+    }
+
+    private CacheWarmUpRunner runner(AnalysisLogReaderPort reader, int maxEntries, Duration timeBudget) {
+        return new CacheWarmUpRunner(reader, store, keyGenerator, Duration.ofHours(6), 1_000, maxEntries,
+                timeBudget, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static AnalysisLogReaderPort replaying(String... identifiers) {
+        return (since, maxRecords, deadline, sink) -> {
+            for (String identifier : identifiers) {
+                sink.accept(VehicleAnalysisLog.builder().idInputValue(identifier).build());
+            }
+            return identifiers.length;
+        };
+    }
+
+    private static VehicleAnalysis analysis(String vin) {
+        return VehicleAnalysis.builder().vin(vin).build();
+    }
+
+    private static final class RecordingStore implements IdempotencyStorePort {
+
+        private final Map<String, VehicleAnalysis> stored = new HashMap<>();
+        private final List<String> lookups = new ArrayList<>();
+
+        @Override
+        public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
+            lookups.add(idempotencyKey);
+            return Optional.ofNullable(stored.get(idempotencyKey));
+        }
+
+        @Override
+        public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
+            stored.put(idempotencyKey, response);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingSupplierPortTest {
+
+    private static final String VIN = "9BWZZZ377VT004251";
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void deveServirDoCacheSemChamarOFornecedorNovamente() {
+        CachingSupplierPort port = cached(() -> SupplierResult.success("F3", 120, "infracoes"));
+
+        SupplierResult<Object> first = port.fetchData(VIN);
+        SupplierResult<Object> second = port.fetchData(VIN);
+
+        assertEquals(1, calls.get());
+        assertFalse(first.status().servedFromCache());
+        assertTrue(second.status().servedFromCache());
+        assertEquals(SupplierStatus.Status.SUCCESS, second.status().status());
+        assertEquals(0, second.status().latencyMs());
+        assertEquals("infracoes", second.data());
+    }
+
+    @Test
+    void naoDeveGuardarFalhas() {
+        CachingSupplierPort port = cached(() -> SupplierResult.timeout("F3", 400));
+
+        port.fetchData(VIN);
+        port.fetchData(VIN);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void deveChamarNovamenteAposInvalidacao() {
+        CachingSupplierPort port = cached(() -> SupplierResult.success("F3", 120, "infracoes"));
+
+        port.fetchData(VIN);
+        port.evictVins(List.of(VIN, "9BWZZZ377VT004252"));
+        port.fetchData(VIN);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void deveRepassarNomeEDependencias() {
+        CachingSupplierPort port = cached(() -> SupplierResult.success("F3", 120, "infracoes"));
+
+        assertEquals("F3", port.getSupplierName());
+        assertEquals(Set.of("F1"), port.dependsOn());
+    }
+
+    private CachingSupplierPort cached(Supplier<SupplierResult<Object>> response) {
+        SupplierPort supplier = new SupplierPort() {
+            @Override
+            public SupplierResult<Object> fetchData(String vin) {
+                calls.incrementAndGet();
+                return response.get();
+            }
+
+            @Override
+            public String getSupplierName() {
+                return "F3";
+            }
+
+            @Override
+            public Set<String> dependsOn() {
+                return Set.of("F1");
+            }
+        };
+        return new CachingSupplierPort(supplier, Duration.ofMinutes(1), 1_000_000,
+                (vin, result) -> 100, new SimpleMeterRegistry());
+    }
+}
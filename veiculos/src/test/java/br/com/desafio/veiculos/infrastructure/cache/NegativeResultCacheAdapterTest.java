@@ -0,0 +1,62 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NegativeResultCacheAdapterTest {
+
+    private final NegativeResultCacheAdapter cache =
+            new NegativeResultCacheAdapter(true, Duration.ofMinutes(5), 100, new SimpleMeterRegistry());
+
+    @Test
+    void deveLembrarIdentificadoresRejeitados() {
+        assertFalse(cache.isRejectedIdentifier("LIXO"));
+
+        cache.rememberRejectedIdentifier("LIXO");
+
+        assertTrue(cache.isRejectedIdentifier("LIXO"));
+    }
+
+    @Test
+    void naoDeveGuardarIdentificadoresMuitoLongos() {
+        String longo = "X".repeat(NegativeResultCacheAdapter.MAX_IDENTIFIER_LENGTH + 1);
+
+        cache.rememberRejectedIdentifier(longo);
+
+        assertFalse(cache.isRejectedIdentifier(longo));
+    }
+
+    @Test
+    void deveIgnorarIdentificadorNulo() {
+        cache.rememberRejectedIdentifier(null);
+
+        assertFalse(cache.isRejectedIdentifier(null));
+    }
+
+    @Test
+    void deveDevolverAnaliseDeVeiculoDesconhecido() {
+        VehicleAnalysis analysis = VehicleAnalysis.builder().vin("9BWZZZ377VT004251").build();
+
+        cache.rememberUnknownVehicle("9BWZZZ377VT004251", analysis);
+
+        assertEquals(Optional.of(analysis), cache.getUnknownVehicle("9BWZZZ377VT004251"));
+    }
+
+    @Test
+    void naoDeveGuardarNadaQuandoDesativado() {
+        NegativeResultCacheAdapter disabled =
+                new NegativeResultCacheAdapter(false, Duration.ofMinutes(5), 100, new SimpleMeterRegistry());
+
+        disabled.rememberRejectedIdentifier("LIXO");
+        disabled.rememberUnknownVehicle("9BWZZZ377VT004251", VehicleAnalysis.builder().build());
+
+        assertFalse(disabled.isRejectedIdentifier("LIXO"));
+        assertTrue(disabled.getUnknownVehicle("9BWZZZ377VT004251").isEmpty());
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.desafio.veiculos.infrastructure.cache;
+
+import br.com.desafio.veiculos.application.port.out.IdempotencyStorePort;
+import br.com.desafio.veiculos.domain.VehicleAnalysis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredIdempotencyStoreTest {
+
+    private final FakeRemoteStore remote = new FakeRemoteStore();
+    private final VehicleAnalysis analysis = VehicleAnalysis.builder().vin("9BWZZZ377VT004251").build();
+
+    @Test
+    void deveResponderDoNivelLocalSemConsultarOMongo() {
+        TieredIdempotencyStore store = store(TieredIdempotencyStore.WRITE_THROUGH);
+        store.storeResponse("chave", analysis);
+
+        assertEquals(Optional.of(analysis), store.getResponse("chave"));
+        assertEquals(0, remote.reads.get());
+    }
+
+    @Test
+    void devePromoverParaONivelLocalOQueVeioDoMongo() {
+        TieredIdempotencyStore store = store(TieredIdempotencyStore.WRITE_THROUGH);
+        remote.data.put("chave", analysis);
+
+        assertEquals(Optional.of(analysis), store.getResponse("chave"));
+        assertEquals(Optional.of(analysis), store.getResponse("chave"));
+        assertEquals(1, remote.reads.get());
+    }
+
+    @Test
+    void naoDeveGuardarFaltasNoNivelLocal() {
+        TieredIdempotencyStore store = store(TieredIdempotencyStore.WRITE_THROUGH);
+
+        assertTrue(store.getResponse("chave").isEmpty());
+        remote.data.put("chave", analysis);
+
+        assertEquals(Optional.of(analysis), store.getResponse("chave"));
+    }
+
+    @Test
+    void deveGravarNoMongoNaThreadDoChamadorEmWriteThrough() {
+        TieredIdempotencyStore store = store(TieredIdempotencyStore.WRITE_THROUGH);
+
+        store.storeResponse("chave", analysis);
+
+        assertEquals(analysis, remote.data.get("chave"));
+    }
+
+    @Test
+    void devePersistirAFilaDoWriteBehindAoEncerrar() {
+        TieredIdempotencyStore store = store(TieredIdempotencyStore.WRITE_BEHIND);
+
+        for (int i = 0; i < 50; i++) {
+            store.storeResponse("chave-" + i, analysis);
+        }
+        store.drain();
+
+        assertEquals(50, remote.data.size());
+    }
+
+    @Test
+    void deveDescartarDoNivelLocalTodasAsChavesDoVin() {
+        TieredIdempotencyStore store = store(TieredIdempotencyStore.WRITE_THROUGH);
+        VehicleAnalysis other = VehicleAnalysis.builder().vin("9BWZZZ377VT004252").build();
+        store.storeResponse("placa", analysis);
+        store.storeResponse("vin", analysis);
+        store.storeResponse("outro", other);
+        remote.data.clear();
+
+        store.evictVins(List.of("9BWZZZ377VT004251"));
+
+        assertTrue(store.getResponse("placa").isEmpty());
+        assertTrue(store.getResponse("vin").isEmpty());
+        assertEquals(Optional.of(other), store.getResponse("outro"));
+    }
+
+    @Test
+    void naoDeveDevolverAoMongoGravacaoEnfileiradaDoVinRemovido() {
+        TieredIdempotencyStore store = store(TieredIdempotencyStore.WRITE_BEHIND);
+        VehicleAnalysis other = VehicleAnalysis.builder().vin("9BWZZZ377VT004252").build();
+        CountDownLatch release = new CountDownLatch(1);
+        remote.gate = release;
+        store.storeResponse("outro", other);
+        store.storeResponse("chave", analysis);
+        // A gravação de "outro" segura a fila; removeByVin aguarda o fim dela antes de descartar
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(release::countDown);
+
+        store.removeByVin("9BWZZZ377VT004251");
+        store.drain();
+
+        assertEquals(Map.of("outro", other), remote.data);
+        assertEquals(List.of("9BWZZZ377VT004251"), remote.removedVins);
+    }
+
+    @Test
+    void naoDeveDevolverAoMongoGravacaoEnfileiradaDoVinInvalidadoPorOutraInstancia() {
+        TieredIdempotencyStore store = store(TieredIdempotencyStore.WRITE_BEHIND);
+        CountDownLatch release = new CountDownLatch(1);
+        remote.gate = release;
+        store.storeResponse("primeira", VehicleAnalysis.builder().vin("9BWZZZ377VT004252").build());
+        store.storeResponse("chave", analysis);
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(release::countDown);
+
+        store.evictVins(List.of("9BWZZZ377VT004251"));
+        store.drain();
+
+        assertFalse(remote.data.containsKey("chave"));
+        assertTrue(store.getResponse("chave").isEmpty());
+    }
+
+    @Test
+    void deveGravarNoMongoPeloChamadorDepoisDoEncerramento() {
+        TieredIdempotencyStore store = store(TieredIdempotencyStore.WRITE_BEHIND);
+        store.drain();
+
+        store.storeResponse("chave", analysis);
+
+        assertEquals(analysis, remote.data.get("chave"));
+    }
+
+    @Test
+    void deveRejeitarConsistenciaDesconhecida() {
+        assertThrows(IllegalArgumentException.class, () -> store("eventual"));
+    }
+
+    private TieredIdempotencyStore store(String consistency) {
+        return new TieredIdempotencyStore(remote, consistency, 100, Duration.ofMinutes(1), 10, new SimpleMeterRegistry());
+    }
+
+    private static final class FakeRemoteStore implements IdempotencyStorePort {
+
+        private final Map<String, VehicleAnalysis> data = new ConcurrentHashMap<>();
+        private final AtomicInteger reads = new AtomicInteger();
+        private final List<String> removedVins = new CopyOnWriteArrayList<>();
+        // Segura as gravações até ser liberado
+        private volatile CountDownLatch gate;
+
+        @Override
+        public Optional<VehicleAnalysis> getResponse(String idempotencyKey) {
+            reads.incrementAndGet();
+            return Optional.ofNullable(data.get(idempotencyKey));
+        }
+
+        @Override
+        public void storeResponse(String idempotencyKey, VehicleAnalysis response) {
+            CountDownLatch current = gate;
+            if (current != null) {
+                try {
+                    current.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            data.put(idempotencyKey, response);
+        }
+
+        @Override
+        public void removeByVin(String vin) {
+            removedVins.add(vin);
+            data.values().removeIf(response -> vin.equals(response.vin()));
+        }
+    }
+}
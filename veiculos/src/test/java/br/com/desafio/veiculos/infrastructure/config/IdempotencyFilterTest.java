@@ -0,0 +1,160 @@
+package br.com.desafio.veiculos.infrastructure.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private static final String HEADER = "Idempotency-Key";
+    // Maior que os buffers de leitura e com caracteres de mais de um byte em UTF-8
+    private static final String BODY = "[\"ABC1234\",\"1HGBH41JXMN109186\",\"12345678901\"] é ".repeat(300);
+
+    private final IdempotencyKeyGenerator generator = new IdempotencyKeyGenerator();
+    private final IdempotencyFilter filter = new IdempotencyFilter(generator);
+
+    @Test
+    void deveLerORestanteDoBodyQuandoOHeaderEConsultadoAntesDoFim() throws Exception {
+        // Arrange
+        List<String> keys = new ArrayList<>();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+
+        // Act
+        filter.doFilter(post(BODY), new MockHttpServletResponse(), (request, response) -> {
+            HttpServletRequest http = (HttpServletRequest) request;
+            ServletInputStream body = http.getInputStream();
+            read.write(body.readNBytes(10));
+            keys.add(http.getHeader(HEADER));
+            read.write(body.readAllBytes());
+            assertTrue(body.isFinished());
+            assertEquals(-1, body.read());
+        });
+
+        // Assert
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), read.toByteArray());
+        assertEquals(List.of(generator.generate(BODY)), keys);
+    }
+
+    @Test
+    void deveEntregarOBodyIntactoQuandoOHeaderEConsultadoAntesDaLeitura() throws Exception {
+        // Arrange
+        List<String> keys = new ArrayList<>();
+        List<byte[]> bodies = new ArrayList<>();
+
+        // Act
+        filter.doFilter(post(BODY), new MockHttpServletResponse(), (request, response) -> {
+            HttpServletRequest http = (HttpServletRequest) request;
+            keys.add(http.getHeader(HEADER));
+            bodies.add(http.getInputStream().readAllBytes());
+        });
+
+        // Assert
+        assertEquals(List.of(generator.generate(BODY)), keys);
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), bodies.get(0));
+    }
+
+    @Test
+    void deveGerarAChaveDoBodyJaLidoPeloController() throws Exception {
+        // Arrange
+        List<String> keys = new ArrayList<>();
+        StringBuilder read = new StringBuilder();
+
+        // Act
+        filter.doFilter(post(BODY), new MockHttpServletResponse(), (request, response) -> {
+            HttpServletRequest http = (HttpServletRequest) request;
+            http.getReader().lines().forEach(read::append);
+            keys.add(http.getHeader(HEADER));
+            keys.add(http.getHeaders(HEADER).nextElement());
+        });
+
+        // Assert
+        assertEquals(BODY, read.toString());
+        assertEquals(List.of(generator.generate(BODY), generator.generate(BODY)), keys);
+    }
+
+    @Test
+    void deveCombinarLeiturasPorInputStreamEReader() throws Exception {
+        // Arrange
+        List<String> keys = new ArrayList<>();
+        StringBuilder read = new StringBuilder();
+
+        // Act
+        filter.doFilter(post(BODY), new MockHttpServletResponse(), (request, response) -> {
+            HttpServletRequest http = (HttpServletRequest) request;
+            read.append((char) http.getInputStream().read());
+            assertSame(http.getReader(), http.getReader());
+            read.append((char) http.getReader().read());
+            keys.add(http.getHeader(HEADER));
+            http.getReader().lines().forEach(read::append);
+            assertEquals(-1, http.getInputStream().read());
+        });
+
+        // Assert
+        assertEquals(BODY, read.toString());
+        assertEquals(List.of(generator.generate(BODY)), keys);
+    }
+
+    @Test
+    void deveGerarChaveEstavelParaGetSemLerOBody() throws Exception {
+        // Arrange
+        List<String> keys = new ArrayList<>();
+        FilterChain chain = (request, response) -> {
+            HttpServletRequest http = (HttpServletRequest) request;
+            keys.add(http.getHeader(HEADER));
+            keys.add(http.getHeader(HEADER.toLowerCase()));
+            assertTrue(Collections.list(http.getHeaderNames()).contains(HEADER));
+        };
+
+        // Act
+        filter.doFilter(get(), new MockHttpServletResponse(), chain);
+        filter.doFilter(get(), new MockHttpServletResponse(), chain);
+
+        // Assert
+        String expected = generator.generate("GET", "/api/v1/veiculos/ABC1234/analise?detalhe=true");
+        assertEquals(List.of(expected, expected, expected, expected), keys);
+    }
+
+    @Test
+    void deveManterAChaveEnviadaPeloCliente() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = post(BODY);
+        request.addHeader(HEADER, "chave-do-cliente");
+        List<HttpServletRequest> forwarded = new ArrayList<>();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (chained, response) -> forwarded.add((HttpServletRequest) chained));
+
+        // Assert
+        assertSame(request, forwarded.get(0));
+        assertEquals("chave-do-cliente", forwarded.get(0).getHeader(HEADER));
+    }
+
+    private static MockHttpServletRequest post(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/veiculos/analises");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletRequest get() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/veiculos/ABC1234/analise") {
+            @Override
+            public ServletInputStream getInputStream() {
+                return fail("A chave de um GET não depende do body");
+            }
+        };
+        request.setQueryString("detalhe=true");
+        return request;
+    }
+}
@@ -2,6 +2,11 @@ package br.com.desafio.veiculos.infrastructure.config;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class IdempotencyKeyGeneratorTest {
@@ -136,5 +141,108 @@ class IdempotencyKeyGeneratorTest {
         // Assert
         assertEquals(key1, key2, "Deve ser determinístico independente do tempo");
     }
-}
 
+    @Test
+    void deveGerarChaveDoIdentificadorIgnorandoCaixaEEspacos() {
+        // Act
+        String key1 = generator.forIdentifier("abc1234");
+        String key2 = generator.forIdentifier(" ABC1234 ");
+
+        // Assert
+        assertEquals(key1, key2);
+        assertTrue(key1.matches("[0-9a-f]{64}"), "Chave deve ser SHA-256 hexadecimal completo");
+    }
+
+    @Test
+    void deveGerarChavesDiferentesParaIdentificadoresDiferentes() {
+        // Act
+        String key1 = generator.forIdentifier("ABC1234");
+        String key2 = generator.forIdentifier("XYZ9876");
+
+        // Assert
+        assertNotEquals(key1, key2);
+    }
+
+    @Test
+    void deveManterAChaveDeConteudoCompativelComOHashSha256() throws Exception {
+        // Arrange
+        String content = "{\"test\":\"data\"}";
+        byte[] sha256 = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        String key = generator.generate(content);
+
+        // Assert
+        assertEquals(HexFormat.of().formatHex(sha256).substring(0, 32), key);
+    }
+
+    @Test
+    void deveCalcularMurmur3IgualAImplementacaoDeReferencia() {
+        // Act
+        byte[] hash = Murmur3.hash128("The quick brown fox jumps over the lazy dog"
+                .getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        assertEquals("6c1b07bc7bbc4be347939ac4a93c437a", IdempotencyKeyGenerator.toHex(hash, hash.length));
+    }
+
+    @Test
+    void deveGerarChavesMurmur3ComTamanhoFixo() {
+        // Arrange
+        IdempotencyKeyGenerator murmur = new IdempotencyKeyGenerator(IdempotencyKeyGenerator.MURMUR3_128);
+
+        // Act
+        String key = murmur.forIdentifier(" abc1234");
+
+        // Assert
+        assertEquals(key, murmur.forIdentifier("ABC1234"));
+        assertTrue(key.matches("[0-9a-f]{32}"));
+        assertNotEquals(generator.forIdentifier("ABC1234").substring(0, 32), key);
+        assertEquals(32, murmur.generate("{\"test\":\"data\"}").length());
+    }
+
+    @Test
+    void deveRecusarAlgoritmoDesconhecido() {
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyKeyGenerator("md5"));
+    }
+
+    @Test
+    void deveCalcularChaveDoConteudoEmPartesIgualAoConteudoInteiro() {
+        // Arrange: blocos de tamanhos variados, atravessando os blocos de 16 bytes do Murmur3
+        String content = "[\"ABC1234\",\"1HGBH41JXMN109186\",\"12345678901\",\"DEF5678\"] é";
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        for (IdempotencyKeyGenerator keys : List.of(generator,
+                new IdempotencyKeyGenerator(IdempotencyKeyGenerator.MURMUR3_128))) {
+            IdempotencyKeyGenerator.ContentKey contentKey = keys.contentKey();
+
+            // Act
+            contentKey.update(bytes[0]);
+            int offset = 1;
+            for (int chunk = 1; offset < bytes.length; chunk += 4) {
+                int length = Math.min(chunk, bytes.length - offset);
+                contentKey.update(bytes, offset, length);
+                offset += length;
+            }
+
+            // Assert
+            assertEquals(keys.generate(content), contentKey.key());
+            assertEquals(contentKey.key(), contentKey.key(), "Chave não muda depois de calculada");
+        }
+    }
+
+    @Test
+    void deveGerarUuidParaConteudoEmPartesSoComEspacos() {
+        // Arrange
+        IdempotencyKeyGenerator.ContentKey contentKey = generator.contentKey();
+        byte[] spaces = " \n\t ".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        contentKey.update(spaces, 0, spaces.length);
+        String key = contentKey.key();
+
+        // Assert
+        assertEquals(36, key.length(), "Conteúdo em branco gera UUID aleatório, como generate");
+        assertThrows(IllegalStateException.class, () -> contentKey.update('x'));
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.desafio.veiculos.infrastructure.mock;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VehicleStoreTest {
+
+    @Test
+    void deveCarregarArquivoEmLoteIgnorandoLinhasInvalidas() throws IOException {
+        Path file = Files.createTempFile("veiculos", ".csv");
+        try {
+            Files.write(file, List.of(
+                    "# placa;renavam;vin;marca;modelo;ano;renajud;recall",
+                    "ABC1234;12345678901;9BWZZZ377VT004251;Volkswagen;Gol;2020;false;false",
+                    "MNO1234;67890123456;9BWHE41J484021768;Volkswagen;Fox;2018;true;false",
+                    "",
+                    "VIN_CURTO;123;9BW;Fiat;Uno;2020;false;false",
+                    "EFG5678;21234567892;9BWAA45U59P098765;Volkswagen;T-Cross;2019;true;true"));
+
+            VehicleStore store = VehicleStore.load(file);
+
+            assertEquals(3, store.size());
+            assertEquals(2, store.renajudCount());
+            assertEquals(1, store.recallCount());
+            assertEquals("T-Cross", store.find("efg5678").orElseThrow().getModelo());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void deveEncontrarPelosTresIdentificadores() {
+        VehicleStore store = VehicleStore.builder()
+                .add("YZA7890", "01234567890", "9BD178068M8054321", "Chevrolet", "Tracker", 2022, false, true)
+                .build();
+
+        VehicleDatabase.VehicleData byVin = store.find("9bd178068m8054321").orElseThrow();
+        VehicleDatabase.VehicleData byPlaca = store.find("YZA7890").orElseThrow();
+        VehicleDatabase.VehicleData byRenavam = store.find("01234567890").orElseThrow();
+
+        assertEquals(byVin, byPlaca);
+        assertEquals(byVin, byRenavam);
+        assertEquals("01234567890", byVin.getRenavam());
+        assertEquals(2022, byVin.getAno());
+        assertTrue(byVin.isRecall());
+    }
+
+    @Test
+    void deveIgnorarVinRepetidoNasContagens() {
+        VehicleStore store = VehicleStore.builder()
+                .add("ABC1234", "12345678901", "9BWZZZ377VT004251", "Volkswagen", "Gol", 2020, true, false)
+                .add("ZZZ9999", "99999999999", "9BWZZZ377VT004251", "Volkswagen", "Gol", 2020, true, true)
+                .build();
+
+        assertEquals(1, store.size());
+        assertEquals(1, store.renajudCount());
+        assertEquals(0, store.recallCount());
+        assertEquals(Optional.empty(), store.find("ZZZ9999"));
+    }
+
+    @Test
+    void naoDeveEncontrarIdentificadoresForaDoFormato() {
+        VehicleStore store = VehicleStore.builder()
+                .add("ABC1234", "12345678901", "9BWZZZ377VT004251", "Volkswagen", "Gol", 2020, false, false)
+                .build();
+
+        assertTrue(store.find("ABC12345").isEmpty());
+        assertTrue(store.find("1234567890X").isEmpty());
+        assertTrue(store.find("ÀBC1234").isEmpty());
+    }
+
+    @Test
+    void deveRejeitarLinhaComCampoDeLarguraInvalida() {
+        VehicleStore.Builder builder = VehicleStore.builder();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.add("ABC12", "12345678901", "9BWZZZ377VT004251", "Volkswagen", "Gol", 2020, false, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.add("ABC1234", "1234", "9BWZZZ377VT004251", "Volkswagen", "Gol", 2020, false, false));
+    }
+
+    @Test
+    void deveSuportarMilharesDeVeiculos() {
+        VehicleStore.Builder builder = VehicleStore.builder();
+        for (int i = 0; i < 50_000; i++) {
+            builder.add(String.format("A%06d", i), String.format("%011d", i), String.format("9BW%014d", i),
+                    "Marca" + (i % 7), "Modelo" + (i % 31), 2000 + i % 25, i % 10 == 0, i % 4 == 0);
+        }
+        VehicleStore store = builder.build();
+
+        assertEquals(50_000, store.size());
+        assertEquals(5_000, store.renajudCount());
+        assertEquals(12_500, store.recallCount());
+        for (int i = 0; i < 50_000; i += 997) {
+            assertEquals(String.format("A%06d", i), store.find(String.format("9BW%014d", i)).orElseThrow().getPlaca());
+            assertEquals(String.format("9BW%014d", i), store.find(String.format("%011d", i)).orElseThrow().getVin());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.desafio.veiculos.infrastructure.resilience;
+
+import br.com.desafio.veiculos.application.port.out.SupplierPort;
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimitSupplierPortTest {
+
+    private static final Duration BACKOFF = Duration.ofMillis(300);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeadlineAwareResilience resilience = new DeadlineAwareResilience(
+            RetryRegistry.of(RetryConfig.custom().maxAttempts(3).waitDuration(BACKOFF).build()),
+            CircuitBreakerRegistry.ofDefaults(),
+            RateLimiterRegistry.ofDefaults(),
+            BulkheadRegistry.ofDefaults(),
+            meterRegistry);
+    private final RecordingLimiter limiter = new RecordingLimiter();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void deveAmostrarSoATentativaQueRespondeuSemAEsperaEntreTentativas() {
+        AdaptiveLimitSupplierPort port = new AdaptiveLimitSupplierPort(new FlakySupplier(), limiter, meterRegistry);
+
+        SupplierResult<Object> result = port.fetchData("9BWZZZ377VT004251", Deadline.after(Duration.ofSeconds(5)));
+
+        assertEquals("ok", result.data());
+        assertEquals(2, attempts.get());
+        assertEquals(1, limiter.samples.size());
+        assertTrue(limiter.samples.get(0) < BACKOFF.toNanos(),
+                "A amostra não pode incluir a tentativa que falhou nem a espera de " + BACKOFF);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void naoDeveAmostrarQuandoNenhumaTentativaChegouAoFornecedor() {
+        AdaptiveLimitSupplierPort port = new AdaptiveLimitSupplierPort(new FlakySupplier(), limiter, meterRegistry);
+
+        port.fetchData("9BWZZZ377VT004251", Deadline.after(Duration.ZERO));
+
+        assertEquals(0, attempts.get());
+        assertTrue(limiter.samples.isEmpty());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void deveAmostrarAChamadaInteiraForaDoCaminhoComPrazo() {
+        AdaptiveLimitSupplierPort port = new AdaptiveLimitSupplierPort(new FlakySupplier(), limiter, meterRegistry);
+
+        port.fetchData("9BWZZZ377VT004251");
+
+        assertEquals(1, limiter.samples.size());
+        assertTrue(limiter.samples.get(0) >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    private static final class RecordingLimiter extends GradientConcurrencyLimiter {
+
+        private final List<Long> samples = new CopyOnWriteArrayList<>();
+
+        RecordingLimiter() {
+            super(10, 1, 25, 1.5, 0.2);
+        }
+
+        @Override
+        public void onSample(long rttNanos, boolean dropped) {
+            samples.add(rttNanos);
+            super.onSample(rttNanos, dropped);
+        }
+    }
+
+    /**
+     * Primeira tentativa falha na hora; as seguintes respondem em 20ms.
+     */
+    private final class FlakySupplier implements SupplierPort {
+
+        @Override
+        public SupplierResult<Object> fetchData(String vin) {
+            return respond();
+        }
+
+        @Override
+        public SupplierResult<Object> fetchData(String vin, Deadline deadline) {
+            return resilience.execute("F3", false, deadline, Duration.ofMillis(400),
+                    () -> attempts.incrementAndGet() == 1 ? fail() : respond(),
+                    e -> e instanceof TimeoutException
+                            ? SupplierResult.timeout("F3", 0)
+                            : SupplierResult.failure("F3", 0, e.getMessage()));
+        }
+
+        @Override
+        public String getSupplierName() {
+            return "F3";
+        }
+
+        private SupplierResult<Object> fail() {
+            throw new IllegalStateException("falha transitória");
+        }
+
+        private SupplierResult<Object> respond() {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return SupplierResult.success("F3", 20, "ok");
+        }
+    }
+}
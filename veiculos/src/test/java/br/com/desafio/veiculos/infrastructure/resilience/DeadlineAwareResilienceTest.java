@@ -0,0 +1,96 @@
+package br.com.desafio.veiculos.infrastructure.resilience;
+
+import br.com.desafio.veiculos.domain.Deadline;
+import br.com.desafio.veiculos.domain.SupplierResult;
+import br.com.desafio.veiculos.domain.SupplierStatus;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineAwareResilienceTest {
+
+    private static final Duration ATTEMPT_TIMEOUT = Duration.ofMillis(400);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeadlineAwareResilience resilience = new DeadlineAwareResilience(
+            RetryRegistry.of(RetryConfig.custom().maxAttempts(3).waitDuration(Duration.ofMillis(100)).build()),
+            CircuitBreakerRegistry.ofDefaults(),
+            RateLimiterRegistry.ofDefaults(),
+            BulkheadRegistry.ofDefaults(),
+            meterRegistry);
+
+    private final Function<Throwable, SupplierResult<Object>> fallback = e -> e instanceof TimeoutException
+            ? SupplierResult.timeout("F3", 0)
+            : SupplierResult.failure("F3", 0, e.getMessage());
+
+    @Test
+    void deveFazerTodasAsTentativasSemPrazo() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        SupplierResult<Object> result = resilience.execute("F3", false, Deadline.none(), ATTEMPT_TIMEOUT,
+                () -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("falha");
+                }, fallback);
+
+        assertEquals(3, attempts.get());
+        assertEquals(SupplierStatus.Status.FAILURE, result.status().status());
+    }
+
+    @Test
+    void naoDeveTentarNovamenteQuandoOPrazoNaoComportaOutraTentativa() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        SupplierResult<Object> result = resilience.execute("F3", false, Deadline.after(Duration.ofMillis(300)), ATTEMPT_TIMEOUT,
+                () -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("falha");
+                }, fallback);
+
+        assertEquals(1, attempts.get());
+        assertEquals(SupplierStatus.Status.TIMEOUT, result.status().status());
+        assertEquals(1.0, meterRegistry.get("supplier.deadline.exhausted")
+                .tag("supplier", "F3").tag("stage", "retry").counter().count());
+    }
+
+    @Test
+    void naoDeveChamarFornecedorComPrazoEsgotado() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        SupplierResult<Object> result = resilience.execute("F3", false, Deadline.after(Duration.ZERO), ATTEMPT_TIMEOUT,
+                () -> {
+                    attempts.incrementAndGet();
+                    return SupplierResult.success("F3", 1, "ok");
+                }, fallback);
+
+        assertEquals(0, attempts.get());
+        assertEquals(SupplierStatus.Status.TIMEOUT, result.status().status());
+    }
+
+    @Test
+    void deveDevolverResultadoDaTentativaBemSucedida() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        SupplierResult<Object> result = resilience.execute("F3", false, Deadline.after(Duration.ofSeconds(5)), ATTEMPT_TIMEOUT,
+                () -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new IllegalStateException("falha transitória");
+                    }
+                    return SupplierResult.success("F3", 1, "ok");
+                }, fallback);
+
+        assertEquals(2, attempts.get());
+        assertEquals("ok", result.data());
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.desafio.veiculos.infrastructure.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void deveRejeitarAcimaDoLimiteAtual() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10, 1.5, 0.2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.onIgnore();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void deveCrescerAteOTetoComLatenciaEstavelSobCarga() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 20, 1.5, 0.2);
+
+        for (int i = 0; i < 200; i++) {
+            saturateAndComplete(limiter, BASE_RTT);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void naoDeveCrescerSemDemanda() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(8, 1, 20, 1.5, 0.2);
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onSample(BASE_RTT, false);
+        }
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void deveReduzirQuandoALatenciaSobeAcimaDaLinhaDeBase() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 1, 20, 1.5, 0.2);
+        for (int i = 0; i < 100; i++) {
+            saturateAndComplete(limiter, BASE_RTT);
+        }
+        int healthyLimit = limiter.getLimit();
+
+        for (int i = 0; i < 30; i++) {
+            saturateAndComplete(limiter, BASE_RTT * 10);
+        }
+
+        assertTrue(limiter.getLimit() < healthyLimit,
+                "limite deveria cair de " + healthyLimit + ", ficou em " + limiter.getLimit());
+    }
+
+    @Test
+    void deveReduzirMultiplicativamenteEmTimeoutRespeitandoOMinimo() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 2, 20, 1.5, 0.2);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.onSample(BASE_RTT, true);
+        assertEquals(9, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onSample(BASE_RTT, true);
+        }
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private void saturateAndComplete(GradientConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.onSample(rttNanos, false);
+        }
+    }
+}